@@ -0,0 +1,142 @@
+
+package amat.antigen;
+
+import java.util.SplittableRandom;
+
+import jam.math.JamRandom;
+
+/**
+ * Samples indexes from a fixed discrete distribution in constant time
+ * using the alias method of Walker (as constructed by Vose).
+ */
+public final class AliasTable {
+    private final double[] prob;
+    private final int[] alias;
+
+    private AliasTable(double[] prob, int[] alias) {
+        this.prob  = prob;
+        this.alias = alias;
+    }
+
+    /**
+     * Creates an alias table for a set of non-negative weights.
+     *
+     * @param weights the (unnormalized) selection weights.
+     *
+     * @param count the number of leading weights to include.
+     *
+     * @return an alias table that selects index {@code k} with
+     * probability {@code weights[k] / sum(weights)}.
+     *
+     * @throws IllegalArgumentException unless the count is positive,
+     * all weights are non-negative, and the total weight is positive.
+     */
+    public static AliasTable create(double[] weights, int count) {
+        if (count < 1)
+            throw new IllegalArgumentException("At least one weight is required.");
+
+        double total = 0.0;
+
+        for (int index = 0; index < count; index++) {
+            if (weights[index] < 0.0)
+                throw new IllegalArgumentException("Negative weight.");
+
+            total += weights[index];
+        }
+
+        if (total <= 0.0)
+            throw new IllegalArgumentException("Total weight must be positive.");
+
+        double[] prob   = new double[count];
+        int[]    alias  = new int[count];
+        double[] scaled = new double[count];
+
+        int[] small = new int[count];
+        int[] large = new int[count];
+
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int index = 0; index < count; index++) {
+            scaled[index] = count * weights[index] / total;
+
+            if (scaled[index] < 1.0)
+                small[smallCount++] = index;
+            else
+                large[largeCount++] = index;
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            prob[less]  = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+
+            if (scaled[more] < 1.0)
+                small[smallCount++] = more;
+            else
+                large[largeCount++] = more;
+        }
+
+        // Any remaining entries differ from one only by round-off...
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            prob[index]  = 1.0;
+            alias[index] = index;
+        }
+
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            prob[index]  = 1.0;
+            alias[index] = index;
+        }
+
+        return new AliasTable(prob, alias);
+    }
+
+    /**
+     * Selects an index at random.
+     *
+     * @param random the random number source.
+     *
+     * @return an index selected with probability proportional to its
+     * weight.
+     */
+    public int select(JamRandom random) {
+        int column = random.nextInt(prob.length);
+
+        if (random.nextDouble() < prob[column])
+            return column;
+        else
+            return alias[column];
+    }
+
+    /**
+     * Selects an index at random.
+     *
+     * @param random the random number source.
+     *
+     * @return an index selected with probability proportional to its
+     * weight.
+     */
+    public int select(SplittableRandom random) {
+        int column = random.nextInt(prob.length);
+
+        if (random.nextDouble() < prob[column])
+            return column;
+        else
+            return alias[column];
+    }
+
+    /**
+     * Returns the number of indexes in this table.
+     *
+     * @return the number of indexes in this table.
+     */
+    public int size() {
+        return prob.length;
+    }
+}
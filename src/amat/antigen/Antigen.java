@@ -57,10 +57,14 @@ import amat.epitope.Epitope;
  * automatically via {@link Antigen#auto()}.
  */
 public final class Antigen extends KeyedObject<String> implements Formatted {
+    private final int index;
     private final List<Epitope> epitopes;
 
     private static final Map<String, Antigen> instances = new LinkedHashMap<String, Antigen>();
 
+    // Registered antigens in index order...
+    private static final List<Antigen> indexed = new ArrayList<Antigen>();
+
     // Comment text delimiter...
     private static final Pattern COMMENT_PATTERN = Pattern.compile("#");
 
@@ -93,8 +97,10 @@ public final class Antigen extends KeyedObject<String> implements Formatted {
             if (epitope == null)
                 throw new NullPointerException("Missing epitope.");
 
+        this.index = instances.size();
         this.epitopes = Collections.unmodifiableList(new ArrayList<Epitope>(epitopes));
         instances.put(key, this);
+        indexed.add(this);
     }
 
     /**
@@ -147,6 +153,16 @@ public final class Antigen extends KeyedObject<String> implements Formatted {
         return Collections.unmodifiableCollection(instances.values());
     }
 
+    /**
+     * Returns the dense registration index of this antigen.
+     *
+     * @return the (zero-offset) order in which this antigen was added
+     * to the global registry.
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Automatically creates one antigen for each epitope in the
      * epitope registry.  The antigens will contain exactly one
@@ -250,6 +266,19 @@ public final class Antigen extends KeyedObject<String> implements Formatted {
         return instances.get(key);
     }
 
+    /**
+     * Retrieves an antigen by its dense registration index.
+     *
+     * @param index the registration index of the antigen.
+     *
+     * @return the antigen with the given registration index.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public static Antigen lookup(int index) {
+        return indexed.get(index);
+    }
+
     /**
      * Creates a new antigen from its string representation and adds
      * it to the global registry.
@@ -1,18 +1,22 @@
 
 package amat.antigen;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import jam.chem.Concentration;
 import jam.chem.HalfLife;
-import jam.math.DoubleComparator;
+import jam.chem.Langmuir;
 import jam.math.JamRandom;
+import jam.math.Probability;
 import jam.util.ListView;
 
 import amat.epitope.Epitope;
@@ -24,23 +28,65 @@ import amat.vaccine.VaccineComponent;
  * present in a germinal center during affinity maturation.
  */
 public final class AntigenPool {
-    private final Map<Antigen, Concentration> concMap;
-
-    // The set of selection probabilities (antigen concentration
-    // divided by the total) created on demand by the first call
-    // to select() and cached until the contents of the pool are
-    // changed. Event indexes returned by the set are indexes of
-    // the antigens in the "selectFrom" array.  The "selectProb"
-    // array contains the selection probabilities (concentration
-    // divided by total) for each antigen.
-    private Antigen[] selectFrom = null;
-    private double[]  selectProb = null;
+    //
+    // The antigens and their concentrations are stored in parallel
+    // arrays; the first "size" entries are occupied.  The "slots"
+    // array maps the registration index of an antigen to one plus
+    // its position in the parallel arrays (zero for absent antigens).
+    //
+    private Antigen[] antigens = new Antigen[INITIAL_CAPACITY];
+    private double[]  concs    = new double[INITIAL_CAPACITY];
+    private int[]     slots    = new int[0];
+    private int       size     = 0;
+
+    // The total concentration and the alias table for antigen
+    // selection are created on demand and cached.  Uniform decay
+    // rescales all concentrations without changing the selection
+    // probabilities, so it invalidates only the cached total; any
+    // other change to the contents of the pool clears both.  Table
+    // indexes are positions in the parallel arrays.
+    private double total = Double.NaN;
+    private Probability occupancy = null;
+    private AliasTable aliasTable = null;
+
+    // Frozen pools have all cached quantities computed eagerly and
+    // reject any modification, so they may be shared across threads...
+    private boolean frozen = false;
+
+    // Read-only view of the occupied entries...
+    private final Set<Antigen> antigenView = new AbstractSet<Antigen>() {
+            @Override public boolean contains(Object obj) {
+                return (obj instanceof Antigen) && AntigenPool.this.contains((Antigen) obj);
+            }
+
+            @Override public Iterator<Antigen> iterator() {
+                return new Iterator<Antigen>() {
+                    private int position = 0;
+
+                    @Override public boolean hasNext() {
+                        return position < size;
+                    }
+
+                    @Override public Antigen next() {
+                        if (position >= size)
+                            throw new NoSuchElementException();
+
+                        return antigens[position++];
+                    }
+                };
+            }
+
+            @Override public int size() {
+                return size;
+            }
+        };
+
+    private static final int INITIAL_CAPACITY = 4;
 
     /**
      * Creates an empty antigen pool.
      */
     public AntigenPool() {
-        this.concMap = new HashMap<Antigen, Concentration>();
     }
 
     /**
@@ -63,44 +109,54 @@ public final class AntigenPool {
         add(vaccine);
     }
 
-    // Access the concentration map for an operation that will leave
-    // its contents unchanged; the cache remains intact.
-    private Map<Antigen, Concentration> viewMap() {
-        return concMap;
-    }
+    // Returns the position of an antigen in the parallel arrays, or
+    // -1 if the antigen is absent...
+    private int positionOf(Antigen antigen) {
+        int index = antigen.getIndex();
 
-    // Access the concentration map for an operation that will alter
-    // its contents and clear the cache, which will be invalidated by
-    // the operation.
-    private Map<Antigen, Concentration> alterMap() {
-        clearCache();
-        return concMap;
+        if (index < slots.length)
+            return slots[index] - 1;
+        else
+            return -1;
     }
 
-    // Ensure that the antigen selection cache is ready for use...
-    private void checkCache() {
-        if (selectFrom == null)
-            createCache();
+    // Invalidate the cached total and selection table...
+    private void clearCache() {
+        total = Double.NaN;
+        occupancy = null;
+        aliasTable = null;
     }
 
-    // Invalidate the antigen selection cache...
-    private void clearCache() {
-        selectFrom = null;
-        selectProb = null;
+    private void checkMutable() {
+        if (frozen)
+            throw new IllegalStateException("Frozen antigen pools may not be modified.");
     }
 
-    // Create the antigen selection cache...
-    private void createCache() {
+    // Ensure that the antigen selection table is ready for use...
+    private AliasTable checkCache() {
         if (isEmpty())
             throw new IllegalStateException("Empty pool.");
 
-        selectFrom = viewAntigens().toArray(new Antigen[size()]);
-        selectProb = new double[size()];
+        if (aliasTable == null)
+            aliasTable = AliasTable.create(concs, size);
+
+        return aliasTable;
+    }
+
+    private void append(Antigen antigen, double conc) {
+        if (size == antigens.length) {
+            antigens = Arrays.copyOf(antigens, 2 * size);
+            concs    = Arrays.copyOf(concs, 2 * size);
+        }
+
+        int index = antigen.getIndex();
 
-        double totalConc = getTotalConc().doubleValue();
+        if (index >= slots.length)
+            slots = Arrays.copyOf(slots, Math.max(index + 1, 2 * slots.length));
 
-        for (int index = 0; index < size(); index++)
-            selectProb[index] = getConcentration(selectFrom[index]).doubleValue() / totalConc;
+        antigens[size] = antigen;
+        concs[size] = conc;
+        slots[index] = ++size;
     }
 
     /**
@@ -169,7 +225,7 @@ public final class AntigenPool {
      * antigen.
      */
     public boolean contains(Antigen antigen) {
-        return viewMap().containsKey(antigen);
+        return positionOf(antigen) >= 0;
     }
 
     /**
@@ -180,10 +236,66 @@ public final class AntigenPool {
      * @param halfLife the half-life for antigen decay (applied
      * equally to all antigens) expressed as a number of germinal
      * center cycles.
+     *
+     * @throws IllegalStateException if this pool is frozen.
      */
     public void decay(HalfLife halfLife) {
-        for (Antigen antigen : viewAntigens())
-            decay(antigen, halfLife);
+        checkMutable();
+
+        //
+        // All antigens decay by the same factor, which is applied in
+        // place; the selection probabilities are unchanged...
+        //
+        double factor = Concentration.valueOf(1.0).decay(halfLife, 1).doubleValue();
+
+        for (int position = 0; position < size; position++)
+            concs[position] *= factor;
+
+        total = Double.NaN;
+        occupancy = null;
+
+        //
+        // Antigens whose concentration has decayed to zero (by the
+        // same tolerance used by setConcentration) are removed, which
+        // also clears the selection table; scanning backwards means
+        // that the entry moved into a vacated position has already
+        // been examined...
+        //
+        for (int position = size - 1; position >= 0; position--)
+            if (Concentration.valueOf(concs[position]).equals(0.0))
+                remove(antigens[position]);
+    }
+
+    /**
+     * Creates a read-only snapshot of this pool.
+     *
+     * <p>The total concentration, occupancy probability, and antigen
+     * selection table of the snapshot are computed immediately, so a
+     * frozen pool is never modified after this method returns and may
+     * be shared freely among threads.
+     *
+     * @return a frozen copy of this pool (or this pool itself, if it
+     * is already frozen).
+     */
+    public AntigenPool freeze() {
+        if (frozen)
+            return this;
+
+        AntigenPool snapshot = new AntigenPool();
+
+        snapshot.antigens = Arrays.copyOf(antigens, Math.max(size, 1));
+        snapshot.concs    = Arrays.copyOf(concs, Math.max(size, 1));
+        snapshot.slots    = Arrays.copyOf(slots, slots.length);
+        snapshot.size     = size;
+
+        snapshot.getTotalValue();
+        snapshot.getOccupancy();
+
+        if (!snapshot.isEmpty())
+            snapshot.checkCache();
+
+        snapshot.frozen = true;
+        return snapshot;
     }
 
     /**
@@ -217,14 +329,32 @@ public final class AntigenPool {
      * value if the antigen is not present).
      */
     public Concentration getConcentration(Antigen antigen) {
-        Concentration result = viewMap().get(antigen);
+        int position = positionOf(antigen);
 
-        if (result != null)
-            return result;
+        if (position >= 0)
+            return Concentration.valueOf(concs[position]);
         else
             return Concentration.ZERO;
     }
 
+    /**
+     * Returns the concentration of an antigen in this pool as a
+     * primitive value.
+     *
+     * @param antigen the antigen of interest.
+     *
+     * @return the concentration of the specified antigen ({@code 0.0}
+     * if the antigen is not present).
+     */
+    public double getConcValue(Antigen antigen) {
+        int position = positionOf(antigen);
+
+        if (position >= 0)
+            return concs[position];
+        else
+            return 0.0;
+    }
+
     /**
      * Returns the fractional concentration of an antigen in this
      * pool: its concentration divided by the total.
@@ -234,7 +364,7 @@ public final class AntigenPool {
      * @return the fractional concentration of the specified antigen.
      */
     public double getFraction(Antigen antigen) {
-        return Concentration.ratio(getConcentration(antigen), getTotalConc());
+        return getConcValue(antigen) / getTotalValue();
     }
 
     /**
@@ -243,7 +373,40 @@ public final class AntigenPool {
      * @return the total concentration of all antigens in this pool.
      */
     public Concentration getTotalConc() {
-        return Concentration.total(viewMap().values());
+        return Concentration.valueOf(getTotalValue());
+    }
+
+    /**
+     * Returns the probability that a follicular dendritic cell (FDC)
+     * site is occupied by any antigen in this pool, as given by the
+     * Langmuir adsorption isotherm for the total concentration.
+     *
+     * @return the Langmuir occupancy probability for this pool.
+     */
+    public Probability getOccupancy() {
+        if (occupancy == null)
+            occupancy = Langmuir.probability(getTotalConc());
+
+        return occupancy;
+    }
+
+    /**
+     * Returns the total concentration of all antigens in this pool as
+     * a primitive value.
+     *
+     * @return the total concentration of all antigens in this pool.
+     */
+    public double getTotalValue() {
+        if (Double.isNaN(total)) {
+            double sum = 0.0;
+
+            for (int position = 0; position < size; position++)
+                sum += concs[position];
+
+            total = sum;
+        }
+
+        return total;
     }
 
     /**
@@ -252,7 +415,17 @@ public final class AntigenPool {
      * @return {@code true} iff this pool contains no antigens.
      */
     public boolean isEmpty() {
-        return viewMap().isEmpty();
+        return size == 0;
+    }
+
+    /**
+     * Identifies frozen (read-only) antigen pools.
+     *
+     * @return {@code true} iff this pool was created by {@link
+     * AntigenPool#freeze()}.
+     */
+    public boolean isFrozen() {
+        return frozen;
     }
 
     /**
@@ -264,25 +437,68 @@ public final class AntigenPool {
      * concentration.
      */
     public boolean isUniform() {
-        Concentration uniformConc = null;
-
-        for (Concentration conc : concMap.values()) {
-            if (uniformConc == null)
-                uniformConc = conc;
-            else if (!conc.equals(uniformConc))
+        for (int position = 1; position < size; position++)
+            if (!Concentration.valueOf(concs[position]).equals(Concentration.valueOf(concs[0])))
                 return false;
-        }
 
         return true;
     }
 
+    /**
+     * Returns the antigen at a given position in the list returned by
+     * {@link AntigenPool#listAntigens()}, without creating the list.
+     *
+     * @param position the (zero-offset) position of the antigen.
+     *
+     * @return the antigen at the specified position.
+     *
+     * @throws IndexOutOfBoundsException unless the position is valid.
+     */
+    public Antigen getAntigen(int position) {
+        if (position < 0 || position >= size)
+            throw new IndexOutOfBoundsException("Invalid antigen position.");
+
+        return antigens[position];
+    }
+
+    /**
+     * Returns the concentration of the antigen at a given position in
+     * the list returned by {@link AntigenPool#listAntigens()}.
+     *
+     * @param position the (zero-offset) position of the antigen.
+     *
+     * @return the concentration of the antigen at the specified
+     * position.
+     *
+     * @throws IndexOutOfBoundsException unless the position is valid.
+     */
+    public double getConcAt(int position) {
+        if (position < 0 || position >= size)
+            throw new IndexOutOfBoundsException("Invalid antigen position.");
+
+        return concs[position];
+    }
+
+    /**
+     * Returns the position of an antigen in the list returned by
+     * {@link AntigenPool#listAntigens()}.
+     *
+     * @param antigen the antigen of interest.
+     *
+     * @return the position of the specified antigen, or {@code -1} if
+     * the antigen is not present.
+     */
+    public int indexOf(Antigen antigen) {
+        return positionOf(antigen);
+    }
+
     /**
      * Returns a read-only list of the antigens in this pool.
      *
      * @return a read-only list of the antigens in this pool.
      */
     public ListView<Antigen> listAntigens() {
-        return ListView.create(new ArrayList<Antigen>(viewAntigens()));
+        return ListView.create(new ArrayList<Antigen>(Arrays.asList(antigens).subList(0, size)));
     }
 
     /**
@@ -292,9 +508,31 @@ public final class AntigenPool {
      * having no effect on the pool.
      *
      * @param antigen the antigen to remove.
+     *
+     * @throws IllegalStateException if this pool is frozen.
      */
     public void remove(Antigen antigen) {
-        alterMap().remove(antigen);
+        checkMutable();
+        int position = positionOf(antigen);
+
+        if (position < 0)
+            return;
+
+        //
+        // Move the last entry into the vacated position...
+        //
+        int last = size - 1;
+
+        antigens[position] = antigens[last];
+        concs[position] = concs[last];
+        slots[antigens[position].getIndex()] = position + 1;
+
+        antigens[last] = null;
+        concs[last] = 0.0;
+        slots[antigen.getIndex()] = 0;
+
+        --size;
+        clearCache();
     }
 
     /**
@@ -338,8 +576,41 @@ public final class AntigenPool {
      * @throws IllegalStateException if this pool is empty.
      */
     public Antigen select(JamRandom random) {
-        checkCache();
-        return selectFrom[random.selectPDF(selectProb)];
+        return antigens[selectIndex(random)];
+    }
+
+    /**
+     * Selects one antigen from this pool at random and returns its
+     * position in the list returned by {@link AntigenPool#listAntigens()}.
+     *
+     * <p>The probability of selecting a particular antigen is equal
+     * to its concentration divided by the total pool concentration.
+     *
+     * @param random the random number source.
+     *
+     * @return the position of an antigen selected at random.
+     *
+     * @throws IllegalStateException if this pool is empty.
+     */
+    public int selectIndex(JamRandom random) {
+        return checkCache().select(random);
+    }
+
+    /**
+     * Selects one antigen from this pool at random and returns its
+     * position in the list returned by {@link AntigenPool#listAntigens()}.
+     *
+     * <p>The probability of selecting a particular antigen is equal
+     * to its concentration divided by the total pool concentration.
+     *
+     * @param random the random number source.
+     *
+     * @return the position of an antigen selected at random.
+     *
+     * @throws IllegalStateException if this pool is empty.
+     */
+    public int selectIndex(SplittableRandom random) {
+        return checkCache().select(random);
     }
 
     /**
@@ -370,12 +641,25 @@ public final class AntigenPool {
      * @param antigen the antigen to assign.
      *
      * @param concentration the concentration to assign.
+     *
+     * @throws IllegalStateException if this pool is frozen.
      */
     public void setConcentration(Antigen antigen, Concentration concentration) {
-        if (concentration.equals(0.0))
+        checkMutable();
+
+        if (concentration.equals(0.0)) {
             remove(antigen);
+            return;
+        }
+
+        int position = positionOf(antigen);
+
+        if (position >= 0)
+            concs[position] = concentration.doubleValue();
         else
-            alterMap().put(antigen, concentration);
+            append(antigen, concentration.doubleValue());
+
+        clearCache();
     }
 
     /**
@@ -384,7 +668,7 @@ public final class AntigenPool {
      * @return the number of antigens in this pool.
      */
     public int size() {
-        return viewMap().size();
+        return size;
     }
 
     /**
@@ -407,7 +691,7 @@ public final class AntigenPool {
             if (!contains(antigen))
                 throw new IllegalArgumentException("Invalid subset.");
 
-            subset.add(antigen, getConcentration(antigen));
+            subset.add(antigen, getConcValue(antigen));
         }
 
         return subset;
@@ -420,7 +704,7 @@ public final class AntigenPool {
      * contained by this pool.
      */
     public Set<Antigen> viewAntigens() {
-        return Collections.unmodifiableSet(viewMap().keySet());
+        return antigenView;
     }
 
     /**
@@ -439,6 +723,18 @@ public final class AntigenPool {
     }
 
     @Override public String toString() {
-        return viewMap().toString();
+        StringBuilder builder = new StringBuilder("{");
+
+        for (int position = 0; position < size; position++) {
+            if (position > 0)
+                builder.append(", ");
+
+            builder.append(antigens[position]);
+            builder.append("=");
+            builder.append(Concentration.valueOf(concs[position]));
+        }
+
+        builder.append("}");
+        return builder.toString();
     }
 }
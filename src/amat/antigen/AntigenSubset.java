@@ -0,0 +1,140 @@
+
+package amat.antigen;
+
+import java.util.Arrays;
+
+/**
+ * Provides a read-only view of selected antigens in a parent pool
+ * without copying the antigens or their concentrations.
+ *
+ * <p>A subset stores the positions of the selected antigens in the
+ * parent pool (as in {@link AntigenPool#getAntigen(int)}); it may be
+ * cleared and refilled repeatedly so that one instance serves many
+ * selections.  The parent pool must not be modified while the subset
+ * is in use.
+ */
+public final class AntigenSubset {
+    private final AntigenPool parent;
+
+    private int[] positions;
+    private int size = 0;
+
+    /**
+     * Creates an empty subset of a parent pool.
+     *
+     * @param parent the parent pool.
+     */
+    public AntigenSubset(AntigenPool parent) {
+        this.parent = parent;
+        this.positions = new int[Math.max(parent.size(), 1)];
+    }
+
+    /**
+     * Adds an antigen to this subset.
+     *
+     * @param position the position of the antigen in the parent pool.
+     *
+     * @throws IndexOutOfBoundsException unless the position is valid
+     * for the parent pool.
+     */
+    public void add(int position) {
+        if (position < 0 || position >= parent.size())
+            throw new IndexOutOfBoundsException("Invalid antigen position.");
+
+        if (size == positions.length)
+            positions = Arrays.copyOf(positions, 2 * size);
+
+        positions[size++] = position;
+    }
+
+    /**
+     * Removes all antigens from this subset.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns an antigen in this subset.
+     *
+     * @param index the (zero-offset) index of the antigen within this
+     * subset.
+     *
+     * @return the antigen at the specified index.
+     */
+    public Antigen getAntigen(int index) {
+        return parent.getAntigen(getPosition(index));
+    }
+
+    /**
+     * Returns the concentration of an antigen in this subset (equal
+     * to its concentration in the parent pool).
+     *
+     * @param index the (zero-offset) index of the antigen within this
+     * subset.
+     *
+     * @return the concentration of the antigen at the specified index.
+     */
+    public double getConcAt(int index) {
+        return parent.getConcAt(getPosition(index));
+    }
+
+    /**
+     * Returns the parent pool of this subset.
+     *
+     * @return the parent pool of this subset.
+     */
+    public AntigenPool getParent() {
+        return parent;
+    }
+
+    /**
+     * Returns the parent pool position of an antigen in this subset.
+     *
+     * @param index the (zero-offset) index of the antigen within this
+     * subset.
+     *
+     * @return the position of the antigen in the parent pool.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public int getPosition(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Invalid subset index.");
+
+        return positions[index];
+    }
+
+    /**
+     * Identifies empty subsets.
+     *
+     * @return {@code true} iff this subset contains no antigens.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of antigens in this subset.
+     *
+     * @return the number of antigens in this subset.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies this subset into a new, independent antigen pool.
+     *
+     * @return a new antigen pool containing the antigens in this
+     * subset (at the same concentration as in the parent pool).
+     */
+    public AntigenPool toPool() {
+        AntigenPool pool = new AntigenPool();
+
+        for (int index = 0; index < size; ++index)
+            pool.add(getAntigen(index), getConcAt(index));
+
+        return pool;
+    }
+}
@@ -37,4 +37,26 @@ public interface ApoptosisModel {
      * input set.
      */
     public abstract Set<BCell> apoptose(Set<BCell> cells, AntigenPool pool);
+
+    /**
+     * Determines which B cells in a population will die by apoptosis
+     * and removes them from the population statistics.
+     *
+     * @param cells the B cells competing for survival; those that
+     * undergo apoptosis are removed from the input set.
+     *
+     * @param pool the pool of immunizing antigens.
+     *
+     * @param stats the current statistics for the competing cells,
+     * which are updated to reflect the surviving population.
+     *
+     * @return the cells that perished, which are removed from the
+     * input set.
+     */
+    public default Set<BCell> apoptose(Set<BCell> cells, AntigenPool pool, PopulationStats stats) {
+        Set<BCell> perished = apoptose(cells, pool);
+        stats.removeAll(perished);
+
+        return perished;
+    }
 }
@@ -13,17 +13,14 @@ import java.util.Set;
 
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
-import com.google.common.collect.Multisets;
 
 import jam.chem.Concentration;
 import jam.lang.Lockable;
 import jam.math.DoubleUtil;
-import jam.util.AutoList;
-import jam.util.ListUtil;
-import jam.util.MultisetUtil;
 
 import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
+import amat.antigen.AntigenSubset;
 import amat.binding.AffinityModel;
 import amat.epitope.Epitope;
 import amat.germinal.GerminalCenter;
@@ -32,6 +29,7 @@ import amat.receptor.Receptor;
 import amat.receptor.ReceptorGenerator;
 import amat.structure.CV;
 import amat.structure.Structure;
+import amat.visit.VisitationBatch;
 
 /**
  * Represents a B cell in an affinity maturation simulation.
@@ -53,8 +51,9 @@ public final class BCell {
     // may be re-assigned only once by the dark-zone division model.
     private final Lockable<Integer> divisionCount = Lockable.create(1);
 
-    // Records of the encounters with antigens in the light zone...
-    private final List<BindingEvent> bindingEvents = new ArrayList<BindingEvent>();
+    // Records of the encounters with antigens in the light zone, in
+    // the form dictated by the global retention policy...
+    private final BindingHistory bindingHistory;
 
     // For efficiency when comparing affinities and bound quantities,
     // these statistics are computed only once (after simulating the
@@ -65,34 +64,12 @@ public final class BCell {
     private double antigenQty  = 0.0;
     private double maxAffinity = Double.NEGATIVE_INFINITY;
 
+    // Sum of the affinities over all binding events (for the mean)...
+    private double affinitySum = 0.0;
+
     // Number of instances created, used to assign the unique index...
     private static long instanceCount = 0;
 
-    // Mean affinity for the epitopes encountered in the light zone,
-    // grouped by GC cycle...
-    private static final AutoList<ArrayList<Double>> affinityList =
-        AutoList.create(ListUtil.arrayFactory());
-
-    // Total quantity of antigen captured in the light zone, grouped
-    // by GC cycle...
-    private static final AutoList<ArrayList<Double>> quantityList =
-        AutoList.create(ListUtil.arrayFactory());
-
-    // Total number of antigens encountered by the B cell population,
-    // grouped by GC cycle...
-    private static final AutoList<HashMultiset<Integer>> totalVisitCounts = 
-        AutoList.create(MultisetUtil.hashFactory());
-
-    // Number of unique antigens encountered by the B cell population,
-    // grouped by GC cycle...
-    private static final AutoList<HashMultiset<Integer>> uniqueVisitCounts = 
-        AutoList.create(MultisetUtil.hashFactory());
-
-    // Number of unique antigens encountered by the B cell population
-    // on consecutive cycles, grouped by GC cycle...
-    private static final AutoList<HashMultiset<Integer>> uniqueRevisitCounts = 
-        AutoList.create(MultisetUtil.hashFactory());
-
     /**
      * Places B cells in ascending order (least first) by the affinity
      * for the strongest binding epitope.
@@ -125,6 +102,7 @@ public final class BCell {
         this.parent   = parent;
         this.receptor = receptor;
         this.gcCycle  = gcCycle;
+        this.bindingHistory = BindingRetention.global().createHistory(index);
 
         // Then the remainder are derived from the parent and receptor...
         this.founder = resolveFounder();
@@ -288,50 +266,108 @@ public final class BCell {
      * zone (one occurrence for each encounter).
      */
     public void bind(AntigenPool pool, Collection<Antigen> antigens) {
+        //
+        // Against large cocktails, the affinities for all epitopes
+        // may be computed at once with the columnar matrix kernel...
+        //
+        double[] batchAffinity = null;
+
+        if (!antigens.isEmpty())
+            batchAffinity = BindingEvent.computeBatchAffinity(receptor);
+
         for (Antigen antigen : antigens)
-            bind(antigen, pool.getConcentration(antigen));
+            bind(antigen, pool.getConcentration(antigen), batchAffinity);
 
-        if (gcCycle >= GerminalCenter.REPLICATION_CYCLE) {
-            recordTotalVisits();
-            recordUniqueVisits();
-        }
+        completeBinding();
+    }
 
-        if (gcCycle > GerminalCenter.REPLICATION_CYCLE)
-            recordUniqueRevisits();
+    /**
+     * Simulates the binding of this B cell to the antigens it
+     * encountered in a batched visitation of the light zone.
+     *
+     * @param batch the visitation results for all active cells.
+     *
+     * @param cell the index of this B cell in the batch.
+     */
+    public void bind(VisitationBatch batch, int cell) {
+        AntigenPool pool = batch.getPool();
+
+        int start = batch.getEntryStart(cell);
+        int end = batch.getEntryEnd(cell);
+
+        double[] batchAffinity = null;
+
+        if (start < end)
+            batchAffinity = BindingEvent.computeBatchAffinity(receptor);
 
-        if (!bindingEvents.isEmpty()) {
-            antigenQty  = BindingEvent.getTotalQuantity(bindingEvents);
-            maxAffinity = BindingEvent.getMaxAffinity(bindingEvents);
+        for (int entry = start; entry < end; ++entry) {
+            int position = batch.getPosition(entry);
+
+            Antigen antigen = pool.getAntigen(position);
+            Concentration concentration = Concentration.valueOf(pool.getConcAt(position));
+
+            for (int encounter = 0; encounter < batch.getCount(entry); ++encounter)
+                bind(antigen, concentration, batchAffinity);
         }
 
-        recordAffinity();
-        recordQuantity();
+        completeBinding();
     }
 
-    private void bind(Antigen antigen, Concentration concentration) {
-        for (Epitope epitope : antigen.viewEpitopes())
-            bindingEvents.add(BindingEvent.create(this, antigen, epitope, concentration));
-    }
+    /**
+     * Simulates the binding of this B cell to a subset of antigens
+     * in a pool: each antigen in the subset is encountered exactly
+     * once.
+     *
+     * @param subset the antigens encountered in the light zone.
+     */
+    public void bind(AntigenSubset subset) {
+        double[] batchAffinity = null;
 
-    private void recordAffinity() {
-        if (!bindingEvents.isEmpty())
-            affinityList.get(gcCycle).add(BindingEvent.getMeanAffinity(bindingEvents));
-    }
+        if (!subset.isEmpty())
+            batchAffinity = BindingEvent.computeBatchAffinity(receptor);
 
-    private void recordQuantity() {
-        quantityList.get(gcCycle).add(antigenQty);
-    }
+        for (int index = 0; index < subset.size(); ++index)
+            bind(subset.getAntigen(index), Concentration.valueOf(subset.getConcAt(index)), batchAffinity);
 
-    private void recordTotalVisits() {
-        totalVisitCounts.get(gcCycle).add(countTotalEpitopesEncountered());
+        completeBinding();
     }
 
-    private void recordUniqueVisits() {
-        uniqueVisitCounts.get(gcCycle).add(countUniqueEpitopesEncountered());
+    private void completeBinding() {
+        CycleBindingStats stats = CycleBindingStats.local(gcCycle);
+
+        if (gcCycle >= GerminalCenter.REPLICATION_CYCLE) {
+            stats.addTotalVisits(countTotalEpitopesEncountered());
+            stats.addUniqueVisits(countUniqueEpitopesEncountered());
+        }
+
+        if (gcCycle > GerminalCenter.REPLICATION_CYCLE)
+            stats.addUniqueRevisits(countUniqueEpitopesRevisited());
+
+        bindingHistory.trim();
+
+        int eventCount = bindingHistory.countEvents();
+
+        if (eventCount > 0)
+            stats.addAffinity(affinitySum / eventCount);
+
+        stats.addQuantity(antigenQty);
     }
 
-    private void recordUniqueRevisits() {
-        uniqueRevisitCounts.get(gcCycle).add(countUniqueEpitopesRevisited());
+    private void bind(Antigen antigen, Concentration concentration, double[] batchAffinity) {
+        //
+        // The summary statistics are accumulated as the events occur,
+        // so they do not depend on the retention policy...
+        //
+        for (Epitope epitope : antigen.viewEpitopes()) {
+            double affinity = BindingEvent.computeAffinity(this, epitope, batchAffinity);
+            double quantity = BindingEvent.computeQuantity(affinity, concentration);
+
+            bindingHistory.add(antigen, epitope, affinity, quantity);
+
+            antigenQty  += quantity;
+            maxAffinity  = Math.max(maxAffinity, affinity);
+            affinitySum += affinity;
+        }
     }
 
     /**
@@ -486,7 +522,7 @@ public final class BCell {
      * @return the total number of antigens encountered in the light
      */
     public int countTotalEpitopesEncountered() {
-        return bindingEvents.size();
+        return bindingHistory.countEvents();
     }
 
     /**
@@ -527,8 +563,7 @@ public final class BCell {
         Set<Antigen> footprint = new HashSet<Antigen>();
 
         for (BCell cell : lineage)
-            for (BindingEvent event : cell.viewBindingEvents())
-                footprint.add(event.getAntigen());
+            cell.bindingHistory.collectUniqueAntigens(footprint);
 
         return footprint;
     }
@@ -549,8 +584,7 @@ public final class BCell {
         Set<Epitope> footprint = new HashSet<Epitope>();
 
         for (BCell cell : lineage)
-            for (BindingEvent event : cell.viewBindingEvents())
-                footprint.add(event.getEpitope());
+            cell.bindingHistory.collectUniqueEpitopes(footprint);
 
         return footprint;
     }
@@ -564,9 +598,7 @@ public final class BCell {
      */
     public Multiset<Epitope> getEpitopesEncountered() {
         HashMultiset<Epitope> epitopes = HashMultiset.create();
-
-        for (BindingEvent event : bindingEvents)
-            epitopes.add(event.getEpitope());
+        bindingHistory.collectEpitopes(epitopes);
 
         return epitopes;
     }
@@ -577,7 +609,10 @@ public final class BCell {
      * @return the unique epitopes encountered in the light zone.
      */
     public Set<Epitope> getUniqueEpitopesEncountered() {
-        return getEpitopesEncountered().elementSet();
+        Set<Epitope> epitopes = new HashSet<Epitope>();
+        bindingHistory.collectUniqueEpitopes(epitopes);
+
+        return epitopes;
     }
 
     /**
@@ -591,8 +626,8 @@ public final class BCell {
         if (isFounder())
             return Collections.emptySet();
 
-        Set<Epitope> epitopes = getEpitopesEncountered().elementSet();
-        epitopes.retainAll(parent.getEpitopesEncountered().elementSet());
+        Set<Epitope> epitopes = getUniqueEpitopesEncountered();
+        epitopes.retainAll(parent.getUniqueEpitopesEncountered());
 
         return epitopes;
     }
@@ -740,145 +775,20 @@ public final class BCell {
      * Returns a read-only view of the binding events that have
      * occurred for this B cell.
      *
+     * <p>Under the {@code COMPACT} retention policy the events are
+     * rebuilt from their packed form, with the affinity and quantity
+     * in single precision, and every call allocates a new list and
+     * new event objects; callers that examine the events repeatedly
+     * should keep the returned list.
+     *
      * @return a read-only view of the binding events that have
      * occurred for this B cell.
-     */
-    public List<BindingEvent> viewBindingEvents() {
-        return Collections.unmodifiableList(bindingEvents);
-    }
-
-    /**
-     * Returns a read-only view of the affinities for the epitopes
-     * encountered for every B cell trip through the light zone.
      *
-     * @return a read-only view of the affinities for the epitopes
-     * encountered for every B cell trip through the light zone.
+     * @throws IllegalStateException if the retention policy did not
+     * retain the individual events for this B cell.
      */
-    public static List<Double> viewAffinityList() {
-        List<Double> aggregate = new ArrayList<Double>();
-
-        for (List<Double> gcCycleList : affinityList)
-            aggregate.addAll(gcCycleList);
-
-        return aggregate;
-    }
-
-    /**
-     * Returns a read-only view of the affinities for the epitopes
-     * encountered by each B cell in a given GC cycle.
-     *
-     * @param gcCycle the GC cycle of interest.
-     *
-     * @return a read-only view of the affinities for the epitopes
-     * encountered by each B cell in a given GC cycle.
-     */
-    public static List<Double> viewAffinityList(int gcCycle) {
-        return Collections.unmodifiableList(affinityList.get(gcCycle));
-    }
-
-    /**
-     * Returns a read-only view of the quantity of antigen captured
-     * for every B cell trip through the light zone.
-     *
-     * @return a read-only view of the quantity of antigen captured
-     * for every B cell trip through the light zone.
-     */
-    public static List<Double> viewQuantityList() {
-        List<Double> aggregate = new ArrayList<Double>();
-
-        for (List<Double> gcCycleList : quantityList)
-            aggregate.addAll(gcCycleList);
-
-        return aggregate;
-    }
-
-    /**
-     * Returns a read-only view of the quantity of antigen captured
-     * for each B cell in a given GC cycle.
-     *
-     * @param gcCycle the GC cycle of interest.
-     *
-     * @return a read-only view of the quantity of antigen captured
-     * for each B cell in a given GC cycle.
-     */
-    public static List<Double> viewQuantityList(int gcCycle) {
-        return Collections.unmodifiableList(quantityList.get(gcCycle));
-    }
-
-    /**
-     * Returns a read-only view of the total number of epitopes
-     * encountered for every B cell trip through the light zone.
-     *
-     * @return a read-only view of the total number of epitopes
-     * encountered for every B cell trip through the light zone.
-     */
-    public static Multiset<Integer> viewTotalEncounters() {
-        return Multisets.unmodifiableMultiset(MultisetUtil.hash(totalVisitCounts));
-    }
-
-    /**
-     * Returns a read-only view of the total number of epitopes
-     * encountered by each B cell in a given GC cycle.
-     *
-     * @param gcCycle the GC cycle of interest.
-     *
-     * @return a read-only view of the total number of epitopes
-     * encountered by each B cell in a given GC cycle.
-     */
-    public static Multiset<Integer> viewTotalEncounters(int gcCycle) {
-        return Multisets.unmodifiableMultiset(totalVisitCounts.get(gcCycle));
-    }
-
-    /**
-     * Returns a read-only view of the number of unique epitopes
-     * encountered for every B cell trip through the light zone.
-     *
-     * @return a read-only view of the number of unique epitopes
-     * encountered for every B cell trip through the light zone.
-     */
-    public static Multiset<Integer> viewUniqueEncounters() {
-        return Multisets.unmodifiableMultiset(MultisetUtil.hash(uniqueVisitCounts));
-    }
-
-    /**
-     * Returns a read-only view of the number of unique epitopes
-     * encountered by each B cell in a given GC cycle.
-     *
-     * @param gcCycle the GC cycle of interest.
-     *
-     * @return a read-only view of the number of unique epitopes
-     * encountered by each B cell in a given GC cycle.
-     */
-    public static Multiset<Integer> viewUniqueEncounters(int gcCycle) {
-        return Multisets.unmodifiableMultiset(uniqueVisitCounts.get(gcCycle));
-    }
-
-    /**
-     * Returns a read-only view of the number of unique epitopes
-     * revisited (seen by the parent and daughter) for each B cell
-     * trip through the light zone.
-     *
-     * @return a read-only view of the number of unique epitopes
-     * revisited (seen by the parent and daughter) for each B cell
-     * trip through the light zone.
-     */
-    public static Multiset<Integer> viewUniqueRevisits() {
-        return Multisets.unmodifiableMultiset(MultisetUtil.hash(uniqueRevisitCounts));
-    }
-
-    /**
-     * Returns a read-only view of the number of unique epitopes
-     * encountered by each B cell in a given GC cycle that were also
-     * encountered by their parents on the previous GC cycle.
-     *
-     * @param gcCycle the GC cycle of interest.
-     *
-     * @return a read-only view of the number of unique epitopes
-     * encountered by each B cell in a given GC cycle that were also
-     * encountered by their parents on the previous GC cycle.
-     */
-    public static Multiset<Integer> viewUniqueRevisits(int gcCycle) {
-        return Multisets.unmodifiableMultiset(uniqueRevisitCounts.get(gcCycle));
+    public List<BindingEvent> viewBindingEvents() {
+        return bindingHistory.viewEvents();
     }
 
     @Override public boolean equals(Object that) {
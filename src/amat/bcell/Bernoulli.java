@@ -0,0 +1,103 @@
+
+package amat.bcell;
+
+import java.util.SplittableRandom;
+
+import jam.math.JamRandom;
+
+/**
+ * Makes stochastic yes/no decisions with primitive probabilities, so
+ * that the decisions made for every B cell in every cycle do not
+ * allocate {@link jam.math.Probability} objects.
+ *
+ * <p>Probability objects remain appropriate for model parameters
+ * (which are validated once, at configuration time); the methods in
+ * this class are intended for the probabilities computed on the fly
+ * for individual cells.
+ */
+public final class Bernoulli {
+    private Bernoulli() {} // Prevent instantiation...
+
+    /**
+     * Accepts an event with a given probability using the global
+     * random number source.
+     *
+     * @param prob the probability of acceptance.
+     *
+     * @return {@code true} with the specified probability.
+     *
+     * @throws IllegalArgumentException unless the probability lies in
+     * the range {@code [0.0, 1.0]}.
+     */
+    public static boolean accept(double prob) {
+        return accept(prob, JamRandom.global());
+    }
+
+    /**
+     * Accepts an event with a given probability.
+     *
+     * @param prob the probability of acceptance.
+     *
+     * @param random the random number source.
+     *
+     * @return {@code true} with the specified probability.
+     *
+     * @throws IllegalArgumentException unless the probability lies in
+     * the range {@code [0.0, 1.0]}.
+     */
+    public static boolean accept(double prob, JamRandom random) {
+        return accept(prob, random.nextDouble());
+    }
+
+    /**
+     * Accepts an event with a given probability by comparison with a
+     * previously generated uniform deviate.
+     *
+     * @param prob the probability of acceptance.
+     *
+     * @param uniform a uniform deviate on the interval {@code [0, 1)}.
+     *
+     * @return {@code true} iff the deviate is less than the
+     * probability.
+     *
+     * @throws IllegalArgumentException unless the probability lies in
+     * the range {@code [0.0, 1.0]}.
+     */
+    public static boolean accept(double prob, double uniform) {
+        validate(prob);
+        return uniform < prob;
+    }
+
+    /**
+     * Fills a range of an array with uniform deviates on the interval
+     * {@code [0, 1)}, for comparison with probabilities in {@link
+     * Bernoulli#accept(double, double)}.
+     *
+     * @param random the random number source.
+     *
+     * @param uniforms the array to fill.
+     *
+     * @param fromIndex the index of the first element to fill
+     * (inclusive).
+     *
+     * @param toIndex the index of the last element to fill
+     * (exclusive).
+     */
+    public static void fill(SplittableRandom random, double[] uniforms, int fromIndex, int toIndex) {
+        for (int index = fromIndex; index < toIndex; ++index)
+            uniforms[index] = random.nextDouble();
+    }
+
+    /**
+     * Validates a primitive probability.
+     *
+     * @param prob the probability to validate.
+     *
+     * @throws IllegalArgumentException unless the probability lies in
+     * the range {@code [0.0, 1.0]}.
+     */
+    public static void validate(double prob) {
+        if (!(prob >= 0.0 && prob <= 1.0))
+            throw new IllegalArgumentException(String.format("Invalid probability: [%s].", prob));
+    }
+}
@@ -11,8 +11,13 @@ import jam.util.CollectionUtil;
 
 import amat.antigen.Antigen;
 import amat.binding.AffinityModel;
+import amat.binding.AffinityType;
+import amat.binding.HammingAffinity;
 import amat.capture.EpitopeCaptureModel;
 import amat.epitope.Epitope;
+import amat.epitope.EpitopeMatrix;
+import amat.epitope.MatrixKernel;
+import amat.receptor.Receptor;
 
 /**
  * Represents the outcome of the interaction between an epitope and a
@@ -54,12 +59,79 @@ public final class BindingEvent {
      * @return a new binding event for the specified parameters.
      */
     public static BindingEvent create(BCell bcell, Antigen antigen, Epitope epitope, Concentration concentration) {
-        double affinity = AffinityModel.global().computeAffinity(epitope, bcell.getReceptor());
-	double quantity = EpitopeCaptureModel.global().capture(affinity, concentration);
+        return create(antigen, epitope, concentration, AffinityModel.global().computeAffinity(epitope, bcell.getReceptor()));
+    }
+
+    /**
+     * Creates a new binding event using affinities computed in one
+     * batch by {@link BindingEvent#computeBatchAffinity(Receptor)}.
+     *
+     * @param bcell the B cell participating in the binding event.
+     *
+     * @param antigen the antigen participating in the binding event.
+     *
+     * @param epitope the epitope participating in the binding event.
+     *
+     * @param concentration the concentration of the antigen and
+     * epitope in the germinal center.
+     *
+     * @param batchAffinity the affinities of the B cell receptor for
+     * every epitope in the global epitope matrix, or {@code null} to
+     * compute the affinity for this epitope alone.
+     *
+     * @return a new binding event for the specified parameters.
+     */
+    public static BindingEvent create(BCell bcell, Antigen antigen, Epitope epitope,
+                                      Concentration concentration, double[] batchAffinity) {
+        return create(antigen, epitope, concentration, computeAffinity(bcell, epitope, batchAffinity));
+    }
+
+    private static BindingEvent create(Antigen antigen, Epitope epitope, Concentration concentration, double affinity) {
+        return create(antigen, epitope, affinity, computeQuantity(affinity, concentration));
+    }
 
+    static BindingEvent create(Antigen antigen, Epitope epitope, double affinity, double quantity) {
         return new BindingEvent(antigen, epitope, affinity, quantity);
     }
 
+    // The affinity and captured quantity for a binding event, computed
+    // without creating the event object...
+    static double computeAffinity(BCell bcell, Epitope epitope, double[] batchAffinity) {
+        int matrixIndex = (batchAffinity != null) ? Epitope.matrix().indexOf(epitope) : -1;
+
+        if (matrixIndex < 0)
+            return AffinityModel.global().computeAffinity(epitope, bcell.getReceptor());
+        else
+            return batchAffinity[matrixIndex];
+    }
+
+    static double computeQuantity(double affinity, Concentration concentration) {
+	return EpitopeCaptureModel.global().capture(affinity, concentration);
+    }
+
+    /**
+     * Computes the affinity of a receptor for every epitope in the
+     * global registry in one batch, when the global affinity model
+     * and the global matching kernel support batch computation.
+     *
+     * @param receptor the receptor partner in the binding interactions.
+     *
+     * @return an array whose element {@code j} is the affinity of the
+     * receptor for epitope {@code j} in the global epitope matrix, or
+     * {@code null} if the affinities must be computed one at a time
+     * (the affinity model is not a {@code HammingAffinity} model or
+     * the global matching kernel is {@code SCALAR}).
+     */
+    public static double[] computeBatchAffinity(Receptor receptor) {
+        AffinityModel model = AffinityModel.global();
+
+        if (model.getType().equals(AffinityType.HAMMING)
+            && EpitopeMatrix.globalKernel().equals(MatrixKernel.COLUMNAR))
+            return ((HammingAffinity) model).computeAffinity(Epitope.matrix(), receptor);
+        else
+            return null;
+    }
+
     /**
      * Returns the antigen presented to the B cell.
      *
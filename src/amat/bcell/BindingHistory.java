@@ -0,0 +1,283 @@
+
+package amat.bcell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Multiset;
+
+import amat.antigen.Antigen;
+import amat.epitope.Epitope;
+
+/**
+ * Stores the binding events recorded by one B cell, in the form
+ * dictated by a {@link BindingRetention} policy.
+ */
+abstract class BindingHistory {
+    /**
+     * Records a binding event.
+     *
+     * @param antigen the antigen participating in the event.
+     *
+     * @param epitope the epitope participating in the event.
+     *
+     * @param affinity the affinity between the epitope and receptor.
+     *
+     * @param quantity the amount of epitope captured.
+     */
+    abstract void add(Antigen antigen, Epitope epitope, double affinity, double quantity);
+
+    /**
+     * Returns the total number of binding events.
+     *
+     * @return the total number of binding events.
+     */
+    abstract int countEvents();
+
+    /**
+     * Adds the epitopes encountered to a multiset, one occurrence for
+     * each encounter.
+     *
+     * @param epitopes the multiset to fill.
+     */
+    abstract void collectEpitopes(Multiset<Epitope> epitopes);
+
+    /**
+     * Adds the unique epitopes encountered to a set.
+     *
+     * @param epitopes the set to fill.
+     */
+    abstract void collectUniqueEpitopes(Set<Epitope> epitopes);
+
+    /**
+     * Adds the unique antigens encountered to a set.
+     *
+     * @param antigens the set to fill.
+     */
+    abstract void collectUniqueAntigens(Set<Antigen> antigens);
+
+    /**
+     * Returns a read-only view of the binding events.
+     *
+     * @return an unmodifiable list containing the binding events.
+     *
+     * @throws IllegalStateException if the individual events were not
+     * retained.
+     */
+    abstract List<BindingEvent> viewEvents();
+
+    /**
+     * Releases any excess storage after binding is complete.
+     */
+    void trim() {
+    }
+
+    private static int grow(int length) {
+        return Math.max(4, 2 * length);
+    }
+
+    // Registry indexes are packed into (unsigned) short values...
+    private static short pack(int index) {
+        if (index > 0xFFFF)
+            throw new IllegalStateException("Registry index exceeds the compact binding range.");
+
+        return (short) index;
+    }
+
+    private static int unpack(short id) {
+        return id & 0xFFFF;
+    }
+
+    static final class Full extends BindingHistory {
+        private final ArrayList<BindingEvent> events = new ArrayList<BindingEvent>();
+
+        @Override void add(Antigen antigen, Epitope epitope, double affinity, double quantity) {
+            events.add(BindingEvent.create(antigen, epitope, affinity, quantity));
+        }
+
+        @Override int countEvents() {
+            return events.size();
+        }
+
+        @Override void collectEpitopes(Multiset<Epitope> epitopes) {
+            for (BindingEvent event : events)
+                epitopes.add(event.getEpitope());
+        }
+
+        @Override void collectUniqueEpitopes(Set<Epitope> epitopes) {
+            for (BindingEvent event : events)
+                epitopes.add(event.getEpitope());
+        }
+
+        @Override void collectUniqueAntigens(Set<Antigen> antigens) {
+            for (BindingEvent event : events)
+                antigens.add(event.getAntigen());
+        }
+
+        @Override List<BindingEvent> viewEvents() {
+            return Collections.unmodifiableList(events);
+        }
+
+        @Override void trim() {
+            events.trimToSize();
+        }
+    }
+
+    static final class Compact extends BindingHistory {
+        private short[] antigenIds = new short[0];
+        private short[] epitopeIds = new short[0];
+        private float[] affinities = new float[0];
+        private float[] quantities = new float[0];
+
+        private int size = 0;
+
+        @Override void add(Antigen antigen, Epitope epitope, double affinity, double quantity) {
+            if (size == antigenIds.length) {
+                int length = grow(size);
+
+                antigenIds = Arrays.copyOf(antigenIds, length);
+                epitopeIds = Arrays.copyOf(epitopeIds, length);
+                affinities = Arrays.copyOf(affinities, length);
+                quantities = Arrays.copyOf(quantities, length);
+            }
+
+            antigenIds[size] = pack(antigen.getIndex());
+            epitopeIds[size] = pack(epitope.getIndex());
+            affinities[size] = (float) affinity;
+            quantities[size] = (float) quantity;
+
+            ++size;
+        }
+
+        @Override int countEvents() {
+            return size;
+        }
+
+        @Override void collectEpitopes(Multiset<Epitope> epitopes) {
+            for (int index = 0; index < size; ++index)
+                epitopes.add(Epitope.lookup(unpack(epitopeIds[index])));
+        }
+
+        @Override void collectUniqueEpitopes(Set<Epitope> epitopes) {
+            for (int index = 0; index < size; ++index)
+                epitopes.add(Epitope.lookup(unpack(epitopeIds[index])));
+        }
+
+        @Override void collectUniqueAntigens(Set<Antigen> antigens) {
+            for (int index = 0; index < size; ++index)
+                antigens.add(Antigen.lookup(unpack(antigenIds[index])));
+        }
+
+        @Override List<BindingEvent> viewEvents() {
+            //
+            // The events are rebuilt on every call, with the affinity
+            // and quantity in single precision.  They are deliberately
+            // not cached: a cached list would hold the event objects
+            // for the life of the cell and defeat the packed storage...
+            //
+            List<BindingEvent> events = new ArrayList<BindingEvent>(size);
+
+            for (int index = 0; index < size; ++index)
+                events.add(BindingEvent.create(Antigen.lookup(unpack(antigenIds[index])),
+                                               Epitope.lookup(unpack(epitopeIds[index])),
+                                               affinities[index],
+                                               quantities[index]));
+
+            return Collections.unmodifiableList(events);
+        }
+
+        @Override void trim() {
+            if (size < antigenIds.length) {
+                antigenIds = Arrays.copyOf(antigenIds, size);
+                epitopeIds = Arrays.copyOf(epitopeIds, size);
+                affinities = Arrays.copyOf(affinities, size);
+                quantities = Arrays.copyOf(quantities, size);
+            }
+        }
+    }
+
+    static final class Aggregate extends BindingHistory {
+        // The unique epitopes and the number of encounters with each;
+        // cells encounter few unique epitopes, so a linear search is
+        // faster than hashing...
+        private int[] epitopeIds = new int[0];
+        private int[] epitopeCounts = new int[0];
+        private int epitopeSize = 0;
+
+        private int[] antigenIds = new int[0];
+        private int antigenSize = 0;
+
+        private int eventCount = 0;
+
+        @Override void add(Antigen antigen, Epitope epitope, double affinity, double quantity) {
+            addEpitope(epitope.getIndex());
+            addAntigen(antigen.getIndex());
+            ++eventCount;
+        }
+
+        private void addEpitope(int id) {
+            for (int index = 0; index < epitopeSize; ++index) {
+                if (epitopeIds[index] == id) {
+                    ++epitopeCounts[index];
+                    return;
+                }
+            }
+
+            if (epitopeSize == epitopeIds.length) {
+                epitopeIds = Arrays.copyOf(epitopeIds, grow(epitopeSize));
+                epitopeCounts = Arrays.copyOf(epitopeCounts, epitopeIds.length);
+            }
+
+            epitopeIds[epitopeSize] = id;
+            epitopeCounts[epitopeSize] = 1;
+            ++epitopeSize;
+        }
+
+        private void addAntigen(int id) {
+            for (int index = 0; index < antigenSize; ++index)
+                if (antigenIds[index] == id)
+                    return;
+
+            if (antigenSize == antigenIds.length)
+                antigenIds = Arrays.copyOf(antigenIds, grow(antigenSize));
+
+            antigenIds[antigenSize++] = id;
+        }
+
+        @Override int countEvents() {
+            return eventCount;
+        }
+
+        @Override void collectEpitopes(Multiset<Epitope> epitopes) {
+            for (int index = 0; index < epitopeSize; ++index)
+                epitopes.add(Epitope.lookup(epitopeIds[index]), epitopeCounts[index]);
+        }
+
+        @Override void collectUniqueEpitopes(Set<Epitope> epitopes) {
+            for (int index = 0; index < epitopeSize; ++index)
+                epitopes.add(Epitope.lookup(epitopeIds[index]));
+        }
+
+        @Override void collectUniqueAntigens(Set<Antigen> antigens) {
+            for (int index = 0; index < antigenSize; ++index)
+                antigens.add(Antigen.lookup(antigenIds[index]));
+        }
+
+        @Override List<BindingEvent> viewEvents() {
+            throw new IllegalStateException("Individual binding events were not retained.");
+        }
+
+        @Override void trim() {
+            if (epitopeSize < epitopeIds.length) {
+                epitopeIds = Arrays.copyOf(epitopeIds, epitopeSize);
+                epitopeCounts = Arrays.copyOf(epitopeCounts, epitopeSize);
+            }
+
+            if (antigenSize < antigenIds.length)
+                antigenIds = Arrays.copyOf(antigenIds, antigenSize);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+
+package amat.bcell;
+
+import jam.app.JamProperties;
+import jam.math.IntRange;
+
+/**
+ * Enumerates the policies for retaining the binding events that B
+ * cells record in the light zone.
+ *
+ * <p>Every B cell is retained for lineage tracing, so the storage
+ * used for its binding history persists for the entire simulation.
+ * The maximum affinity and captured antigen quantity are computed as
+ * the events occur and are available under every policy, as are the
+ * epitope counts and the epitope and antigen footprints; only the
+ * individual affinities and quantities (and the event objects
+ * returned by {@link BCell#viewBindingEvents()}) depend on the
+ * policy.
+ *
+ * <p>The global policy is defined by the following system properties:
+ *
+ * <p><b>{@code amat.BindingRetention.policy:}</b> The retention
+ * policy (defaulting to {@code FULL}).
+ *
+ * <p><b>{@code amat.BindingRetention.sampleInterval:}</b> For the
+ * {@code SAMPLED} policy, the full binding history is kept for every
+ * B cell whose index is a multiple of this interval (defaulting to
+ * {@code 100}).
+ */
+public enum BindingRetention {
+    /**
+     * Keeps every binding event as a full event object.
+     */
+    FULL,
+
+    /**
+     * Keeps every binding event in packed primitive arrays (with the
+     * affinity and quantity in single precision); event objects are
+     * created on demand.
+     */
+    COMPACT,
+
+    /**
+     * Keeps only the number of encounters with each unique epitope
+     * and the unique antigens; the individual events are discarded.
+     */
+    AGGREGATE,
+
+    /**
+     * Keeps full events for a deterministic sample of B cells and
+     * aggregate statistics for all other cells.
+     */
+    SAMPLED;
+
+    private static BindingRetention global = null;
+    private static int sampleInterval = 0;
+
+    /**
+     * Name of the system property which defines the global retention
+     * policy.
+     */
+    public static final String POLICY_PROPERTY = "amat.BindingRetention.policy";
+
+    /**
+     * Name of the system property which defines the sampling interval
+     * for the {@code SAMPLED} policy.
+     */
+    public static final String SAMPLE_INTERVAL_PROPERTY = "amat.BindingRetention.sampleInterval";
+
+    /**
+     * Default retention policy.
+     */
+    public static final BindingRetention DEFAULT_POLICY = FULL;
+
+    /**
+     * Default sampling interval.
+     */
+    public static final int DEFAULT_SAMPLE_INTERVAL = 100;
+
+    /**
+     * Returns the global retention policy defined by system
+     * properties.
+     *
+     * @return the global retention policy defined by system
+     * properties.
+     */
+    public static BindingRetention global() {
+        if (global == null)
+            global = resolvePolicy();
+
+        return global;
+    }
+
+    /**
+     * Overrides the global retention policy for all B cells created
+     * afterwards (primarily for testing).
+     *
+     * @param policy the new global retention policy, or {@code null}
+     * to restore the policy (and sampling interval) defined by system
+     * properties.
+     */
+    public static void setGlobal(BindingRetention policy) {
+        global = policy;
+        sampleInterval = 0;
+    }
+
+    private static BindingRetention resolvePolicy() {
+        if (JamProperties.isSet(POLICY_PROPERTY))
+            return JamProperties.getRequiredEnum(POLICY_PROPERTY, BindingRetention.class);
+        else
+            return DEFAULT_POLICY;
+    }
+
+    private static int sampleInterval() {
+        if (sampleInterval == 0)
+            sampleInterval = JamProperties.getOptionalInt(SAMPLE_INTERVAL_PROPERTY, IntRange.POSITIVE, DEFAULT_SAMPLE_INTERVAL);
+
+        return sampleInterval;
+    }
+
+    /**
+     * Creates an empty binding history for a new B cell under this
+     * policy.
+     *
+     * @param cellIndex the unique index of the B cell.
+     *
+     * @return an empty binding history for the specified cell.
+     */
+    BindingHistory createHistory(long cellIndex) {
+        switch (this) {
+        case FULL:
+            return new BindingHistory.Full();
+
+        case COMPACT:
+            return new BindingHistory.Compact();
+
+        case AGGREGATE:
+            return new BindingHistory.Aggregate();
+
+        case SAMPLED:
+            if (cellIndex % sampleInterval() == 0)
+                return new BindingHistory.Full();
+            else
+                return new BindingHistory.Aggregate();
+
+        default:
+            throw new IllegalStateException("Unknown retention policy.");
+        }
+    }
+}
@@ -0,0 +1,255 @@
+
+package amat.bcell;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accumulates the light-zone binding statistics for the B cells
+ * created on one germinal center cycle: the mean affinity and total
+ * antigen quantity for each cell (as online moments) and the number
+ * of total, unique, and revisited epitope encounters (as integer
+ * histograms).
+ *
+ * <p>The global statistics are aggregated over all germinal centers
+ * (trials) in a run and grouped by cycle.  Cells record their binding
+ * in the local statistics of the current thread ({@link
+ * CycleBindingStats#local(int)}), which take no shared lock; each
+ * germinal center merges them into the global statistics once, at the
+ * end of its trial ({@link CycleBindingStats#flush()}).  Independent
+ * statistics may also be combined with {@link CycleBindingStats#merge}.
+ */
+public final class CycleBindingStats {
+    private final MomentAccumulator affinity = new MomentAccumulator();
+    private final MomentAccumulator quantity = new MomentAccumulator();
+
+    private final IntHistogram totalVisits = new IntHistogram();
+    private final IntHistogram uniqueVisits = new IntHistogram();
+    private final IntHistogram uniqueRevisits = new IntHistogram();
+
+    // Global statistics, indexed by GC cycle...
+    private static final List<CycleBindingStats> global = new ArrayList<CycleBindingStats>();
+
+    // Statistics recorded by each thread since its last flush, indexed
+    // by GC cycle...
+    private static final ThreadLocal<List<CycleBindingStats>> local =
+        ThreadLocal.withInitial(() -> new ArrayList<CycleBindingStats>());
+
+    /**
+     * Creates empty statistics.
+     */
+    public CycleBindingStats() {
+    }
+
+    /**
+     * Returns the global statistics for one GC cycle, creating them
+     * if necessary.
+     *
+     * @param gcCycle the GC cycle of interest.
+     *
+     * @return the global statistics for the specified GC cycle.
+     */
+    public static synchronized CycleBindingStats global(int gcCycle) {
+        while (global.size() <= gcCycle)
+            global.add(new CycleBindingStats());
+
+        return global.get(gcCycle);
+    }
+
+    /**
+     * Returns the statistics recorded by the current thread for one GC
+     * cycle since its last flush, creating them if necessary.
+     *
+     * @param gcCycle the GC cycle of interest.
+     *
+     * @return the local statistics for the specified GC cycle.
+     */
+    public static CycleBindingStats local(int gcCycle) {
+        List<CycleBindingStats> stats = local.get();
+
+        while (stats.size() <= gcCycle)
+            stats.add(new CycleBindingStats());
+
+        return stats.get(gcCycle);
+    }
+
+    /**
+     * Merges the statistics recorded by the current thread into the
+     * global statistics and clears the local statistics.
+     */
+    public static void flush() {
+        List<CycleBindingStats> stats = local.get();
+
+        for (int gcCycle = 0; gcCycle < stats.size(); ++gcCycle)
+            global(gcCycle).merge(stats.get(gcCycle));
+
+        stats.clear();
+    }
+
+    /**
+     * Returns a snapshot of the global statistics for one GC cycle.
+     *
+     * @param gcCycle the GC cycle of interest.
+     *
+     * @return an independent copy of the global statistics for the
+     * specified GC cycle (empty if no cells were recorded on that
+     * cycle).
+     */
+    public static synchronized CycleBindingStats snapshot(int gcCycle) {
+        CycleBindingStats snapshot = new CycleBindingStats();
+
+        if (0 <= gcCycle && gcCycle < global.size())
+            snapshot.merge(global.get(gcCycle));
+
+        return snapshot;
+    }
+
+    /**
+     * Returns a snapshot of the global statistics merged over all GC
+     * cycles.
+     *
+     * @return a new object containing the global statistics for all
+     * GC cycles.
+     */
+    public static synchronized CycleBindingStats snapshot() {
+        CycleBindingStats snapshot = new CycleBindingStats();
+
+        for (CycleBindingStats stats : global)
+            snapshot.merge(stats);
+
+        return snapshot;
+    }
+
+    /**
+     * Records the mean affinity for the epitopes encountered by one
+     * B cell.
+     *
+     * @param meanAffinity the mean affinity.
+     */
+    public synchronized void addAffinity(double meanAffinity) {
+        affinity.add(meanAffinity);
+    }
+
+    /**
+     * Records the total antigen quantity captured by one B cell.
+     *
+     * @param antigenQty the total antigen quantity.
+     */
+    public synchronized void addQuantity(double antigenQty) {
+        quantity.add(antigenQty);
+    }
+
+    /**
+     * Records the total number of epitopes encountered by one B cell.
+     *
+     * @param visitCount the total number of epitopes encountered.
+     */
+    public synchronized void addTotalVisits(int visitCount) {
+        totalVisits.add(visitCount);
+    }
+
+    /**
+     * Records the number of unique epitopes encountered by one B cell.
+     *
+     * @param visitCount the number of unique epitopes encountered.
+     */
+    public synchronized void addUniqueVisits(int visitCount) {
+        uniqueVisits.add(visitCount);
+    }
+
+    /**
+     * Records the number of unique epitopes encountered by one B cell
+     * that were also encountered by its parent.
+     *
+     * @param revisitCount the number of unique epitopes revisited.
+     */
+    public synchronized void addUniqueRevisits(int revisitCount) {
+        uniqueRevisits.add(revisitCount);
+    }
+
+    /**
+     * Adds all statistics from another object to this object; the
+     * other object is unchanged.
+     *
+     * @param that the statistics to merge.
+     */
+    public void merge(CycleBindingStats that) {
+        //
+        // Lock the source while copying from it (but never hold both
+        // locks, which could deadlock)...
+        //
+        CycleBindingStats source;
+
+        synchronized (that) {
+            source = that.copyUnlocked();
+        }
+
+        synchronized (this) {
+            this.affinity.merge(source.affinity);
+            this.quantity.merge(source.quantity);
+            this.totalVisits.merge(source.totalVisits);
+            this.uniqueVisits.merge(source.uniqueVisits);
+            this.uniqueRevisits.merge(source.uniqueRevisits);
+        }
+    }
+
+    private CycleBindingStats copyUnlocked() {
+        CycleBindingStats copy = new CycleBindingStats();
+
+        copy.affinity.merge(affinity);
+        copy.quantity.merge(quantity);
+        copy.totalVisits.merge(totalVisits);
+        copy.uniqueVisits.merge(uniqueVisits);
+        copy.uniqueRevisits.merge(uniqueRevisits);
+
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the mean-affinity moments.
+     *
+     * @return a copy of the moments of the mean affinity per cell.
+     */
+    public synchronized MomentAccumulator getAffinity() {
+        return affinity.copy();
+    }
+
+    /**
+     * Returns a copy of the antigen-quantity moments.
+     *
+     * @return a copy of the moments of the antigen quantity per cell.
+     */
+    public synchronized MomentAccumulator getQuantity() {
+        return quantity.copy();
+    }
+
+    /**
+     * Returns a copy of the total-encounter histogram.
+     *
+     * @return a copy of the histogram of total epitope encounters per
+     * cell.
+     */
+    public synchronized IntHistogram getTotalVisits() {
+        return totalVisits.copy();
+    }
+
+    /**
+     * Returns a copy of the unique-encounter histogram.
+     *
+     * @return a copy of the histogram of unique epitope encounters per
+     * cell.
+     */
+    public synchronized IntHistogram getUniqueVisits() {
+        return uniqueVisits.copy();
+    }
+
+    /**
+     * Returns a copy of the unique-revisit histogram.
+     *
+     * @return a copy of the histogram of unique epitopes revisited per
+     * cell.
+     */
+    public synchronized IntHistogram getUniqueRevisits() {
+        return uniqueRevisits.copy();
+    }
+}
@@ -5,11 +5,19 @@ import java.util.Iterator;
 import java.util.Set;
 
 import jam.lang.ObjectUtil;
+import jam.math.JamRandom;
 
 /**
  * Represents models of B cell selection in which the selection
  * decision is made independently for each B cell, e.g., at the 
  * cell level rather than the population level.
+ *
+ * <p>Models that select every eligible B cell with the same constant
+ * probability (by overriding {@link IndependentSelectionModel#getConstantProbability()})
+ * are processed by geometric skipping: the number of eligible cells
+ * passed over before the next selected cell is drawn directly, so the
+ * number of random deviates is proportional to the number of cells
+ * selected, and a zero probability requires no work at all.
  */
 public abstract class IndependentSelectionModel implements SelectionModel {
     /**
@@ -22,7 +30,37 @@ public abstract class IndependentSelectionModel implements SelectionModel {
      */
     public abstract boolean select(BCell cell);
 
+    /**
+     * Returns the constant probability with which this model selects
+     * each eligible B cell (if the selection probability is constant).
+     *
+     * @return the constant selection probability for eligible cells,
+     * or {@code Double.NaN} if the selection decision must be made by
+     * {@link IndependentSelectionModel#select(BCell)}.
+     */
+    public double getConstantProbability() {
+        return Double.NaN;
+    }
+
+    /**
+     * Determines whether a B cell is eligible for selection with the
+     * constant selection probability; by default, all cells are.
+     *
+     * @param cell the B cell to examine.
+     *
+     * @return {@code true} iff the specified B cell is eligible for
+     * selection.
+     */
+    public boolean isEligible(BCell cell) {
+        return true;
+    }
+
     @Override public Set<BCell> select(Set<BCell> cells) {
+        double probability = getConstantProbability();
+
+        if (!Double.isNaN(probability))
+            return selectSkip(cells, probability);
+
         // Maintain the runtime type of the input set...
         Set<BCell> selected = ObjectUtil.like(cells); 
         Iterator<BCell> iterator = cells.iterator();
@@ -38,4 +76,51 @@ public abstract class IndependentSelectionModel implements SelectionModel {
 
         return selected;
     }
+
+    private Set<BCell> selectSkip(Set<BCell> cells, double probability) {
+        Set<BCell> selected = ObjectUtil.like(cells);
+
+        if (probability <= 0.0 || cells.isEmpty())
+            return selected;
+
+        //
+        // Draw the number of eligible cells to pass over before the
+        // next selected cell from a geometric distribution; the joint
+        // distribution of the selections is identical to independent
+        // selection of each eligible cell...
+        //
+        JamRandom random = JamRandom.global();
+        Iterator<BCell> iterator = cells.iterator();
+
+        double logRejectProb = Math.log1p(-probability);
+        long skip = skipCount(random, logRejectProb);
+
+        while (iterator.hasNext()) {
+            BCell cell = iterator.next();
+
+            if (!isEligible(cell))
+                continue;
+
+            if (skip > 0) {
+                --skip;
+                continue;
+            }
+
+            selected.add(cell); // Add to the selected set...
+            iterator.remove();  // Remove from the input set...
+
+            skip = skipCount(random, logRejectProb);
+        }
+
+        return selected;
+    }
+
+    private static long skipCount(JamRandom random, double logRejectProb) {
+        if (logRejectProb == Double.NEGATIVE_INFINITY)
+            return 0;
+
+        // The uniform deviate must lie in (0, 1] for the logarithm...
+        double uniform = 1.0 - random.nextDouble();
+        return (long) Math.min(Math.floor(Math.log(uniform) / logRejectProb), Long.MAX_VALUE);
+    }
 }
@@ -0,0 +1,141 @@
+
+package amat.bcell;
+
+import java.util.Arrays;
+
+/**
+ * Counts the occurrences of non-negative integer values in a dense
+ * array of primitive bins.
+ *
+ * <p>Histograms filled independently (for example, by different
+ * threads or trials) may be merged exactly.
+ */
+public final class IntHistogram {
+    private long[] bins = new long[8];
+    private long count = 0;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public IntHistogram() {
+    }
+
+    /**
+     * Creates an independent copy of this histogram.
+     *
+     * @return an independent copy of this histogram.
+     */
+    public IntHistogram copy() {
+        IntHistogram copy = new IntHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Adds one occurrence of a value to this histogram.
+     *
+     * @param value the value to add.
+     *
+     * @throws IllegalArgumentException if the value is negative.
+     */
+    public void add(int value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Histogram values must be non-negative.");
+
+        ensureCapacity(value + 1);
+
+        ++bins[value];
+        ++count;
+    }
+
+    /**
+     * Adds all occurrences from another histogram to this histogram;
+     * the other histogram is unchanged.
+     *
+     * @param that the histogram to merge.
+     */
+    public void merge(IntHistogram that) {
+        ensureCapacity(that.bins.length);
+
+        for (int value = 0; value < that.bins.length; ++value)
+            this.bins[value] += that.bins[value];
+
+        this.count += that.count;
+    }
+
+    private void ensureCapacity(int length) {
+        if (length > bins.length)
+            bins = Arrays.copyOf(bins, Math.max(length, 2 * bins.length));
+    }
+
+    /**
+     * Returns the total number of occurrences in this histogram.
+     *
+     * @return the total number of occurrences in this histogram.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of occurrences of a value.
+     *
+     * @param value the value of interest.
+     *
+     * @return the number of occurrences of the specified value.
+     */
+    public long getCount(int value) {
+        if (0 <= value && value < bins.length)
+            return bins[value];
+        else
+            return 0;
+    }
+
+    /**
+     * Returns the mean of the values in this histogram.
+     *
+     * @return the mean value, or {@code Double.NaN} if this histogram
+     * is empty.
+     */
+    public double getMean() {
+        if (count < 1)
+            return Double.NaN;
+
+        double sum = 0.0;
+
+        for (int value = 0; value < bins.length; ++value)
+            sum += (double) value * bins[value];
+
+        return sum / count;
+    }
+
+    /**
+     * Returns the (sample) variance of the values in this histogram.
+     *
+     * @return the sample variance, or {@code Double.NaN} if this
+     * histogram has fewer than two occurrences.
+     */
+    public double getVariance() {
+        if (count < 2)
+            return Double.NaN;
+
+        double mean = getMean();
+        double sumSqDev = 0.0;
+
+        for (int value = 0; value < bins.length; ++value)
+            sumSqDev += (value - mean) * (value - mean) * bins[value];
+
+        return sumSqDev / (count - 1);
+    }
+
+    /**
+     * Returns the standard error of the mean of the values in this
+     * histogram.
+     *
+     * @return the standard error of the mean, or {@code Double.NaN}
+     * if this histogram has fewer than two occurrences.
+     */
+    public double getError() {
+        return Math.sqrt(getVariance() / count);
+    }
+}
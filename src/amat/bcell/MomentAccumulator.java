@@ -0,0 +1,163 @@
+
+package amat.bcell;
+
+/**
+ * Accumulates the count, mean, and variance of a stream of values in
+ * a single pass without storing the values.
+ *
+ * <p>The moments are updated with Welford's algorithm, which remains
+ * accurate for long streams; accumulators filled independently (for
+ * example, by different threads or trials) may be merged exactly.
+ * Values may also be removed, by reversing the Welford update.
+ */
+public final class MomentAccumulator {
+    private long count = 0;
+    private double mean = 0.0;
+    private double sumSqDev = 0.0;
+
+    /**
+     * Creates an empty accumulator.
+     */
+    public MomentAccumulator() {
+    }
+
+    /**
+     * Creates an independent copy of this accumulator.
+     *
+     * @return an independent copy of this accumulator.
+     */
+    public MomentAccumulator copy() {
+        MomentAccumulator copy = new MomentAccumulator();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Adds a value to this accumulator.
+     *
+     * @param value the value to add.
+     */
+    public void add(double value) {
+        ++count;
+
+        double delta = value - mean;
+        mean += delta / count;
+        sumSqDev += delta * (value - mean);
+    }
+
+    /**
+     * Removes a value that was previously added to this accumulator.
+     *
+     * @param value the value to remove.
+     *
+     * @throws IllegalStateException if this accumulator is empty.
+     */
+    public void remove(double value) {
+        if (count == 0)
+            throw new IllegalStateException("No values to remove.");
+
+        if (count == 1) {
+            count = 0;
+            mean = 0.0;
+            sumSqDev = 0.0;
+            return;
+        }
+
+        double delta = value - mean;
+        mean -= delta / (count - 1);
+
+        // Round-off may leave a tiny negative value...
+        sumSqDev = Math.max(0.0, sumSqDev - delta * (value - mean));
+        --count;
+    }
+
+    /**
+     * Adds all values from another accumulator to this accumulator;
+     * the other accumulator is unchanged.
+     *
+     * @param that the accumulator to merge.
+     */
+    public void merge(MomentAccumulator that) {
+        if (that.count == 0)
+            return;
+
+        long total = this.count + that.count;
+        double delta = that.mean - this.mean;
+
+        this.mean += delta * that.count / total;
+        this.sumSqDev += that.sumSqDev + delta * delta * ((double) this.count * that.count / total);
+        this.count = total;
+    }
+
+    /**
+     * Returns the number of values added to this accumulator.
+     *
+     * @return the number of values added to this accumulator.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the values added to this accumulator.
+     *
+     * @return the mean value, or {@code Double.NaN} if no values have
+     * been added.
+     */
+    public double getMean() {
+        if (count > 0)
+            return mean;
+        else
+            return Double.NaN;
+    }
+
+    /**
+     * Returns the population variance of the values added to this
+     * accumulator.
+     *
+     * @return the population variance, or {@code Double.NaN} if no
+     * values have been added.
+     */
+    public double getPopulationVariance() {
+        if (count > 0)
+            return sumSqDev / count;
+        else
+            return Double.NaN;
+    }
+
+    /**
+     * Returns the (sample) variance of the values added to this
+     * accumulator.
+     *
+     * @return the sample variance, or {@code Double.NaN} if fewer than
+     * two values have been added.
+     */
+    public double getVariance() {
+        if (count > 1)
+            return sumSqDev / (count - 1);
+        else
+            return Double.NaN;
+    }
+
+    /**
+     * Returns the (sample) standard deviation of the values added to
+     * this accumulator.
+     *
+     * @return the sample standard deviation, or {@code Double.NaN} if
+     * fewer than two values have been added.
+     */
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Returns the standard error of the mean of the values added to
+     * this accumulator.
+     *
+     * @return the standard error of the mean, or {@code Double.NaN} if
+     * fewer than two values have been added.
+     */
+    public double getError() {
+        return getStdDev() / Math.sqrt(count);
+    }
+}
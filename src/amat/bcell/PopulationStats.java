@@ -0,0 +1,148 @@
+
+package amat.bcell;
+
+import java.util.Collection;
+
+/**
+ * Maintains summary statistics for a population of B cells in one
+ * germinal center cycle: the number of cells and the mean and
+ * variance of the antigen quantity and maximum affinity.
+ *
+ * <p>The statistics are accumulated in a single pass as cells are
+ * added (after binding) and are updated incrementally as cells are
+ * removed by apoptosis, so the light-zone models that depend on the
+ * population averages need not iterate over the population again.
+ * The moments are maintained by {@link MomentAccumulator} (Welford's
+ * algorithm), so the variance remains accurate when the values are
+ * large relative to their spread.
+ *
+ * <p>Cells that did not bind any antigen have an undefined maximum
+ * affinity ({@code Double.NEGATIVE_INFINITY}); they are counted in
+ * the population but excluded from the affinity statistics.
+ */
+public final class PopulationStats {
+    private final MomentAccumulator quantity = new MomentAccumulator();
+    private final MomentAccumulator affinity = new MomentAccumulator();
+
+    /**
+     * Creates statistics for an empty population.
+     */
+    public PopulationStats() {
+    }
+
+    /**
+     * Computes the statistics for a population of B cells.
+     *
+     * @param cells the B cells in the population.
+     *
+     * @return the statistics for the specified population.
+     */
+    public static PopulationStats compute(Collection<BCell> cells) {
+        PopulationStats stats = new PopulationStats();
+
+        for (BCell cell : cells)
+            stats.add(cell);
+
+        return stats;
+    }
+
+    /**
+     * Adds a B cell to the population.
+     *
+     * @param cell the B cell to add (after binding).
+     */
+    public void add(BCell cell) {
+        double maxAffinity = cell.getMaxAffinity();
+
+        quantity.add(cell.getAntigenQty());
+
+        if (Double.isFinite(maxAffinity))
+            affinity.add(maxAffinity);
+    }
+
+    /**
+     * Removes a B cell from the population.
+     *
+     * @param cell the B cell to remove; its antigen quantity and
+     * maximum affinity must be unchanged since it was added.
+     */
+    public void remove(BCell cell) {
+        double maxAffinity = cell.getMaxAffinity();
+
+        quantity.remove(cell.getAntigenQty());
+
+        if (Double.isFinite(maxAffinity))
+            affinity.remove(maxAffinity);
+    }
+
+    /**
+     * Removes B cells from the population.
+     *
+     * @param cells the B cells to remove.
+     */
+    public void removeAll(Collection<BCell> cells) {
+        for (BCell cell : cells)
+            remove(cell);
+    }
+
+    /**
+     * Returns the number of B cells in the population.
+     *
+     * @return the number of B cells in the population.
+     */
+    public int getCellCount() {
+        return (int) quantity.getCount();
+    }
+
+    /**
+     * Returns the mean antigen quantity captured by the population.
+     *
+     * @return the mean antigen quantity, or {@code Double.NaN} if the
+     * population is empty.
+     */
+    public double getMeanAntigenQty() {
+        return quantity.getMean();
+    }
+
+    /**
+     * Returns the variance of the antigen quantity captured by the
+     * population.
+     *
+     * @return the (population) variance of the antigen quantity, or
+     * {@code Double.NaN} if the population is empty.
+     */
+    public double getVarAntigenQty() {
+        return quantity.getPopulationVariance();
+    }
+
+    /**
+     * Returns the number of B cells that bound at least one antigen.
+     *
+     * @return the number of B cells with a finite maximum affinity.
+     */
+    public int getBoundCount() {
+        return (int) affinity.getCount();
+    }
+
+    /**
+     * Returns the mean maximum affinity of the cells that bound at
+     * least one antigen.
+     *
+     * @return the mean maximum affinity, or {@code Double.NaN} if no
+     * cells bound antigen.
+     */
+    public double getMeanMaxAffinity() {
+        return affinity.getMean();
+    }
+
+    /**
+     * Returns the variance of the maximum affinity of the cells that
+     * bound at least one antigen.
+     *
+     * @return the (population) variance of the maximum affinity, or
+     * {@code Double.NaN} if no cells bound antigen.
+     */
+    public double getVarMaxAffinity() {
+        return affinity.getPopulationVariance();
+    }
+}
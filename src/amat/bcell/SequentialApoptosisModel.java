@@ -3,8 +3,13 @@ package amat.bcell;
 
 import java.util.Iterator;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
+import jam.app.JamProperties;
 import jam.lang.ObjectUtil;
+import jam.math.IntRange;
+import jam.math.JamRandom;
 
 import amat.antigen.AntigenPool;
 
@@ -12,8 +17,46 @@ import amat.antigen.AntigenPool;
  * Implements models of germinal center B cell apoptosis in which the
  * survival decision is made for each B cell sequentially (following
  * an initialization step applied to the full B cell population).
+ *
+ * <p>Large populations are processed in bulk: the population is
+ * divided into fixed blocks, and the survival decisions for each
+ * block are drawn in parallel from its own random number stream (so
+ * the outcome does not depend on the number of threads).  The bulk
+ * path is used when the population is at least as large as the
+ * system property
+ * <b>{@code amat.SequentialApoptosisModel.bulkThreshold}</b> (default
+ * {@code 4096}).
  */
 public abstract class SequentialApoptosisModel implements ApoptosisModel {
+    private static Integer bulkThreshold = null;
+
+    // Uniform deviates and survival decisions for bulk apoptosis,
+    // reused across calls (which are synchronized) and grown as
+    // needed...
+    private double[] uniformBuffer = new double[0];
+    private boolean[] survivalBuffer = new boolean[0];
+
+    // Number of cells in each block with its own random stream...
+    private static final int BLOCK_SIZE = 1024;
+
+    /**
+     * Name of the system property which defines the minimum population
+     * size for bulk apoptosis.
+     */
+    public static final String BULK_THRESHOLD_PROPERTY = "amat.SequentialApoptosisModel.bulkThreshold";
+
+    /**
+     * Default minimum population size for bulk apoptosis.
+     */
+    public static final int DEFAULT_BULK_THRESHOLD = 4096;
+
+    private static int resolveBulkThreshold() {
+        if (bulkThreshold == null)
+            bulkThreshold = JamProperties.getOptionalInt(BULK_THRESHOLD_PROPERTY, IntRange.POSITIVE, DEFAULT_BULK_THRESHOLD);
+
+        return bulkThreshold;
+    }
+
     /**
      * Determines whether a B cell will die by apoptosis.
      *
@@ -24,6 +67,18 @@ public abstract class SequentialApoptosisModel implements ApoptosisModel {
      */
     public abstract boolean apoptose(BCell cell);
 
+    /**
+     * Computes the probability that a B cell survives (consistent with
+     * {@link SequentialApoptosisModel#apoptose(BCell)}).  This method
+     * may be called concurrently for different cells after the model
+     * has been initialized.
+     *
+     * @param cell the B cell to examine.
+     *
+     * @return the probability that the B cell survives.
+     */
+    public abstract double computeSurvivalProb(BCell cell);
+
     /**
      * Initializes any state variables required for the apoptosis test.
      *
@@ -37,9 +92,35 @@ public abstract class SequentialApoptosisModel implements ApoptosisModel {
      */
     public abstract void initialize(Set<BCell> cells, AntigenPool pool);
 
+    /**
+     * Initializes any state variables required for the apoptosis test
+     * using precomputed population statistics; by default, the
+     * statistics are ignored.
+     *
+     * @param cells the B cells competing for survival.
+     *
+     * @param pool the pool of immunizing antigens.
+     *
+     * @param stats the current statistics for the competing cells.
+     */
+    public void initialize(Set<BCell> cells, AntigenPool pool, PopulationStats stats) {
+        initialize(cells, pool);
+    }
+
     @Override synchronized public Set<BCell> apoptose(Set<BCell> cells, AntigenPool pool) {
         // Initialize any state variables required for the survival test...
         initialize(cells, pool);
+        return apoptoseInitialized(cells, null);
+    }
+
+    @Override synchronized public Set<BCell> apoptose(Set<BCell> cells, AntigenPool pool, PopulationStats stats) {
+        initialize(cells, pool, stats);
+        return apoptoseInitialized(cells, stats);
+    }
+
+    private Set<BCell> apoptoseInitialized(Set<BCell> cells, PopulationStats stats) {
+        if (cells.size() >= resolveBulkThreshold())
+            return apoptoseBulk(cells, stats);
 
         // Maintain the runtime type of the input set...
         Set<BCell> perished = ObjectUtil.like(cells); 
@@ -51,6 +132,71 @@ public abstract class SequentialApoptosisModel implements ApoptosisModel {
             if (apoptose(cell)) {
                 perished.add(cell); // Add to the set of cells that have died by apoptosis...
                 iterator.remove();  // Remove from the input set...
+
+                if (stats != null)
+                    stats.remove(cell);
+            }
+        }
+
+        return perished;
+    }
+
+    private void resolveBuffers(int length) {
+        if (uniformBuffer.length < length) {
+            int capacity = Math.max(length, 2 * uniformBuffer.length);
+
+            uniformBuffer = new double[capacity];
+            survivalBuffer = new boolean[capacity];
+        }
+    }
+
+    private Set<BCell> apoptoseBulk(Set<BCell> cells, PopulationStats stats) {
+        BCell[] cellArray = cells.toArray(new BCell[cells.size()]);
+        resolveBuffers(cellArray.length);
+
+        double[] uniforms = uniformBuffer;
+        boolean[] survives = survivalBuffer;
+
+        //
+        // Each fixed block of cells draws its decisions from its own
+        // stream, split in block order from one root stream seeded by
+        // the global source, so the outcome does not depend on the
+        // number of threads...
+        //
+        int blockCount = (cellArray.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        SplittableRandom root = new SplittableRandom(JamRandom.global().nextLong());
+        SplittableRandom[] streams = new SplittableRandom[blockCount];
+
+        for (int blockIndex = 0; blockIndex < blockCount; ++blockIndex)
+            streams[blockIndex] = root.split();
+
+        IntStream.range(0, blockCount).parallel().forEach(blockIndex -> {
+                int lower = blockIndex * BLOCK_SIZE;
+                int upper = Math.min(lower + BLOCK_SIZE, cellArray.length);
+
+                Bernoulli.fill(streams[blockIndex], uniforms, lower, upper);
+
+                for (int index = lower; index < upper; ++index)
+                    survives[index] = Bernoulli.accept(computeSurvivalProb(cellArray[index]), uniforms[index]);
+            });
+
+        //
+        // Rebuild the input set from the survivors in one pass (in
+        // the original iteration order)...
+        //
+        Set<BCell> perished = ObjectUtil.like(cells);
+        cells.clear();
+
+        for (int index = 0; index < cellArray.length; ++index) {
+            if (survives[index]) {
+                cells.add(cellArray[index]);
+            }
+            else {
+                perished.add(cellArray[index]);
+
+                if (stats != null)
+                    stats.remove(cellArray[index]);
             }
         }
 
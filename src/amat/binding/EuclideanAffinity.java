@@ -1,8 +1,6 @@
 
 package amat.binding;
 
-import jam.vector.VectorAggregator;
-
 import amat.epitope.Epitope;
 import amat.receptor.Receptor;
 
@@ -32,7 +30,10 @@ public final class EuclideanAffinity extends NumericAffinity {
     }
 
     @Override public double computeFreeEnergy(Epitope epitope, Receptor receptor) {
-        return getPreFactor() * normalizedAggregateDifference(epitope, receptor, VectorAggregator.SUMSQR);
+        int length = commonLength(epitope, receptor);
+        double sumSqr = sumSqrDifference(asNumericStructure(epitope), asNumericStructure(receptor), length);
+
+        return getPreFactor() * sumSqr / length;
     };
 
     @Override public AffinityType getType() {
@@ -6,6 +6,7 @@ import jam.math.DoubleRange;
 import jam.math.DoubleUtil;
 
 import amat.epitope.Epitope;
+import amat.epitope.EpitopeMatrix;
 import amat.receptor.Receptor;
 import amat.structure.DiscreteStructure;
 
@@ -221,6 +222,33 @@ public final class HammingAffinity extends DiscreteAffinity {
         return getPreFactor();
     }
 
+    /**
+     * Computes the affinity of a receptor for every epitope in an
+     * epitope matrix in one batch.
+     *
+     * @param matrix the epitopes partnering in the binding interactions.
+     *
+     * @param receptor the receptor partner in the binding interactions.
+     *
+     * @return an array whose element {@code j} is the binding affinity
+     * between the receptor and epitope {@code j} in the matrix (in
+     * units of kT).
+     *
+     * @throws RuntimeException unless the receptor has a discrete
+     * structure with the same length as the epitopes in the matrix.
+     */
+    public double[] computeAffinity(EpitopeMatrix matrix, Receptor receptor) {
+        receptor.getStructure().validateDiscrete();
+
+        int[]    matchCounts = matrix.countMatching(asDiscrete(receptor));
+        double[] affinities  = new double[matchCounts.length];
+
+        for (int index = 0; index < matchCounts.length; index++)
+            affinities[index] = computeAffinity(computeFreeEnergy(matrix.getLength() - matchCounts[index]));
+
+        return affinities;
+    }
+
     @Override public double computeFreeEnergy(Epitope epitope, Receptor receptor) {
         validate(epitope, receptor);
 
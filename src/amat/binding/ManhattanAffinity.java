@@ -1,8 +1,6 @@
 
 package amat.binding;
 
-import jam.vector.VectorAggregator;
-
 import amat.epitope.Epitope;
 import amat.receptor.Receptor;
 
@@ -36,7 +34,10 @@ public final class ManhattanAffinity extends NumericAffinity {
     }
 
     @Override public double computeFreeEnergy(Epitope epitope, Receptor receptor) {
-        return getPreFactor() * normalizedAggregateDifference(epitope, receptor, VectorAggregator.NORM1);
+        int length = commonLength(epitope, receptor);
+        double sumAbs = sumAbsDifference(asNumericStructure(epitope), asNumericStructure(receptor), length);
+
+        return getPreFactor() * sumAbs / length;
     };
 
     @Override public AffinityType getType() {
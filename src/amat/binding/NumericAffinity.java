@@ -1,8 +1,6 @@
 
 package amat.binding;
 
-import jam.vector.JamVector;
-import jam.vector.VectorAggregator;
 import jam.vector.VectorView;
 
 import amat.epitope.Epitope;
@@ -57,45 +55,102 @@ public abstract class NumericAffinity extends AffinityModel {
     }
 
     /**
-     * Computes the vector difference between the numeric representations
-     * of an epitope and receptor.
+     * Returns the numeric epitope structure.
      *
-     * @param epitope the epitope partner in the binding interaction.
+     * @param epitope the epitope to examine.
+     *
+     * @return the numeric structure of the given epitope.
+     *
+     * @throws RuntimeException unless the epitope has a numeric
+     * structure.
+     */
+    protected NumericStructure asNumericStructure(Epitope epitope) {
+	return (NumericStructure) epitope.getStructure();
+    }
+
+    /**
+     * Returns the numeric receptor structure.
      *
-     * @param receptor the receptor partner in the binding interaction.
+     * @param receptor the receptor to examine.
      *
-     * @return the vector difference between the numeric representations
-     * of the specified epitope and receptor.
+     * @return the numeric structure of the given receptor.
      *
-     * @throws RuntimeException unless the epitope and receptor have
-     * valid numeric representations of equal length.
+     * @throws RuntimeException unless the receptor has a numeric
+     * structure.
      */
-    protected JamVector difference(Epitope epitope, Receptor receptor) {
-        return JamVector.minus(asNumeric(epitope), asNumeric(receptor));
+    protected NumericStructure asNumericStructure(Receptor receptor) {
+	return (NumericStructure) receptor.getStructure();
     }
 
     /**
-     * Computes the difference between the numeric representations of
-     * an epitope and receptor, applies a vector aggregator, and then
-     * normalizes by the (equal) length.
+     * Computes the sum of the absolute element-by-element differences
+     * between two numeric structures in a single pass with no
+     * temporary vectors.
      *
-     * @param epitope the epitope partner in the binding interaction.
+     * @param s1 the first structure.
      *
-     * @param receptor the receptor partner in the binding interaction.
+     * @param s2 the second structure.
      *
-     * @param aggregator the aggregator to apply to the difference in
-     * epitope and receptor structures.
+     * @param length the number of elements to aggregate.
+     *
+     * @return the sum of {@code |s1[k] - s2[k]|} for {@code k} in
+     * {@code [0, length)}.
+     */
+    public static double sumAbsDifference(NumericStructure s1, NumericStructure s2, int length) {
+        double result = 0.0;
+
+        for (int index = 0; index < length; index++)
+            result += Math.abs(s1.asNumeric(index) - s2.asNumeric(index));
+
+        return result;
+    }
+
+    /**
+     * Computes the sum of the squared element-by-element differences
+     * between two numeric structures in a single pass with no
+     * temporary vectors.
      *
-     * @return the normalized aggregated difference between the epitope 
-     * and receptor.
+     * @param s1 the first structure.
      *
-     * @throws RuntimeException unless the epitope and receptor have
-     * valid numeric representations of equal length.
+     * @param s2 the second structure.
+     *
+     * @param length the number of elements to aggregate.
+     *
+     * @return the sum of {@code (s1[k] - s2[k])^2} for {@code k} in
+     * {@code [0, length)}.
+     */
+    public static double sumSqrDifference(NumericStructure s1, NumericStructure s2, int length) {
+        double result = 0.0;
+
+        for (int index = 0; index < length; index++) {
+            double diff = s1.asNumeric(index) - s2.asNumeric(index);
+            result += diff * diff;
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the sum of the element-by-element products of two
+     * numeric structures (their dot product) in a single pass with
+     * no temporary vectors.
+     *
+     * @param s1 the first structure.
+     *
+     * @param s2 the second structure.
+     *
+     * @param length the number of elements to aggregate.
+     *
+     * @return the sum of {@code s1[k] * s2[k]} for {@code k} in
+     * {@code [0, length)}.
      */
-    protected double normalizedAggregateDifference(Epitope epitope,
-                                                   Receptor receptor,
-                                                   VectorAggregator aggregator) {
-        return aggregator.compute(difference(epitope, receptor)) / commonLength(epitope, receptor);
+    public static double sumProduct(NumericStructure s1, NumericStructure s2, int length) {
+        double result = 0.0;
+
+        for (int index = 0; index < length; index++)
+            result += s1.asNumeric(index) * s2.asNumeric(index);
+
+        return result;
     }
 
     @Override public void validate(Epitope epitope, Receptor receptor) {
@@ -1,10 +1,6 @@
 
 package amat.binding;
 
-import jam.vector.JamVector;
-import jam.vector.VectorAggregator;
-import jam.vector.VectorView;
-
 import amat.epitope.Epitope;
 import amat.receptor.Receptor;
 
@@ -40,11 +36,8 @@ public final class QuadraticAffinity extends NumericAffinity {
     @Override public double computeFreeEnergy(Epitope epitope, Receptor receptor) {
         int length = commonLength(epitope, receptor);
 
-	VectorView view1   = asNumeric(epitope);
-	VectorView view2   = asNumeric(receptor);
-	JamVector  product = JamVector.multiplyEBE(view1, view2);
-
-	return -getPreFactor() * VectorAggregator.sum(product) / length;
+	double product = sumProduct(asNumericStructure(epitope), asNumericStructure(receptor), length);
+	return -getPreFactor() * product / length;
     };
 
     @Override public AffinityType getType() {
@@ -3,8 +3,8 @@ package amat.capture;
 
 import jam.chem.Concentration;
 import jam.chem.Langmuir;
-import jam.math.Probability;
 
+import amat.bcell.Bernoulli;
 import amat.binding.AffinityModel;
 
 /**
@@ -29,10 +29,10 @@ public final class LangmuirCaptureModel extends EpitopeCaptureModel {
     }
 
     private boolean isCaptured(double affinity) {
-        return captureProbability(affinity).accept();
+        return Bernoulli.accept(captureProbability(affinity));
     }
 
-    private Probability captureProbability(double affinity) {
-        return Langmuir.probability(AffinityModel.computeEquilConst(affinity));
+    private double captureProbability(double affinity) {
+        return Langmuir.INSTANCE.evaluate(AffinityModel.computeEquilConst(affinity));
     }
 }
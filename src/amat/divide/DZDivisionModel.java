@@ -7,6 +7,7 @@ import jam.app.JamProperties;
 import jam.lang.JamException;
 
 import amat.bcell.BCell;
+import amat.bcell.PopulationStats;
 
 /**
  * Determines the number of times a parent B cell will divide in the
@@ -101,4 +102,33 @@ public abstract class DZDivisionModel {
      * assigned a division count.
      */
     public abstract void assignDivisionCount(Collection<BCell> bcells);
+
+    /**
+     * Assigns the number of divisions for each member in a population
+     * of light-zone B cells using precomputed population statistics;
+     * by default, the statistics are ignored.
+     *
+     * @param bcells the population of light-zone B cells.
+     *
+     * @param stats the current statistics for the population.
+     *
+     * @throws IllegalStateException if any B cells have already been
+     * assigned a division count.
+     */
+    public void assignDivisionCount(Collection<BCell> bcells, PopulationStats stats) {
+        assignDivisionCount(bcells);
+    }
+
+    /**
+     * Assigns the number of divisions for a single light-zone B cell.
+     *
+     * @param bcell the B cell to assign.
+     *
+     * @param stats the statistics for the population that contains
+     * the B cell.
+     *
+     * @throws IllegalStateException if the B cell has already been
+     * assigned a division count.
+     */
+    public abstract void assignDivisionCount(BCell bcell, PopulationStats stats);
 }
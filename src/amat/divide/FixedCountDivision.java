@@ -6,6 +6,7 @@ import java.util.Collection;
 import jam.math.IntRange;
 
 import amat.bcell.BCell;
+import amat.bcell.PopulationStats;
 
 /**
  * Implements a dark-zone division model in which all B cells divide a
@@ -42,4 +43,8 @@ public final class FixedCountDivision extends DZDivisionModel {
         for (BCell bcell : bcells)
             bcell.setDivisionCount(count);
     }
+
+    @Override public void assignDivisionCount(BCell bcell, PopulationStats stats) {
+        bcell.setDivisionCount(count);
+    }
 }
@@ -8,6 +8,7 @@ import jam.math.JamRandom;
 import jam.util.CollectionUtil;
 
 import amat.bcell.BCell;
+import amat.bcell.PopulationStats;
 
 /**
  * Implements a dark-zone division model where the number of divisions
@@ -87,8 +88,18 @@ public final class MeanCaptureRatioDivision extends DZDivisionModel {
     }
 
     @Override public void assignDivisionCount(Collection<BCell> bcells) {
-        double meanQty = CollectionUtil.average(bcells, bcell -> bcell.getAntigenQty());
+        assignDivisionCount(bcells, CollectionUtil.average(bcells, bcell -> bcell.getAntigenQty()));
+    }
+
+    @Override public void assignDivisionCount(Collection<BCell> bcells, PopulationStats stats) {
+        assignDivisionCount(bcells, stats.getMeanAntigenQty());
+    }
+
+    @Override public void assignDivisionCount(BCell bcell, PopulationStats stats) {
+        bcell.setDivisionCount(computeDivisionCount(bcell.getAntigenQty() / stats.getMeanAntigenQty()));
+    }
 
+    private void assignDivisionCount(Collection<BCell> bcells, double meanQty) {
         for (BCell bcell : bcells)
             bcell.setDivisionCount(computeDivisionCount(bcell.getAntigenQty() / meanQty));
     }
@@ -9,10 +9,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.function.ToDoubleFunction;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Multimap;
-
 import jam.app.JamLogger;
 import jam.app.JamProperties;
 import jam.io.FileUtil;
@@ -23,7 +19,8 @@ import jam.math.IntRange;
 import amat.bcell.BCell;
 import amat.germinal.GerminalCenter;
 import amat.germinal.PopulationRecord;
-import amat.receptor.Receptor;
+import amat.plasma.AntibodyIndex;
+import amat.plasma.AntibodyView;
 import amat.report.AmatReport;
 
 /**
@@ -41,7 +38,7 @@ public final class AmatDriver {
     private final int plasmaTarget;
 
     private final List<GerminalCenter> germinalCenters = new ArrayList<GerminalCenter>();
-    private final Multimap<Receptor, BCell> plasmaCells = HashMultimap.create();
+    private final AntibodyIndex antibodyIndex = new AntibodyIndex();
 
     private static AmatDriver instance = null;
 
@@ -121,11 +118,8 @@ public final class AmatDriver {
             JamLogger.info("TRIAL %5d: %5.1f%% complete", trialIndex(), percentComplete());
             JamLogger.info("----------------------------");
 
-            GerminalCenter germinalCenter = GerminalCenter.run(trialIndex());
+            GerminalCenter germinalCenter = GerminalCenter.run(trialIndex(), antibodyIndex);
             germinalCenters.add(germinalCenter);
-
-            for (BCell plasmaCell : germinalCenter.viewPlasmaCells())
-                plasmaCells.put(plasmaCell.getReceptor(), plasmaCell);
         }
 
         JamLogger.info("--------------------------------------");
@@ -137,11 +131,11 @@ public final class AmatDriver {
     }
 
     private int countPlasmaCells() {
-        return plasmaCells.size();
+        return antibodyIndex.countPlasmaCells();
     }
 
     private int countReceptors() {
-        return plasmaCells.keySet().size();
+        return antibodyIndex.countReceptors();
     }
 
     private double percentComplete() {
@@ -253,15 +247,14 @@ public final class AmatDriver {
     }
 
     /**
-     * Returns a read-only mapping from B cell receptor to plasma
-     * cell, containing all plasma cells and unique receptors
-     * generated by the affinity maturation trials.
+     * Returns a read-only view of all plasma cells and unique
+     * receptors generated by the affinity maturation trials.
      *
-     * @return a read-only mapping from B cell receptor to plasma
-     * cell.
+     * @return a read-only view of all plasma cells and unique
+     * receptors generated by the affinity maturation trials.
      */
-    public ImmutableMultimap<Receptor, BCell> viewPlasmaCells() {
-        return ImmutableMultimap.copyOf(plasmaCells);
+    public AntibodyView viewPlasmaCells() {
+        return antibodyIndex;
     }
 
     /**
@@ -278,7 +271,7 @@ public final class AmatDriver {
     public List<BCell> viewPlasmaLineage(int firstGeneration) {
         List<BCell> lineage = new ArrayList<BCell>();
 
-        for (BCell plasmaCell : plasmaCells.values())
+        for (BCell plasmaCell : antibodyIndex.viewPlasmaCells())
             lineage.addAll(plasmaCell.traceLineage(firstGeneration));
 
         return lineage;
@@ -287,7 +280,7 @@ public final class AmatDriver {
     public List<Double> collectPlasmaTraits(ToDoubleFunction<BCell> toDouble) {
         List<Double> traits = new ArrayList<Double>();
 
-        for (BCell plasmaCell : plasmaCells.values())
+        for (BCell plasmaCell : antibodyIndex.viewPlasmaCells())
             traits.add(toDouble.applyAsDouble(plasmaCell));
 
         return traits;
@@ -296,7 +289,7 @@ public final class AmatDriver {
     public List<Double> collectPlasmaLineageTraits(ToDoubleFunction<BCell> toDouble) {
         List<Double> traits = new ArrayList<Double>();
 
-        for (BCell plasmaCell : plasmaCells.values())
+        for (BCell plasmaCell : antibodyIndex.viewPlasmaCells())
             for (BCell lineageCell : plasmaCell.traceLineage(GerminalCenter.REPLICATION_CYCLE + 1))
                 traits.add(toDouble.applyAsDouble(lineageCell));
 
@@ -62,13 +62,20 @@ import amat.structure.StructureType;
  * property and load the desired file.
  */
 public final class Epitope extends KeyedObject<String> implements Formatted {
+    private final int index;
     private final Structure structure;
 
     private static final Map<String, Epitope> instances = new LinkedHashMap<String, Epitope>();
 
+    // Registered epitopes in index order...
+    private static final List<Epitope> indexed = new ArrayList<Epitope>();
+
     // Classifier is created on demand...
     private static CVClassifier classifier = null;
 
+    // Element matrix is created on demand...
+    private static EpitopeMatrix matrix = null;
+
     // Comment text delimiter...
     private static final Pattern COMMENT_PATTERN = Pattern.compile("#");
 
@@ -94,11 +101,14 @@ public final class Epitope extends KeyedObject<String> implements Formatted {
         if (structure == null)
             throw new NullPointerException("Missing structure.");
 
+        this.index = instances.size();
         this.structure = structure;
         instances.put(key, this);
+        indexed.add(this);
 
-        // Any prior classification is invalidated...
+        // Any prior classification and matrix are invalidated...
         classifier = null;
+        matrix = null;
     }
 
     /**
@@ -152,6 +162,25 @@ public final class Epitope extends KeyedObject<String> implements Formatted {
         return classifier;
     }
 
+    /**
+     * Arranges all epitopes in the global registry in an element
+     * matrix for batch matching against receptors.
+     *
+     * @return an epitope matrix containing all epitopes in the global
+     * registry (in registration order) and using the global matching
+     * kernel.
+     *
+     * @throws IllegalArgumentException unless the registry contains
+     * at least one epitope and all epitopes have discrete structures
+     * with the same length.
+     */
+    public static EpitopeMatrix matrix() {
+        if (matrix == null)
+            matrix = EpitopeMatrix.create(instances.values());
+
+        return matrix;
+    }
+
     /**
      * Returns the number of registered epitopes.
      *
@@ -234,6 +263,19 @@ public final class Epitope extends KeyedObject<String> implements Formatted {
         return instances.get(key);
     }
 
+    /**
+     * Retrieves an epitope by its dense registration index.
+     *
+     * @param index the registration index of the epitope.
+     *
+     * @return the epitope with the given registration index.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public static Epitope lookup(int index) {
+        return indexed.get(index);
+    }
+
     /**
      * Computes the mutational distance between all pairs of epitopes
      * defined in the global registry.
@@ -408,6 +450,16 @@ public final class Epitope extends KeyedObject<String> implements Formatted {
         return uniqueType;
     }
 
+    /**
+     * Returns the dense registration index of this epitope.
+     *
+     * @return the (zero-offset) order in which this epitope was added
+     * to the global registry.
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Returns the fixed structure of this epitope.
      *
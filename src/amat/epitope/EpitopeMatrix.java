@@ -0,0 +1,299 @@
+
+package amat.epitope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jam.app.JamProperties;
+
+import amat.structure.DiscreteStructure;
+import amat.structure.Structure;
+
+/**
+ * Lays out a fixed set of discrete epitopes as a transposed element
+ * matrix so that the number of elements matching a receptor may be
+ * computed for every epitope at once.
+ *
+ * <p>With the {@code COLUMNAR} kernel, the ordinal values of element
+ * {@code k} in all epitopes are stored contiguously in one column,
+ * and the match counts are accumulated one column at a time with a
+ * branch-free inner loop over the epitopes.  That loop is a simple
+ * counted loop over primitive arrays, which the JIT compiler unrolls
+ * and vectorizes on platforms that support it.  The {@code SCALAR}
+ * kernel compares the receptor with each epitope in turn.
+ *
+ * <p>The kernel applied by the global epitope matrix (accessible via
+ * {@link Epitope#matrix()}) is defined by the following system
+ * property:
+ *
+ * <p><b>{@code amat.EpitopeMatrix.kernel:}</b> Enumerated type for
+ * the matching kernel ({@code SCALAR} or {@code COLUMNAR}); defaults
+ * to {@code SCALAR}, which leaves the batch binding path disabled.
+ */
+public final class EpitopeMatrix {
+    private final int length;
+    private final MatrixKernel kernel;
+    private final List<Epitope> epitopes;
+    private final Map<Epitope, Integer> indexMap;
+
+    // The transposed element matrix: columns[k][j] is the ordinal
+    // value of element k in epitope j (COLUMNAR kernel only)...
+    private final int[][] columns;
+
+    private static MatrixKernel global = null;
+
+    /**
+     * Name of the system property which defines the matching kernel.
+     */
+    public static final String KERNEL_PROPERTY = "amat.EpitopeMatrix.kernel";
+
+    /**
+     * Default matching kernel.
+     */
+    public static final MatrixKernel DEFAULT_KERNEL = MatrixKernel.SCALAR;
+
+    private EpitopeMatrix(Collection<Epitope> epitopes, MatrixKernel kernel) {
+        if (!isCompatible(epitopes))
+            throw new IllegalArgumentException("Epitope matrices require discrete structures with a unique length.");
+
+        this.kernel   = kernel;
+        this.epitopes = Collections.unmodifiableList(new ArrayList<Epitope>(epitopes));
+        this.indexMap = new HashMap<Epitope, Integer>();
+        this.length   = this.epitopes.get(0).getStructure().length();
+
+        for (int index = 0; index < this.epitopes.size(); index++)
+            indexMap.put(this.epitopes.get(index), index);
+
+        if (kernel.equals(MatrixKernel.COLUMNAR))
+            this.columns = transpose();
+        else
+            this.columns = null;
+    }
+
+    private int[][] transpose() {
+        int[][] result = new int[length][size()];
+
+        for (int epitopeIndex = 0; epitopeIndex < size(); epitopeIndex++) {
+            DiscreteStructure structure = getStructure(epitopeIndex);
+
+            for (int elementIndex = 0; elementIndex < length; elementIndex++)
+                result[elementIndex][epitopeIndex] = structure.asOrdinal(elementIndex);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a new epitope matrix using the global matching kernel.
+     *
+     * @param epitopes the epitopes to include in the matrix.
+     *
+     * @return a new epitope matrix containing the specified epitopes
+     * (in the order returned by the collection iterator).
+     *
+     * @throws IllegalArgumentException unless the collection contains
+     * at least one epitope and all epitopes have discrete structures
+     * with the same length.
+     */
+    public static EpitopeMatrix create(Collection<Epitope> epitopes) {
+        return create(epitopes, globalKernel());
+    }
+
+    /**
+     * Creates a new epitope matrix using a specific matching kernel.
+     *
+     * @param epitopes the epitopes to include in the matrix.
+     *
+     * @param kernel the matching kernel to apply.
+     *
+     * @return a new epitope matrix containing the specified epitopes
+     * (in the order returned by the collection iterator).
+     *
+     * @throws IllegalArgumentException unless the collection contains
+     * at least one epitope and all epitopes have discrete structures
+     * with the same length.
+     */
+    public static EpitopeMatrix create(Collection<Epitope> epitopes, MatrixKernel kernel) {
+        return new EpitopeMatrix(epitopes, kernel);
+    }
+
+    /**
+     * Returns the global matching kernel defined by system properties.
+     *
+     * @return the global matching kernel defined by system properties.
+     */
+    public static MatrixKernel globalKernel() {
+        if (global == null)
+            global = resolveKernel();
+
+        return global;
+    }
+
+    private static MatrixKernel resolveKernel() {
+        if (JamProperties.isSet(KERNEL_PROPERTY))
+            return JamProperties.getRequiredEnum(KERNEL_PROPERTY, MatrixKernel.class);
+        else
+            return DEFAULT_KERNEL;
+    }
+
+    /**
+     * Identifies epitope collections that may be arranged in a
+     * matrix.
+     *
+     * @param epitopes the epitopes to examine.
+     *
+     * @return {@code true} iff the collection contains at least one
+     * epitope and all epitopes have discrete structures with the same
+     * length.
+     */
+    public static boolean isCompatible(Collection<Epitope> epitopes) {
+        if (epitopes.isEmpty())
+            return false;
+
+        int length = -1;
+
+        for (Epitope epitope : epitopes) {
+            Structure structure = epitope.getStructure();
+
+            if (!structure.isDiscrete())
+                return false;
+
+            if (length < 0)
+                length = structure.length();
+            else if (structure.length() != length)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Counts the elements in a receptor structure that match the
+     * corresponding elements of each epitope in this matrix.
+     *
+     * @param receptor the receptor structure to compare.
+     *
+     * @return an array whose element {@code j} is the number of
+     * receptor elements that match epitope {@code j}.
+     *
+     * @throws IllegalArgumentException unless the receptor has the
+     * same length as the epitopes in this matrix.
+     */
+    public int[] countMatching(DiscreteStructure receptor) {
+        if (receptor.length() != length)
+            throw new IllegalArgumentException("Receptor length does not match the epitope length.");
+
+        switch (kernel) {
+        case SCALAR:
+            return countMatchingScalar(receptor);
+
+        case COLUMNAR:
+            return countMatchingColumnar(receptor);
+
+        default:
+            throw new IllegalStateException("Unknown matrix kernel.");
+        }
+    }
+
+    private int[] countMatchingScalar(DiscreteStructure receptor) {
+        int[] counts = new int[size()];
+
+        for (int epitopeIndex = 0; epitopeIndex < counts.length; epitopeIndex++)
+            counts[epitopeIndex] = length - receptor.hammingDistance(getStructure(epitopeIndex));
+
+        return counts;
+    }
+
+    private int[] countMatchingColumnar(DiscreteStructure receptor) {
+        int[] counts = new int[size()];
+
+        // Read the receptor elements once: delta-encoded receptors
+        // are then materialized once rather than once per element...
+        int[] ordinals = receptor.asOrdinal();
+
+        for (int elementIndex = 0; elementIndex < length; elementIndex++) {
+            int   ordinal = ordinals[elementIndex];
+            int[] column  = columns[elementIndex];
+
+            for (int epitopeIndex = 0; epitopeIndex < counts.length; epitopeIndex++)
+                counts[epitopeIndex] += (column[epitopeIndex] == ordinal) ? 1 : 0;
+        }
+
+        return counts;
+    }
+
+    /**
+     * Returns an epitope contained in this matrix.
+     *
+     * @param index the (zero-offset) index of the epitope.
+     *
+     * @return the epitope at the specified index.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public Epitope get(int index) {
+        return epitopes.get(index);
+    }
+
+    /**
+     * Returns the matching kernel applied by this matrix.
+     *
+     * @return the matching kernel applied by this matrix.
+     */
+    public MatrixKernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * Returns the (unique) length of the epitopes in this matrix.
+     *
+     * @return the (unique) length of the epitopes in this matrix.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    private DiscreteStructure getStructure(int index) {
+        return (DiscreteStructure) epitopes.get(index).getStructure();
+    }
+
+    /**
+     * Returns the index of an epitope in this matrix.
+     *
+     * @param epitope the epitope to locate.
+     *
+     * @return the (zero-offset) index of the specified epitope, or
+     * {@code -1} if the epitope is not contained in this matrix.
+     */
+    public int indexOf(Epitope epitope) {
+        Integer index = indexMap.get(epitope);
+
+        if (index != null)
+            return index;
+        else
+            return -1;
+    }
+
+    /**
+     * Returns the number of epitopes in this matrix.
+     *
+     * @return the number of epitopes in this matrix.
+     */
+    public int size() {
+        return epitopes.size();
+    }
+
+    /**
+     * Returns a read-only view of the epitopes in this matrix.
+     *
+     * @return a read-only list of the epitopes in this matrix, in
+     * index order.
+     */
+    public List<Epitope> viewEpitopes() {
+        return epitopes;
+    }
+}
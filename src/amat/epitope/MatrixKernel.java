@@ -0,0 +1,12 @@
+
+package amat.epitope;
+
+/**
+ * Enumerates the kernels that an {@link EpitopeMatrix} may apply to
+ * count the elements matching a receptor: {@code SCALAR} compares the
+ * receptor with each epitope in turn; {@code COLUMNAR} accumulates
+ * the counts over a transposed element matrix one column at a time.
+ */
+public enum MatrixKernel {
+    SCALAR, COLUMNAR;
+}
@@ -0,0 +1,134 @@
+
+package amat.germinal;
+
+import jam.chem.HalfLife;
+
+import amat.antigen.AntigenPool;
+import amat.vaccine.VaccinationEvent;
+import amat.vaccine.VaccinationSchedule;
+
+/**
+ * Records the antigen pool present in a germinal center on every
+ * cycle of affinity maturation.
+ *
+ * <p>Antigen concentrations are fully determined by the vaccination
+ * schedule and the antigen half-life, so the timeline is computed
+ * once and shared (read-only) by all germinal centers.  Every pool in
+ * the timeline is frozen ({@link AntigenPool#freeze()}): its total
+ * concentration, Langmuir occupancy probability, and selection table
+ * are computed when the timeline is created.
+ *
+ * <p>Each cycle has two pools: the <em>binding pool</em>, present
+ * after any vaccination event on that cycle and before antigen
+ * decay, and the <em>decayed pool</em>, present after antigen decay
+ * at the end of the light-zone binding phase.  No decay occurs on the
+ * germline activation cycle.
+ */
+public final class AntigenTimeline {
+    private final AntigenPool[] bindingPools;
+    private final AntigenPool[] decayedPools;
+
+    // The global instance, defined by the global vaccination schedule
+    // and germinal center properties...
+    private static AntigenTimeline global = null;
+
+    private AntigenTimeline(int cycleLimit) {
+        this.bindingPools = new AntigenPool[cycleLimit + 1];
+        this.decayedPools = new AntigenPool[cycleLimit + 1];
+    }
+
+    /**
+     * Computes the antigen timeline for a vaccination schedule.
+     *
+     * @param schedule the vaccination schedule.
+     *
+     * @param halfLife the half-life for antigen decay, expressed as a
+     * number of germinal center cycles.
+     *
+     * @param cycleLimit the final germinal center cycle to include.
+     *
+     * @return the antigen timeline for the specified schedule.
+     *
+     * @throws IllegalArgumentException if the cycle limit is negative.
+     */
+    public static AntigenTimeline create(VaccinationSchedule schedule, HalfLife halfLife, int cycleLimit) {
+        if (cycleLimit < 0)
+            throw new IllegalArgumentException("Negative cycle limit.");
+
+        AntigenTimeline timeline = new AntigenTimeline(cycleLimit);
+        AntigenPool pool = new AntigenPool();
+
+        for (int cycle = 0; cycle <= cycleLimit; ++cycle) {
+            VaccinationEvent event = schedule.eventOn(cycle);
+
+            if (event != null)
+                pool.add(event.getVaccine());
+
+            timeline.bindingPools[cycle] = pool.freeze();
+
+            if (cycle > GerminalCenter.GERMLINE_CYCLE)
+                pool.decay(halfLife);
+
+            timeline.decayedPools[cycle] = pool.freeze();
+        }
+
+        return timeline;
+    }
+
+    /**
+     * Returns the global antigen timeline, defined by the global
+     * vaccination schedule and germinal center properties.
+     *
+     * @return the global antigen timeline.
+     *
+     * @throws RuntimeException unless the global vaccination schedule
+     * and germinal center properties are properly defined.
+     */
+    public static synchronized AntigenTimeline global() {
+        if (global == null)
+            global = create(VaccinationSchedule.global(),
+                            GerminalCenterProperties.getAntigenHalfLife(),
+                            GerminalCenterProperties.getCycleLimit());
+
+        return global;
+    }
+
+    /**
+     * Returns the antigen pool available for binding on a given
+     * cycle (after vaccination and before decay).
+     *
+     * @param cycle the germinal center cycle of interest.
+     *
+     * @return the frozen binding pool for the specified cycle.
+     *
+     * @throws IndexOutOfBoundsException unless the cycle lies within
+     * this timeline.
+     */
+    public AntigenPool getBindingPool(int cycle) {
+        return bindingPools[cycle];
+    }
+
+    /**
+     * Returns the antigen pool remaining after decay on a given
+     * cycle.
+     *
+     * @param cycle the germinal center cycle of interest.
+     *
+     * @return the frozen decayed pool for the specified cycle.
+     *
+     * @throws IndexOutOfBoundsException unless the cycle lies within
+     * this timeline.
+     */
+    public AntigenPool getDecayedPool(int cycle) {
+        return decayedPools[cycle];
+    }
+
+    /**
+     * Returns the final germinal center cycle in this timeline.
+     *
+     * @return the final germinal center cycle in this timeline.
+     */
+    public int getCycleLimit() {
+        return bindingPools.length - 1;
+    }
+}
@@ -9,23 +9,25 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
-
 import jam.app.JamLogger;
-import jam.chem.HalfLife;
 import jam.lang.JamException;
 import jam.math.DoubleUtil;
 
 import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
+import amat.bcell.ApoptosisModel;
 import amat.bcell.BCell;
+import amat.bcell.CycleBindingStats;
 import amat.bcell.ClonalDiversity;
+import amat.bcell.IndependentApoptosisModel;
+import amat.bcell.IndependentSelectionModel;
+import amat.bcell.PopulationStats;
 import amat.binding.AffinityModel;
 import amat.divide.DZDivisionModel;
 import amat.epitope.Epitope;
 import amat.germline.GermlineActivationModel;
 import amat.memory.MemorySelectionModel;
+import amat.plasma.AntibodyIndex;
 import amat.plasma.PlasmaSelectionModel;
 import amat.receptor.Receptor;
 import amat.reentry.ReentryModel;
@@ -35,6 +37,7 @@ import amat.vaccine.VaccinationEvent;
 import amat.vaccine.VaccinationSchedule;
 import amat.vaccine.Vaccine;
 import amat.vaccine.VaccineComponent;
+import amat.visit.VisitationBatch;
 import amat.visit.VisitationModel;
 
 public final class GerminalCenter {
@@ -43,7 +46,6 @@ public final class GerminalCenter {
     // Frequently used germinal center properties...
     private final int cycleLimit = GerminalCenterProperties.getCycleLimit();
     private final int residentCapacity = GerminalCenterProperties.getResidentCapacity();
-    private final HalfLife antigenHalfLife = GerminalCenterProperties.getAntigenHalfLife();
 
     // The current affinity maturation cycle: incremented at the start
     // of each cycle, before any other actions have occurred.
@@ -57,8 +59,10 @@ public final class GerminalCenter {
     private GerminalCenterState gcState = GerminalCenterState.ACTIVE;
 
     // Antigens present in the germinal center along with their
-    // current concentrations...
-    private final AntigenPool antigenPool = new AntigenPool();
+    // current concentrations: a frozen pool from the shared antigen
+    // timeline...
+    private final AntigenTimeline antigenTimeline = AntigenTimeline.global();
+    private AntigenPool antigenPool = new AntigenPool();
 
     // B cells participating in (and surviving) each cycle.  Most B
     // cells in the set at list element K will be of generation K, 
@@ -71,6 +75,14 @@ public final class GerminalCenter {
     // and replication cycles are special...
     private final List<PopulationRecord> populations = new ArrayList<PopulationRecord>();
 
+    // Statistics for the active B cells in the current light-zone
+    // cycle: accumulated during binding and updated as cells die by
+    // apoptosis...
+    private PopulationStats populationStats;
+
+    // Whether the light-zone cycle is executed as a fused pipeline...
+    private final boolean fusedLightZone = allowFusedLightZone(BCRSignalingModel.global());
+
     // Memory cells outside of the germinal center (excluding any that
     // have re-entered)...
     private final Set<BCell> memoryCells = new HashSet<BCell>();
@@ -78,12 +90,13 @@ public final class GerminalCenter {
     // Plasma cells produced by affinity maturation...
     private final Set<BCell> plasmaCells = new HashSet<BCell>();
 
-    // Unique plasma cell receptors mapped to their enclosing B
-    // cells...
-    private final Multimap<Receptor, BCell> antibodies = HashMultimap.create();
+    // Plasma cells indexed by receptor (possibly shared with other
+    // trials)...
+    private final AntibodyIndex antibodyIndex;
 
-    private GerminalCenter(int trialIndex) {
+    private GerminalCenter(int trialIndex, AntibodyIndex antibodyIndex) {
         this.trialIndex = trialIndex;
+        this.antibodyIndex = antibodyIndex;
     }
 
     /**
@@ -111,10 +124,56 @@ public final class GerminalCenter {
      * the affinity maturation trial is successful.
      */
     public static GerminalCenter run(int trialIndex) {
-        GerminalCenter gc = new GerminalCenter(trialIndex);
+        return run(trialIndex, new AntibodyIndex());
+    }
+
+    /**
+     * Creates a new germinal center and simulates the affinity
+     * maturation process for the global vaccination schedule, adding
+     * the plasma cells to an antibody index shared with other trials.
+     *
+     * @param trialIndex the index of the maturation trial (for
+     * tracking by the driver program).
+     *
+     * @param antibodyIndex the antibody index that will contain the
+     * plasma cells produced by this trial; trials must be executed in
+     * order of increasing trial index.
+     *
+     * @return the germinal center, after affinity maturation has
+     * terminated.
+     *
+     * @throws RuntimeException unless all required germinal center
+     * properties have been assigned in the global property space and
+     * the affinity maturation trial is successful.
+     */
+    public static GerminalCenter run(int trialIndex, AntibodyIndex antibodyIndex) {
+        GerminalCenter gc = new GerminalCenter(trialIndex, antibodyIndex);
         return gc.runAM();
     }
 
+    /**
+     * Identifies whether the light-zone cycle is executed as a fused
+     * pipeline for a given BCR signaling model.
+     *
+     * @param signalingModel the BCR signaling model.
+     *
+     * @return {@code true} iff the fused pipeline is enabled by the
+     * system property {@code amat.GerminalCenter.fusedLightZone} and
+     * the signaling model decides the fate of each cell independently.
+     */
+    public static boolean allowFusedLightZone(ApoptosisModel signalingModel) {
+        //
+        // The BCR signaling decision must be independent for each
+        // cell so that it can follow binding immediately; T cell
+        // competition is applied at a barrier unless it is also
+        // independent, the memory and plasma selection models are
+        // always independent, and every division model can assign
+        // counts one cell at a time...
+        //
+        return GerminalCenterProperties.isFusedLightZone()
+            && signalingModel instanceof IndependentApoptosisModel;
+    }
+
     /**
      * Computes the antibody production rate for the germinal center
      * reaction.
@@ -185,7 +244,7 @@ public final class GerminalCenter {
      * produced by this germinal center.
      */
     public int countAntibodies() {
-	return antibodies.keySet().size();
+	return antibodyIndex.countReceptors(trialIndex);
     }
 
     /**
@@ -301,7 +360,19 @@ public final class GerminalCenter {
      * plasma cell receptors) generated during affinity maturation.
      */
     public Set<Receptor> viewAntibodies() {
-        return Collections.unmodifiableSet(antibodies.keySet());
+        return antibodyIndex.viewReceptors(trialIndex);
+    }
+
+    /**
+     * Returns a (read-only) set view of the memory cells exported
+     * during affinity maturation (excluding any that have re-entered
+     * the germinal center).
+     *
+     * @return an unmodifiable set containing the memory cells exported
+     * during affinity maturation.
+     */
+    public Set<BCell> viewMemoryCells() {
+        return Collections.unmodifiableSet(memoryCells);
     }
 
     /**
@@ -337,6 +408,9 @@ public final class GerminalCenter {
         logState(JamLogger.Level.INFO);
 	mapAntibodies();
 
+        // Publish the binding statistics recorded during this trial...
+        CycleBindingStats.flush();
+
         return this;
     }
 
@@ -346,7 +420,7 @@ public final class GerminalCenter {
         if (event == null)
             throw JamException.runtime("No vaccine administered on cycle zero.");
 
-        antigenPool.add(event.getVaccine());
+        antigenPool = antigenTimeline.getBindingPool(cycleIndex);
     }
 
     private void activateGermlines() {
@@ -480,6 +554,11 @@ public final class GerminalCenter {
     }
 
     private void lightZoneCycle() {
+        if (fusedLightZone) {
+            fusedLightZoneCycle();
+            return;
+        }
+
         updateAgPool();
         bindAntigens();
         decayAntigen();
@@ -491,36 +570,139 @@ public final class GerminalCenter {
 	selectPlasma();
     }
 
+    private void fusedLightZoneCycle() {
+        //
+        // First pass: bind antigen and test BCR signals.  Binding
+        // reads the pool recorded in the visitation batch, so the
+        // decayed pool may be installed beforehand.  The survivors
+        // are collected directly rather than removed from the active
+        // set one at a time...
+        //
+        updateAgPool();
+
+        Set<BCell> activeCells = getActiveCells();
+        VisitationBatch batch = VisitationModel.global().visitAll(cycleIndex, antigenPool, activeCells.size());
+
+        decayAntigen();
+
+        IndependentApoptosisModel signalingModel = (IndependentApoptosisModel) BCRSignalingModel.global();
+        ApoptosisModel competitionModel = TCellCompetitionModel.global();
+
+        //
+        // Competition for T cell help that is also independent for
+        // each cell follows signaling immediately; otherwise it may
+        // depend on the entire population and requires a barrier...
+        //
+        IndependentApoptosisModel fusedCompetition = null;
+
+        if (competitionModel instanceof IndependentApoptosisModel)
+            fusedCompetition = (IndependentApoptosisModel) competitionModel;
+
+        PopulationRecord population = populations.get(cycleIndex);
+        List<BCell> signaled = new ArrayList<BCell>(activeCells.size());
+
+        int cell = 0;
+        int signaledCount = 0;
+        populationStats = new PopulationStats();
+
+        for (BCell activeCell : activeCells) {
+            activeCell.bind(batch, cell++);
+
+            if (signalingModel.apoptose(activeCell))
+                continue;
+
+            ++signaledCount;
+
+            if (fusedCompetition != null && fusedCompetition.apoptose(activeCell))
+                continue;
+
+            signaled.add(activeCell);
+            populationStats.add(activeCell);
+        }
+
+        population.after(GerminalCenterEvent.BCR_SIGNALING, signaledCount);
+
+        Collection<BCell> helped = signaled;
+
+        if (fusedCompetition == null) {
+            Set<BCell> competitors = new HashSet<BCell>(signaled);
+            competitionModel.apoptose(competitors, antigenPool, populationStats);
+            helped = competitors;
+        }
+
+        population.after(GerminalCenterEvent.TCELL_COMPETITION, helped.size());
+
+        //
+        // Second pass: assign division counts and export memory and
+        // plasma cells; the cells remaining in the light zone become
+        // the active set...
+        //
+        DZDivisionModel divisionModel = DZDivisionModel.global();
+        IndependentSelectionModel memoryModel = MemorySelectionModel.global();
+        IndependentSelectionModel plasmaModel = PlasmaSelectionModel.global();
+
+        Set<BCell> remaining = new HashSet<BCell>();
+        int plasmaCount = 0;
+
+        for (BCell helpedCell : helped) {
+            divisionModel.assignDivisionCount(helpedCell, populationStats);
+
+            if (memoryModel.select(helpedCell)) {
+                memoryCells.add(helpedCell);
+            }
+            else if (plasmaModel.select(helpedCell)) {
+                plasmaCells.add(helpedCell);
+                ++plasmaCount;
+            }
+            else {
+                remaining.add(helpedCell);
+            }
+        }
+
+        generations.set(cycleIndex, remaining);
+
+        population.after(GerminalCenterEvent.MEMORY_SELECTION, remaining.size() + plasmaCount);
+        updatePopulation(GerminalCenterEvent.PLASMA_SELECTION);
+    }
+
     private void updateAgPool() {
         VaccinationEvent event = VaccinationSchedule.global().eventOn(cycleIndex);
 
-        if (event != null) {
-            antigenPool.add(event.getVaccine());
+        if (event != null)
             JamLogger.info("New vaccination event for cycle [%d]...", cycleIndex);
-        }
+
+        antigenPool = antigenTimeline.getBindingPool(cycleIndex);
     }
 
     private void bindAntigens() {
-        for (BCell activeCell : getActiveCells())
-            bindAntigen(activeCell);
-    }
+        //
+        // Visitation for all active cells is simulated in one batch,
+        // then each cell binds its own encounters...
+        //
+        Set<BCell> activeCells = getActiveCells();
+        VisitationBatch batch = VisitationModel.global().visitAll(cycleIndex, antigenPool, activeCells.size());
 
-    private void bindAntigen(BCell activeCell) {
-        activeCell.bind(antigenPool, VisitationModel.global().visit(cycleIndex, antigenPool));
+        int cell = 0;
+        populationStats = new PopulationStats();
+
+        for (BCell activeCell : activeCells) {
+            activeCell.bind(batch, cell++);
+            populationStats.add(activeCell);
+        }
     }
 
     private void decayAntigen() {
-	antigenPool.decay(antigenHalfLife);
+        antigenPool = antigenTimeline.getDecayedPool(cycleIndex);
     }
 
     private void testSignals() {
-        BCRSignalingModel.global().apoptose(getActiveCells(), antigenPool);
+        BCRSignalingModel.global().apoptose(getActiveCells(), antigenPool, populationStats);
         updatePopulation(GerminalCenterEvent.BCR_SIGNALING);
     }
 
     private void competeHelp() {
-        TCellCompetitionModel.global().apoptose(getActiveCells(), antigenPool);
-        DZDivisionModel.global().assignDivisionCount(getActiveCells());
+        TCellCompetitionModel.global().apoptose(getActiveCells(), antigenPool, populationStats);
+        DZDivisionModel.global().assignDivisionCount(getActiveCells(), populationStats);
         updatePopulation(GerminalCenterEvent.TCELL_COMPETITION);
     }
 
@@ -535,8 +717,7 @@ public final class GerminalCenter {
     }
 
     private void mapAntibodies() {
-	for (BCell plasmaCell : plasmaCells)
-	    antibodies.put(plasmaCell.getReceptor(), plasmaCell);
+	antibodyIndex.addAll(trialIndex, plasmaCells);
     }
 
     public static void main(String[] args) {
@@ -20,6 +20,15 @@ import jam.math.IntRange;
  *
  * <p><b>{@code amat.GerminalCenter.antigenHalfLife:}</b> Half-life for
  * antigen decay, expressed as a number of germinal center cycles.
+ *
+ * <p><b>{@code amat.GerminalCenter.fusedLightZone:}</b> Whether to
+ * execute the light-zone cycle as a fused pipeline (when the global
+ * models allow it): antigen binding and BCR signaling are applied in
+ * one pass over the active cells, and division assignment, memory
+ * selection, and plasma selection in a second pass after the T cell
+ * competition.  The outcomes have the same distribution as the staged
+ * cycle, but the random number stream is consumed in a different
+ * order.  The default is {@code false}.
  */
 public final class GerminalCenterProperties {
     private GerminalCenterProperties() {} // Prevent instantiation...
@@ -60,6 +69,12 @@ public final class GerminalCenterProperties {
      */
     public static final double DEFAULT_ANTIGEN_HALF_LIFE = Double.POSITIVE_INFINITY;
 
+    /**
+     * Name of the global property which enables the fused light-zone
+     * pipeline.
+     */
+    public static final String FUSED_LIGHT_ZONE_PROPERTY = "amat.GerminalCenter.fusedLightZone";
+
     /**
      * Returns the maximum number of mutation/selection cycles.
      *
@@ -91,4 +106,14 @@ public final class GerminalCenterProperties {
     public static HalfLife getAntigenHalfLife() {
         return HalfLife.valueOf(JamProperties.getOptionalDouble(ANTIGEN_HALF_LIFE_PROPERTY, DEFAULT_ANTIGEN_HALF_LIFE));
     }
+
+    /**
+     * Identifies whether the fused light-zone pipeline is enabled.
+     *
+     * @return {@code true} iff the fused light-zone pipeline is
+     * enabled by the global properties.
+     */
+    public static boolean isFusedLightZone() {
+        return JamProperties.getOptionalBoolean(FUSED_LIGHT_ZONE_PROPERTY, false);
+    }
 }
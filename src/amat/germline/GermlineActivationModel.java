@@ -4,14 +4,17 @@ package amat.germline;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import jam.app.JamProperties;
 import jam.math.IntRange;
+import jam.math.JamRandom;
 
 import amat.antigen.AntigenPool;
 import amat.bcell.BCell;
 import amat.binding.AffinityModel;
 import amat.epitope.Epitope;
+import amat.receptor.Receptor;
 
 /**
  * Encodes a model for generating germline B cells and recruiting them
@@ -30,12 +33,18 @@ import amat.epitope.Epitope;
  * <p><b>{@code amat.GermlineActivationModel.replicationFactor:}</b>
  * The number of times each germline cell is replicated prior to the
  * start of affinity maturation.
+ *
+ * <p><b>{@code amat.GermlineActivationModel.directSampling:}</b>
+ * Whether to generate activated germline receptors directly (for
+ * Hamming affinity models) rather than by rejection sampling; the
+ * activated receptors have the same distribution in either case.
  */
 public final class GermlineActivationModel {
     private final int attemptLimit;
     private final int germlineCount;
     private final int replicationFactor;
     private final double affinityThreshold;
+    private final boolean directSampling;
 
     private static GermlineActivationModel global = null;
 
@@ -79,6 +88,13 @@ public final class GermlineActivationModel {
      */
     public static final int DEFAULT_REPLICATION_FACTOR = 40;
 
+    /**
+     * Name of the system property which specifies whether activated
+     * germline receptors are generated directly when possible.
+     */
+    public static final String DIRECT_SAMPLING_PROPERTY = 
+        "amat.GermlineActivationModel.directSampling";
+
     /**
      * Creates a new memory selection model with a fixed selection
      * threshold and germline count.
@@ -95,10 +111,34 @@ public final class GermlineActivationModel {
     public GermlineActivationModel(double affinityThreshold, 
                                    int    germlineCount,
                                    int    replicationFactor) {
+        this(affinityThreshold, germlineCount, replicationFactor, true);
+    }
+
+    /**
+     * Creates a new memory selection model with a fixed selection
+     * threshold and germline count.
+     *
+     * @param affinityThreshold the minimum antigen affinity required
+     * for germline cell activation.
+     *
+     * @param germlineCount the number of unique germline cells
+     * present at the start of affinity maturation.
+     *
+     * @param replicationFactor the number of times each germline cell
+     * is replicated prior to the start of affinity maturation.
+     *
+     * @param directSampling whether to generate activated germline
+     * receptors directly when the affinity model allows it.
+     */
+    public GermlineActivationModel(double  affinityThreshold, 
+                                   int     germlineCount,
+                                   int     replicationFactor,
+                                   boolean directSampling) {
         this.attemptLimit      = 10000 * germlineCount;
         this.germlineCount     = germlineCount;
         this.replicationFactor = replicationFactor;
         this.affinityThreshold = affinityThreshold;
+        this.directSampling    = directSampling;
     }
 
     /**
@@ -121,7 +161,8 @@ public final class GermlineActivationModel {
     private static GermlineActivationModel createGlobal() {
         return new GermlineActivationModel(resolveAffinityThreshold(),
                                            resolveGermlineCount(),
-                                           resolveReplicationFactor());
+                                           resolveReplicationFactor(),
+                                           resolveDirectSampling());
     }
 
     private static double resolveAffinityThreshold() {
@@ -136,6 +177,10 @@ public final class GermlineActivationModel {
         return JamProperties.getOptionalInt(REPLICATION_FACTOR_PROPERTY, IntRange.POSITIVE, DEFAULT_REPLICATION_FACTOR);
     }
 
+    private static boolean resolveDirectSampling() {
+        return JamProperties.getOptionalBoolean(DIRECT_SAMPLING_PROPERTY, true);
+    }
+
     /**
      * Returns the minimum antigen affinity required for germline cell
      * activation.
@@ -170,7 +215,19 @@ public final class GermlineActivationModel {
     }
 
     /**
-     * Generates activated germline cells.
+     * Identifies models that generate activated germline receptors
+     * directly when the affinity model allows it.
+     *
+     * @return {@code true} iff this model uses direct sampling when
+     * possible.
+     */
+    public boolean isDirectSampling() {
+        return directSampling;
+    }
+
+    /**
+     * Generates activated germline cells (or draws them from the
+     * global {@link GermlineRepertoire}, if it is enabled).
      *
      * @param antigenPool the pool of available antigens.
      *
@@ -181,9 +238,20 @@ public final class GermlineActivationModel {
      * of attempts (e.g., the activation threshold is too high).
      */
     public Set<BCell> activate(AntigenPool antigenPool) {
+        if (GermlineRepertoire.isEnabled())
+            return GermlineRepertoire.global(this, antigenPool).draw(this, JamRandom.global());
+
+        Set<Epitope> epitopes = antigenPool.viewEpitopes();
+        GermlineSampler sampler = null;
+
+        if (directSampling)
+            sampler = GermlineSampler.create(epitopes, affinityThreshold);
+
+        if (sampler != null)
+            return activate(sampler);
+
         int attemptIndex = 0;
         Set<BCell> germlines = new HashSet<BCell>();
-        Set<Epitope> epitopes = antigenPool.viewEpitopes();
 
         while (germlines.size() < germlineCount && attemptIndex < attemptLimit) {
             BCell germline = BCell.germline();
@@ -200,16 +268,46 @@ public final class GermlineActivationModel {
         return germlines;
     }
 
+    private Set<BCell> activate(GermlineSampler sampler) {
+        //
+        // Every candidate generated by the direct sampler is activated;
+        // candidates are rejected only to correct for the overlapping
+        // activation regions of multiple epitopes, so the acceptance
+        // rate is at least the reciprocal of the epitope count...
+        //
+        int attemptIndex = 0;
+        SplittableRandom random = new SplittableRandom(JamRandom.global().nextLong());
+        Set<BCell> germlines = new HashSet<BCell>();
+
+        while (germlines.size() < germlineCount && attemptIndex < attemptLimit) {
+            Receptor receptor = sampler.sample(random);
+
+            if (receptor != null)
+                germlines.add(BCell.germline(receptor));
+
+            ++attemptIndex;
+        }
+
+        if (germlines.size() != germlineCount)
+            throw new IllegalStateException("Failed to generate germline cells.");
+
+        return germlines;
+    }
+
     private boolean activate(BCell germline, Collection<Epitope> epitopes) {
+        return isActivated(germline.getReceptor(), epitopes);
+    }
+
+    boolean isActivated(Receptor receptor, Collection<Epitope> epitopes) {
         for (Epitope epitope : epitopes)
-            if (activate(germline, epitope))
+            if (isActivated(receptor, epitope))
                 return true;
 
         return false;
     }
 
-    private boolean activate(BCell germline, Epitope epitope) {
-        return AffinityModel.global().computeAffinity(epitope, germline.getReceptor()) >= affinityThreshold;
+    private boolean isActivated(Receptor receptor, Epitope epitope) {
+        return AffinityModel.global().computeAffinity(epitope, receptor) >= affinityThreshold;
     }
 
     /**
@@ -0,0 +1,455 @@
+
+package amat.germline;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import jam.app.JamLogger;
+import jam.app.JamProperties;
+import jam.io.FileParser;
+import jam.io.IOUtil;
+import jam.math.IntRange;
+import jam.math.JamRandom;
+
+import amat.antigen.AntigenPool;
+import amat.bcell.BCell;
+import amat.binding.AffinityModel;
+import amat.epitope.Epitope;
+import amat.receptor.Receptor;
+import amat.receptor.ReceptorGenerator;
+import amat.structure.Structure;
+
+/**
+ * Maintains a precomputed repertoire of activated germline receptors
+ * that is shared by all affinity maturation trials in a run.
+ *
+ * <p>The antigen pool on the germline activation cycle is the same
+ * for every trial, so the activated receptors may be generated once
+ * (in parallel) and each trial then draws its founder cells from the
+ * repertoire.  The repertoire is generated with replacement, so it
+ * may contain duplicate receptors (just as independently generated
+ * founders may coincide).  The founders in one trial are drawn from
+ * distinct repertoire positions, but the same position may found
+ * germinal centers in different trials.  The repertoire should
+ * therefore be much larger than the germline count.
+ *
+ * <p>The repertoire is generated from its own random streams, which
+ * are derived from the global seed <b>{@code jam.math.JamRandom.seed}</b>
+ * (when defined), and not from the global random source.  A run that
+ * loads the repertoire from a file therefore continues exactly as a
+ * run that generates it.
+ *
+ * <p>The repertoire is defined by the following system properties:
+ *
+ * <p><b>{@code amat.GermlineRepertoire.size:}</b> The number of
+ * activated receptors in the repertoire.  The repertoire is used only
+ * if this property is set.
+ *
+ * <p><b>{@code amat.GermlineRepertoire.threadCount:}</b> The number
+ * of worker threads used to generate candidate receptors (defaulting
+ * to the number of available processors).
+ *
+ * <p><b>{@code amat.GermlineRepertoire.file:}</b> The name of a file
+ * used to persist the repertoire across runs (optional).  The file is
+ * loaded if it exists and was generated with the same epitopes,
+ * affinity threshold, sampling method, repertoire size, and random
+ * seed; otherwise the repertoire is generated and written to the file.
+ */
+public final class GermlineRepertoire {
+    private final AntigenPool antigenPool;
+    private final double affinityThreshold;
+    private final boolean directSampling;
+    private final Receptor[] receptors;
+
+    // The repertoires generated for distinct activation models; at
+    // most one is kept for each activation threshold and sampling
+    // method (for the most recent antigen pool)...
+    private static final List<GermlineRepertoire> global = new ArrayList<GermlineRepertoire>();
+
+    private GermlineRepertoire(GermlineActivationModel model, AntigenPool antigenPool, Receptor[] receptors) {
+        this.antigenPool = antigenPool;
+        this.affinityThreshold = model.getAffinityThreshold();
+        this.directSampling = model.isDirectSampling();
+        this.receptors = receptors;
+    }
+
+    /**
+     * Name of the system property which defines the number of
+     * activated receptors in the repertoire.
+     */
+    public static final String SIZE_PROPERTY = "amat.GermlineRepertoire.size";
+
+    /**
+     * Name of the system property which defines the number of worker
+     * threads used to generate candidate receptors.
+     */
+    public static final String THREAD_COUNT_PROPERTY = "amat.GermlineRepertoire.threadCount";
+
+    /**
+     * Name of the system property which defines the file used to
+     * persist the repertoire.
+     */
+    public static final String FILE_PROPERTY = "amat.GermlineRepertoire.file";
+
+    // Name of the system property which defines the global random
+    // seed (read by the jam library)...
+    private static final String SEED_PROPERTY = "jam.math.JamRandom.seed";
+
+    // Seed value recorded when the global seed is not defined...
+    private static final String UNSEEDED = "unseeded";
+
+    // Number of generation attempts in each block with its own
+    // random stream...
+    private static final int BLOCK_SIZE = 256;
+
+    // Prefix for the line identifying the repertoire parameters...
+    private static final String KEY_PREFIX = "KEY:";
+
+    // Comment text delimiter...
+    private static final Pattern COMMENT_PATTERN = Pattern.compile("#");
+
+    /**
+     * Identifies whether activated germline cells should be drawn
+     * from a precomputed repertoire.
+     *
+     * @return {@code true} iff the repertoire size is defined by the
+     * system properties.
+     */
+    public static boolean isEnabled() {
+        return JamProperties.isSet(SIZE_PROPERTY);
+    }
+
+    /**
+     * Returns the global repertoire for an activation model and
+     * antigen pool, generating (or loading) the repertoire on the
+     * first call for that pool, activation threshold, and sampling
+     * method.
+     *
+     * @param model the germline activation model.
+     *
+     * @param antigenPool the antigen pool present on the germline
+     * activation cycle.
+     *
+     * @return the global repertoire for the specified model and
+     * antigen pool.
+     *
+     * @throws RuntimeException unless the repertoire properties are
+     * properly defined and the repertoire can be generated.
+     */
+    public static synchronized GermlineRepertoire global(GermlineActivationModel model, AntigenPool antigenPool) {
+        //
+        // The shared antigen timeline returns the same (frozen) pool
+        // instance to every trial...
+        //
+        for (GermlineRepertoire repertoire : global)
+            if (repertoire.antigenPool == antigenPool && repertoire.matches(model))
+                return repertoire;
+
+        GermlineRepertoire repertoire = create(model, antigenPool);
+
+        global.removeIf(other -> other.matches(model));
+        global.add(repertoire);
+
+        return repertoire;
+    }
+
+    /**
+     * Identifies activation models that are compatible with this
+     * repertoire.
+     *
+     * @param model the germline activation model.
+     *
+     * @return {@code true} iff the model has the same activation
+     * threshold and sampling method used to generate this repertoire.
+     */
+    public boolean matches(GermlineActivationModel model) {
+        return Double.compare(model.getAffinityThreshold(), affinityThreshold) == 0
+            && model.isDirectSampling() == directSampling;
+    }
+
+    private static GermlineRepertoire create(GermlineActivationModel model, AntigenPool antigenPool) {
+        int size = resolveSize(model);
+        String seed = resolveSeed();
+        String key = formatKey(model, antigenPool, size, seed);
+
+        Receptor[] receptors = null;
+        File file = resolveFile();
+
+        if (file != null && file.exists())
+            receptors = load(file, key, size);
+
+        if (receptors == null) {
+            receptors = generate(model, antigenPool, size, seed);
+
+            if (file != null)
+                store(file, key, receptors);
+        }
+
+        return new GermlineRepertoire(model, antigenPool, receptors);
+    }
+
+    private static int resolveSize(GermlineActivationModel model) {
+        int size = JamProperties.getRequiredInt(SIZE_PROPERTY, IntRange.POSITIVE);
+
+        if (size < model.getGermlineCount())
+            throw new IllegalArgumentException("The germline repertoire must be at least as large as the germline count.");
+
+        return size;
+    }
+
+    private static int resolveThreadCount() {
+        return JamProperties.getOptionalInt(THREAD_COUNT_PROPERTY, IntRange.POSITIVE, Runtime.getRuntime().availableProcessors());
+    }
+
+    private static String resolveSeed() {
+        if (JamProperties.isSet(SEED_PROPERTY))
+            return JamProperties.getRequired(SEED_PROPERTY).trim();
+        else
+            return UNSEEDED;
+    }
+
+    private static File resolveFile() {
+        if (JamProperties.isSet(FILE_PROPERTY))
+            return new File(JamProperties.getRequired(FILE_PROPERTY));
+        else
+            return null;
+    }
+
+    private static String formatKey(GermlineActivationModel model, AntigenPool antigenPool, int size, String seed) {
+        String epitopeFile = "";
+
+        if (JamProperties.isSet(Epitope.CONFIG_FILE_PROPERTY))
+            epitopeFile = JamProperties.getRequired(Epitope.CONFIG_FILE_PROPERTY);
+
+        Set<String> epitopeKeys = new TreeSet<String>(Epitope.getKeys(antigenPool.viewEpitopes()));
+
+        return String.format("%s %s %s %s %d %s", epitopeFile, epitopeKeys,
+                             Double.toString(model.getAffinityThreshold()),
+                             model.isDirectSampling(), size, seed);
+    }
+
+    private static Receptor[] generate(GermlineActivationModel model, AntigenPool antigenPool, int size, String seed) {
+        JamLogger.info("Generating %d activated germline receptors...", size);
+
+        //
+        // The direct sampler is not available for all affinity models,
+        // in which case random receptors are generated and rejected...
+        //
+        Set<Epitope> epitopes = antigenPool.viewEpitopes();
+        GermlineSampler sampler =
+            model.isDirectSampling() ? GermlineSampler.create(epitopes, model.getAffinityThreshold()) : null;
+
+        //
+        // Resolve the lazily created global models on this thread
+        // before the workers start...
+        //
+        AffinityModel.global();
+        ReceptorGenerator generator = ReceptorGenerator.global();
+
+        //
+        // Each fixed block of attempts draws from its own stream,
+        // split in block order from a root stream derived from the
+        // configured seed; the accepted receptors are collected in
+        // block order, so the repertoire depends only on the seed
+        // and not on the number of threads...
+        //
+        SplittableRandom root = createRootStream(seed);
+
+        long blockIndex = 0;
+        long blockLimit = (10000L * size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        int threadCount = resolveThreadCount();
+        List<Receptor> receptors = new ArrayList<Receptor>(size);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        try {
+            while (receptors.size() < size && blockIndex < blockLimit) {
+                int batchCount = (int) Math.min(threadCount, blockLimit - blockIndex);
+                List<Future<List<Receptor>>> futures = new ArrayList<Future<List<Receptor>>>(batchCount);
+
+                for (int batchIndex = 0; batchIndex < batchCount; ++batchIndex) {
+                    SplittableRandom random = root.split();
+                    futures.add(executor.submit(() -> generateBlock(model, epitopes, generator, sampler, random)));
+                }
+
+                for (Future<List<Receptor>> future : futures)
+                    receptors.addAll(future.get());
+
+                blockIndex += batchCount;
+            }
+        }
+        catch (Exception ex) {
+            throw new IllegalStateException("Failed to generate germline cells.", ex);
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        if (receptors.size() < size)
+            throw new IllegalStateException("Failed to generate germline cells.");
+
+        return receptors.subList(0, size).toArray(new Receptor[size]);
+    }
+
+    private static SplittableRandom createRootStream(String seed) {
+        if (seed.equals(UNSEEDED))
+            return new SplittableRandom();
+        else
+            return new SplittableRandom(Long.parseLong(seed));
+    }
+
+    private static List<Receptor> generateBlock(GermlineActivationModel model,
+                                                Collection<Epitope> epitopes,
+                                                ReceptorGenerator generator,
+                                                GermlineSampler sampler,
+                                                SplittableRandom random) {
+        List<Receptor> receptors = new ArrayList<Receptor>();
+
+        for (int attemptIndex = 0; attemptIndex < BLOCK_SIZE; ++attemptIndex) {
+            Receptor receptor;
+
+            if (sampler != null) {
+                receptor = sampler.sample(random);
+            }
+            else {
+                receptor = generator.generate(random);
+
+                if (!model.isActivated(receptor, epitopes))
+                    receptor = null;
+            }
+
+            if (receptor != null)
+                receptors.add(receptor);
+        }
+
+        return receptors;
+    }
+
+    private static Receptor[] load(File file, String key, int size) {
+        Loader loader = new Loader(file, key);
+        loader.processFile();
+
+        if (!loader.matched || loader.receptors.size() != size) {
+            JamLogger.info("Germline repertoire file [%s] does not match; regenerating...", file);
+            return null;
+        }
+
+        JamLogger.info("Loaded %d activated germline receptors from [%s].", size, file);
+        return loader.receptors.toArray(new Receptor[size]);
+    }
+
+    private static final class Loader extends FileParser {
+        private final String key;
+        private final List<Receptor> receptors = new ArrayList<Receptor>();
+
+        private boolean matched = false;
+
+        private Loader(File file, String key) {
+            super(file, COMMENT_PATTERN);
+            this.key = key;
+        }
+
+        @Override protected void processLine(String dataLine) {
+            if (dataLine.startsWith(KEY_PREFIX))
+                matched = dataLine.substring(KEY_PREFIX.length()).trim().equals(key);
+            else if (matched)
+                receptors.add(Receptor.create(Structure.parse(dataLine)));
+        }
+    }
+
+    private static void store(File file, String key, Receptor[] receptors) {
+        PrintWriter writer = IOUtil.openWriter(file, false);
+
+        writer.println("# Activated germline receptor repertoire");
+        writer.println(KEY_PREFIX + " " + key);
+
+        for (Receptor receptor : receptors)
+            writer.println(receptor.getStructure().format());
+
+        IOUtil.close(writer);
+    }
+
+    /**
+     * Draws the activated germline cells for one trial from this
+     * repertoire, without replacement.
+     *
+     * @param model the germline activation model.
+     *
+     * @param random the random number source.
+     *
+     * @return a set containing {@code model.getGermlineCount()} new
+     * germline cells whose receptors are drawn from distinct positions
+     * in this repertoire (the receptors themselves may coincide if the
+     * repertoire contains duplicates).
+     *
+     * @throws IllegalArgumentException unless the model matches this
+     * repertoire and its germline count does not exceed the size of
+     * this repertoire.
+     */
+    public Set<BCell> draw(GermlineActivationModel model, JamRandom random) {
+        if (!matches(model))
+            throw new IllegalArgumentException("The activation model does not match the germline repertoire.");
+
+        return draw(model.getGermlineCount(), random);
+    }
+
+    /**
+     * Draws activated germline cells from this repertoire, without
+     * replacement.
+     *
+     * @param count the number of germline cells to draw.
+     *
+     * @param random the random number source.
+     *
+     * @return a set containing new germline cells whose receptors are
+     * drawn from distinct positions in this repertoire (the receptors
+     * themselves may coincide if the repertoire contains duplicates).
+     *
+     * @throws IllegalArgumentException if the count exceeds the size
+     * of this repertoire.
+     */
+    public Set<BCell> draw(int count, JamRandom random) {
+        if (count > receptors.length)
+            throw new IllegalArgumentException("Germline count exceeds the repertoire size.");
+
+        //
+        // Floyd's algorithm selects a uniform random subset of the
+        // repertoire indexes in time proportional to the count...
+        //
+        Set<Integer> selected = new HashSet<Integer>();
+        Set<BCell> germlines = new HashSet<BCell>();
+
+        for (int upper = receptors.length - count; upper < receptors.length; ++upper) {
+            int index = random.nextInt(upper + 1);
+
+            if (!selected.add(index)) {
+                selected.add(upper);
+                index = upper;
+            }
+
+            germlines.add(BCell.germline(receptors[index]));
+        }
+
+        return germlines;
+    }
+
+    /**
+     * Returns the number of activated receptors in this repertoire.
+     *
+     * @return the number of activated receptors in this repertoire.
+     */
+    public int size() {
+        return receptors.length;
+    }
+}
@@ -0,0 +1,193 @@
+
+package amat.germline;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import amat.antigen.AliasTable;
+import amat.binding.AffinityModel;
+import amat.binding.HammingAffinity;
+import amat.epitope.Epitope;
+import amat.receptor.Receptor;
+import amat.receptor.ReceptorGenerator;
+import amat.structure.DiscreteStructure;
+
+/**
+ * Samples activated germline receptors directly for Hamming affinity
+ * models, without generating and rejecting random receptors.
+ *
+ * <p>A receptor is activated by an epitope if their Hamming distance
+ * does not exceed a maximum distance derived from the activation
+ * threshold.  Each activated receptor is generated by selecting a
+ * target epitope uniformly at random, drawing the Hamming distance
+ * {@code d} with probability proportional to the number of receptors
+ * at that distance, {@code C(L, d) (q - 1)^d}, and then changing
+ * {@code d} randomly chosen elements of the target.  The receptor is
+ * then accepted with probability {@code 1 / m}, where {@code m} is
+ * the number of epitopes that activate it, which corrects for the
+ * overlap of the activation regions of different epitopes.  Accepted
+ * receptors are uniformly distributed over all receptors activated by
+ * at least one epitope, exactly as with rejection sampling.
+ */
+final class GermlineSampler {
+    private final int maxDistance;
+    private final AliasTable distanceTable;
+    private final ReceptorGenerator generator;
+    private final List<DiscreteStructure> targets;
+
+    // Per-thread working array holding a permutation of the element
+    // indexes...
+    private final ThreadLocal<int[]> indexBuffer;
+
+    private GermlineSampler(int length,
+                            int maxDistance,
+                            AliasTable distanceTable,
+                            ReceptorGenerator generator,
+                            List<DiscreteStructure> targets) {
+        this.maxDistance = maxDistance;
+        this.distanceTable = distanceTable;
+        this.generator = generator;
+        this.targets = targets;
+        this.indexBuffer = ThreadLocal.withInitial(() -> identity(length));
+    }
+
+    private static int[] identity(int length) {
+        int[] indexes = new int[length];
+
+        for (int index = 0; index < length; ++index)
+            indexes[index] = index;
+
+        return indexes;
+    }
+
+    /**
+     * Creates a direct sampler for the global affinity model and
+     * receptor generator.
+     *
+     * @param epitopes the epitopes available for activation.
+     *
+     * @param affinityThreshold the minimum affinity required for
+     * activation.
+     *
+     * @return a direct sampler, or {@code null} if direct sampling is
+     * not possible: the global affinity model is not a Hamming model,
+     * the epitopes are not all valid variant targets for the global
+     * receptor generator, or no receptor can be activated.
+     */
+    static GermlineSampler create(Collection<Epitope> epitopes, double affinityThreshold) {
+        AffinityModel model = AffinityModel.global();
+        ReceptorGenerator generator = ReceptorGenerator.global();
+
+        if (epitopes.isEmpty() || !(model instanceof HammingAffinity))
+            return null;
+
+        List<DiscreteStructure> targets = new ArrayList<DiscreteStructure>(epitopes.size());
+
+        for (Epitope epitope : epitopes) {
+            if (!generator.isVariantTarget(epitope.getStructure()))
+                return null;
+
+            targets.add((DiscreteStructure) epitope.getStructure());
+        }
+
+        int length = targets.get(0).length();
+        int cardinality = targets.get(0).cardinality();
+        int maxDistance = resolveMaxDistance((HammingAffinity) model, affinityThreshold, length);
+
+        if (maxDistance < 0)
+            return null;
+
+        return new GermlineSampler(length,
+                                   maxDistance,
+                                   createDistanceTable(length, cardinality, maxDistance),
+                                   generator,
+                                   targets);
+    }
+
+    private static int resolveMaxDistance(HammingAffinity model, double affinityThreshold, int length) {
+        //
+        // Apply exactly the same test as the rejection sampler, so
+        // that round-off cannot change the activation region...
+        //
+        int maxDistance = -1;
+
+        for (int distance = 0; distance <= length; ++distance)
+            if (model.computeAffinity(model.computeFreeEnergy(distance)) >= affinityThreshold)
+                maxDistance = distance;
+
+        return maxDistance;
+    }
+
+    private static AliasTable createDistanceTable(int length, int cardinality, int maxDistance) {
+        //
+        // The number of structures at distance d from the target is
+        // C(L, d) (q - 1)^d; work with logarithms to avoid overflow...
+        //
+        double[] logCount = new double[maxDistance + 1];
+        double logChoose = 0.0;
+        double logOthers = Math.log(cardinality - 1);
+
+        for (int distance = 0; distance <= maxDistance; ++distance) {
+            logCount[distance] = logChoose + distance * logOthers;
+            logChoose += Math.log(length - distance) - Math.log(distance + 1);
+        }
+
+        double logMax = Double.NEGATIVE_INFINITY;
+
+        for (double value : logCount)
+            logMax = Math.max(logMax, value);
+
+        double[] weights = new double[maxDistance + 1];
+
+        for (int distance = 0; distance <= maxDistance; ++distance)
+            weights[distance] = Math.exp(logCount[distance] - logMax);
+
+        return AliasTable.create(weights, weights.length);
+    }
+
+    /**
+     * Attempts to generate one activated germline receptor.  This
+     * method may be called concurrently with independent random
+     * sources.
+     *
+     * @param random the random number source.
+     *
+     * @return an activated receptor, or {@code null} if the candidate
+     * was rejected by the overlap correction.
+     */
+    Receptor sample(SplittableRandom random) {
+        int[] indexes = indexBuffer.get();
+        DiscreteStructure target = targets.get(random.nextInt(targets.size()));
+        int distance = distanceTable.select(random);
+
+        // Partial Fisher-Yates shuffle: the leading elements of the
+        // index array become a uniform random subset...
+        for (int k = 0; k < distance; ++k) {
+            int swap = random.nextInt(k, indexes.length);
+            int temp = indexes[k];
+
+            indexes[k] = indexes[swap];
+            indexes[swap] = temp;
+        }
+
+        Receptor receptor = generator.generateVariant(target, indexes, distance, random);
+
+        if (random.nextInt(countActivating(receptor)) == 0)
+            return receptor;
+        else
+            return null;
+    }
+
+    private int countActivating(Receptor receptor) {
+        DiscreteStructure structure = (DiscreteStructure) receptor.getStructure();
+        int count = 0;
+
+        for (DiscreteStructure target : targets)
+            if (target.hammingDistance(structure) <= maxDistance)
+                ++count;
+
+        return count;
+    }
+}
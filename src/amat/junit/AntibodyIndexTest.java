@@ -0,0 +1,98 @@
+
+package amat.junit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import amat.bcell.BCell;
+import amat.plasma.AntibodyIndex;
+import amat.receptor.Receptor;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class AntibodyIndexTest extends BCellSelectionTestBase {
+    private static List<BCell> clones(BCell parent, int count) {
+        List<BCell> cells = new ArrayList<BCell>();
+
+        for (int index = 0; index < count; ++index)
+            cells.add(BCell.germline(parent.getReceptor()));
+
+        return cells;
+    }
+
+    @Test public void testCounts() {
+        BCell cellA = BCell.germline();
+        BCell cellB = BCell.germline();
+        BCell cellC = BCell.germline();
+
+        Receptor recA = cellA.getReceptor();
+        Receptor recB = cellB.getReceptor();
+        Receptor recC = cellC.getReceptor();
+
+        List<BCell> trial0 = new ArrayList<BCell>();
+        trial0.addAll(clones(cellA, 3));
+        trial0.addAll(clones(cellB, 2));
+
+        List<BCell> trial2 = new ArrayList<BCell>();
+        trial2.addAll(clones(cellB, 1));
+        trial2.addAll(clones(cellC, 4));
+
+        AntibodyIndex index = new AntibodyIndex();
+        index.addAll(0, trial0);
+        index.addAll(2, trial2);
+
+        assertEquals(10, index.countPlasmaCells());
+        assertEquals( 3, index.countReceptors());
+
+        assertEquals(5, index.countPlasmaCells(0));
+        assertEquals(0, index.countPlasmaCells(1));
+        assertEquals(5, index.countPlasmaCells(2));
+        assertEquals(0, index.countPlasmaCells(3));
+
+        assertEquals(2, index.countReceptors(0));
+        assertEquals(0, index.countReceptors(1));
+        assertEquals(2, index.countReceptors(2));
+
+        assertEquals(3, index.countPlasmaCells(recA));
+        assertEquals(3, index.countPlasmaCells(recB));
+        assertEquals(4, index.countPlasmaCells(recC));
+
+        assertEquals(trial0, index.viewPlasmaCells(0));
+        assertEquals(trial2, index.viewPlasmaCells(2));
+        assertEquals(10, index.viewPlasmaCells().size());
+
+        assertEquals(Arrays.asList(trial0.get(3), trial0.get(4), trial2.get(0)), index.getPlasmaCells(recB));
+        assertEquals(Arrays.asList(recB, recC), new ArrayList<Receptor>(index.viewReceptors(2)));
+        assertTrue(index.viewReceptors(2).contains(recC));
+        assertFalse(index.viewReceptors(2).contains(recA));
+        assertFalse(index.viewReceptors(0).contains(recC));
+        assertTrue(index.viewReceptors(1).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfOrder() {
+        AntibodyIndex index = new AntibodyIndex();
+        index.add(1, BCell.germline());
+        index.add(0, BCell.germline());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        AntibodyIndex index = new AntibodyIndex();
+        index.add(0, BCell.germline());
+        index.viewPlasmaCells().clear();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReceptorsReadOnly() {
+        AntibodyIndex index = new AntibodyIndex();
+        index.add(0, BCell.germline());
+        index.viewReceptors(0).clear();
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.AntibodyIndexTest");
+    }
+}
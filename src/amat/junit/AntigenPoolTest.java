@@ -113,6 +113,30 @@ public class AntigenPoolTest {
         assertConc(3.0, pool.getTotalConc());
     }
 
+    @Test public void testDecayUnderflow() {
+        AntigenPool pool = new AntigenPool();
+
+        pool.add(ag1, Double.MIN_VALUE);
+        pool.add(ag2, 2.0);
+        pool.add(ag3, Double.MIN_VALUE);
+
+        pool.decay(HalfLife.valueOf(1.0));
+
+        assertEquals(1, pool.size());
+        assertFalse(pool.contains(ag1));
+        assertFalse(pool.contains(ag3));
+        assertConc(1.0, pool.getTotalConc());
+
+        for (int trial = 0; trial < 100; ++trial)
+            assertEquals(ag2, pool.select());
+
+        pool.remove(ag2);
+        pool.add(ag4, Double.MIN_VALUE);
+        pool.decay(HalfLife.valueOf(1.0));
+
+        assertTrue(pool.isEmpty());
+    }
+
     @Test public void testDecayOne() {
         AntigenPool pool = new AntigenPool();
 
@@ -181,6 +205,28 @@ public class AntigenPoolTest {
         assertEquals(expected3, DoubleUtil.ratio(agCount.get(ag3), sampleCount), tolerance);
     }
 
+    @Test public void testSelectAfterChange() {
+        AntigenPool pool = new AntigenPool();
+
+        pool.add(ag1, 1.0);
+        pool.add(ag2, 2.0);
+        pool.add(ag3, 3.0);
+        validateSelection(pool, 0.167, 0.333, 0.500);
+
+        // Uniform decay must leave the selection probabilities
+        // unchanged...
+        pool.decay(HalfLife.valueOf(1.0));
+        validateSelection(pool, 0.167, 0.333, 0.500);
+
+        // Removal moves the last antigen into the vacated slot...
+        pool.remove(ag1);
+        validateSelection(pool, 0.0, 0.400, 0.600);
+
+        assertEquals(2, pool.viewAntigens().size());
+        assertTrue(pool.viewAntigens().contains(ag3));
+        assertFalse(pool.viewAntigens().contains(ag1));
+    }
+
     @Test(expected = RuntimeException.class)
     public void testSelectEmpty() {
         new AntigenPool().select(JamRandom.global());
@@ -0,0 +1,66 @@
+
+package amat.junit;
+
+import jam.chem.HalfLife;
+import jam.junit.NumericTestBase;
+
+import amat.antigen.Antigen;
+import amat.antigen.AntigenPool;
+import amat.epitope.Epitope;
+import amat.germinal.AntigenTimeline;
+import amat.vaccine.VaccinationSchedule;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class AntigenTimelineTest extends NumericTestBase {
+    static {
+        System.setProperty(Epitope.CONFIG_FILE_PROPERTY, "test/epitope_sample.conf");
+        System.setProperty(Antigen.CONFIG_FILE_PROPERTY, "test/antigen_sample.conf");
+        System.setProperty(VaccinationSchedule.CONFIG_FILE_PROPERTY, "test/schedule_sample.conf");
+    }
+
+    private final VaccinationSchedule schedule = VaccinationSchedule.global();
+    private final AntigenTimeline timeline = AntigenTimeline.create(schedule, HalfLife.valueOf(1.0), 40);
+
+    @Test public void testTimeline() {
+        Antigen ag1 = Antigen.require("AG1");
+        Antigen ag2 = Antigen.require("AG2");
+        Antigen ag3 = Antigen.require("AG3");
+
+        assertEquals(40, timeline.getCycleLimit());
+
+        // No decay on the germline activation cycle...
+        assertDouble(1.0, timeline.getBindingPool(0).getConcValue(ag1));
+        assertDouble(1.0, timeline.getDecayedPool(0).getConcValue(ag1));
+
+        assertDouble(1.0, timeline.getBindingPool(1).getConcValue(ag1));
+        assertDouble(0.5, timeline.getDecayedPool(1).getConcValue(ag1));
+        assertDouble(0.5, timeline.getBindingPool(2).getConcValue(ag1));
+
+        // The second vaccine is added before decay on its cycle...
+        AntigenPool pool10 = timeline.getBindingPool(10);
+
+        assertDouble(Math.pow(0.5, 9.0), pool10.getConcValue(ag1));
+        assertDouble(2.0, pool10.getConcValue(ag2));
+        assertDouble(0.0, pool10.getConcValue(ag3));
+        assertDouble(2.0 + Math.pow(0.5, 9.0), pool10.getTotalValue());
+        assertDouble(1.0, timeline.getDecayedPool(10).getConcValue(ag2));
+    }
+
+    @Test public void testFrozen() {
+        for (int cycle = 0; cycle <= timeline.getCycleLimit(); ++cycle) {
+            assertTrue(timeline.getBindingPool(cycle).isFrozen());
+            assertTrue(timeline.getDecayedPool(cycle).isFrozen());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testImmutable() {
+        timeline.getBindingPool(0).decay(HalfLife.valueOf(1.0));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.AntigenTimelineTest");
+    }
+}
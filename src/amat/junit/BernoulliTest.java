@@ -0,0 +1,46 @@
+
+package amat.junit;
+
+import java.util.SplittableRandom;
+
+import amat.bcell.Bernoulli;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class BernoulliTest {
+    @Test public void testAccept() {
+        assertFalse(Bernoulli.accept(0.0, 0.0));
+        assertTrue(Bernoulli.accept(1.0, 0.999999));
+        assertTrue(Bernoulli.accept(0.3, 0.29));
+        assertFalse(Bernoulli.accept(0.3, 0.3));
+    }
+
+    @Test public void testFrequency() {
+        int trials = 100000;
+        int accepted = 0;
+
+        double[] uniforms = new double[trials];
+        Bernoulli.fill(new SplittableRandom(20170521L), uniforms, 0, trials);
+
+        for (double uniform : uniforms)
+            if (Bernoulli.accept(0.25, uniform))
+                ++accepted;
+
+        assertEquals(0.25, accepted / (double) trials, 0.01);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() {
+        Bernoulli.accept(1.5, 0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNaN() {
+        Bernoulli.validate(Double.NaN);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.BernoulliTest");
+    }
+}
@@ -0,0 +1,171 @@
+
+package amat.junit;
+
+import java.util.Arrays;
+import java.util.List;
+
+import amat.antigen.Antigen;
+import amat.antigen.AntigenPool;
+import amat.bcell.BCell;
+import amat.bcell.BindingEvent;
+import amat.bcell.BindingRetention;
+import amat.epitope.Epitope;
+import amat.receptor.Receptor;
+import amat.structure.Structure;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class BindingRetentionTest extends BCellSelectionTestBase {
+    static {
+        //
+        // Sample every other cell, so that the SAMPLED lineages mix
+        // full and aggregate histories...
+        //
+        System.setProperty(BindingRetention.SAMPLE_INTERVAL_PROPERTY, "2");
+    }
+
+    private static final Epitope epitope2 =
+        Epitope.add("BR2", Structure.parse("SpinStructure(---- ++++ ---- ++--)"));
+
+    private static final Epitope epitope3 =
+        Epitope.add("BR3", Structure.parse("SpinStructure(++++ ---- ++++ ----)"));
+
+    private static final Antigen antigen1 = Antigen.add("BRA1", epitope, epitope2);
+    private static final Antigen antigen2 = Antigen.add("BRA2", epitope3);
+
+    private static final AntigenPool pool = createPool();
+
+    private static final Receptor receptor =
+        Receptor.create(Structure.parse("SpinStructure(---- ++++ ---+ ++++)"));
+
+    // Antigens encountered by the replicated cell (cycle 1) and its
+    // daughter (cycle 2)...
+    private static final List<Antigen> visits1 = Arrays.asList(antigen1, antigen1, antigen2);
+    private static final List<Antigen> visits2 = Arrays.asList(antigen1);
+
+    private static AntigenPool createPool() {
+        AntigenPool pool = new AntigenPool();
+
+        pool.add(antigen1, 1.0);
+        pool.add(antigen2, 2.0);
+
+        return pool;
+    }
+
+    @AfterClass public static void clearProperties() {
+        System.clearProperty(BindingRetention.SAMPLE_INTERVAL_PROPERTY);
+        BindingRetention.setGlobal(null);
+    }
+
+    // Returns the replicated cell and its daughter after binding...
+    private static BCell[] bindLineage(BindingRetention retention) {
+        BindingRetention.setGlobal(retention);
+
+        BCell founder = BCell.germline(receptor);
+        BCell cell1 = founder.replicate();
+        BCell cell2 = cell1.replicate();
+
+        cell1.bind(pool, visits1);
+        cell2.bind(pool, visits2);
+
+        return new BCell[] { cell1, cell2 };
+    }
+
+    @Test public void testSummaries() {
+        BCell[] full = bindLineage(BindingRetention.FULL);
+
+        assertEquals(5, full[0].countTotalEpitopesEncountered());
+        assertEquals(2, full[1].countTotalEpitopesEncountered());
+        assertEquals(2, full[1].countUniqueEpitopesRevisited());
+
+        for (BindingRetention retention : BindingRetention.values()) {
+            BCell[] cells = bindLineage(retention);
+
+            for (int index = 0; index < cells.length; ++index) {
+                BCell expected = full[index];
+                BCell actual = cells[index];
+
+                assertEquals(expected.countTotalEpitopesEncountered(), actual.countTotalEpitopesEncountered());
+                assertEquals(expected.countUniqueEpitopesEncountered(), actual.countUniqueEpitopesEncountered());
+                assertEquals(expected.countUniqueEpitopesRevisited(), actual.countUniqueEpitopesRevisited());
+
+                assertEquals(expected.getEpitopesEncountered(), actual.getEpitopesEncountered());
+                assertEquals(expected.getEpitopeFootprint(), actual.getEpitopeFootprint());
+                assertEquals(expected.getAntigenFootprint(), actual.getAntigenFootprint());
+
+                assertEquals(expected.getAntigenQty(), actual.getAntigenQty(), 0.0);
+                assertEquals(expected.getMaxAffinity(), actual.getMaxAffinity(), 0.0);
+            }
+        }
+    }
+
+    @Test public void testCompactEvents() {
+        BCell[] full = bindLineage(BindingRetention.FULL);
+        BCell[] compact = bindLineage(BindingRetention.COMPACT);
+
+        for (int index = 0; index < full.length; ++index)
+            assertEvents(full[index].viewBindingEvents(), compact[index].viewBindingEvents(), true);
+    }
+
+    @Test public void testSampledEvents() {
+        BCell[] full = bindLineage(BindingRetention.FULL);
+        BCell[] sampled = bindLineage(BindingRetention.SAMPLED);
+
+        for (int index = 0; index < full.length; ++index) {
+            if (sampled[index].getIndex() % 2 == 0) {
+                assertEvents(full[index].viewBindingEvents(), sampled[index].viewBindingEvents(), false);
+            }
+            else {
+                try {
+                    sampled[index].viewBindingEvents();
+                    fail("Binding events were not discarded.");
+                }
+                catch (IllegalStateException ex) {
+                    // Expected...
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAggregateEvents() {
+        bindLineage(BindingRetention.AGGREGATE)[0].viewBindingEvents();
+    }
+
+    private static void assertEvents(List<BindingEvent> expected, List<BindingEvent> actual, boolean compact) {
+        assertEquals(expected.size(), actual.size());
+
+        for (int index = 0; index < expected.size(); ++index) {
+            BindingEvent expectedEvent = expected.get(index);
+            BindingEvent actualEvent = actual.get(index);
+
+            assertSame(expectedEvent.getAntigen(), actualEvent.getAntigen());
+            assertSame(expectedEvent.getEpitope(), actualEvent.getEpitope());
+
+            if (compact) {
+                assertEquals((float) expectedEvent.getAffinity(), actualEvent.getAffinity(), 0.0);
+                assertEquals((float) expectedEvent.getQuantity(), actualEvent.getQuantity(), 0.0);
+            }
+            else {
+                assertEquals(expectedEvent.getAffinity(), actualEvent.getAffinity(), 0.0);
+                assertEquals(expectedEvent.getQuantity(), actualEvent.getQuantity(), 0.0);
+            }
+        }
+    }
+
+    @Test public void testEpitopeLookup() {
+        assertSame(epitope2, Epitope.lookup(epitope2.getIndex()));
+        assertSame(epitope3, Epitope.lookup(epitope3.getIndex()));
+        assertTrue(epitope2.getIndex() != epitope3.getIndex());
+    }
+
+    @Test public void testAntigenLookup() {
+        assertSame(antigen1, Antigen.lookup(antigen1.getIndex()));
+        assertSame(antigen2, Antigen.lookup(antigen2.getIndex()));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.BindingRetentionTest");
+    }
+}
@@ -11,6 +11,7 @@ import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
 import amat.epitope.Epitope;
 import amat.visit.ClusterVisitation;
+import amat.visit.VisitationBatch;
 
 import org.junit.*;
 import static org.junit.Assert.*;
@@ -137,6 +138,105 @@ public class ClusterVisitationTest extends NumericTestBase {
         assertEquals(pdf5, m5.getStationaryPDF());
     }
 
+    @Test public void testNonUniform() {
+        AntigenPool pool = new AntigenPool();
+
+        pool.add(ag1, 1.0);
+        pool.add(ag2, 2.0);
+        pool.add(ag3, 3.0);
+
+        JamMatrix transition =
+            ClusterVisitation.createStochasticMatrix(pool, Probability.valueOf(0.5)).getTransitionProbability();
+
+        assertDouble(0.5,   transition.get(0, 0));
+        assertDouble(0.2,   transition.get(0, 1));
+        assertDouble(0.3,   transition.get(0, 2));
+        assertDouble(0.125, transition.get(1, 0));
+        assertDouble(0.5,   transition.get(1, 1));
+        assertDouble(0.375, transition.get(1, 2));
+        assertDouble(0.5 / 3.0, transition.get(2, 0));
+        assertDouble(1.0 / 3.0, transition.get(2, 1));
+        assertDouble(0.5,   transition.get(2, 2));
+    }
+
+    @Test public void testVisitAlternating() {
+        AntigenPool pool = new AntigenPool();
+
+        pool.add(ag1, 1.0E+06);
+        pool.add(ag2, 1.0E+06);
+
+        // With no revisits, the B cell must alternate between the
+        // two antigens...
+        ClusterVisitation model = new ClusterVisitation(10, Probability.valueOf(0.0));
+
+        for (int trial = 0; trial < 100; ++trial) {
+            int[] counts = new int[2];
+            model.visit(pool, counts);
+
+            assertTrue(counts[0] + counts[1] <= 10);
+            assertTrue(Math.abs(counts[0] - counts[1]) <= 1);
+        }
+    }
+
+    @Test public void testVisitSkewed() {
+        AntigenPool pool = new AntigenPool();
+
+        // One antigen holds all but about 1.0E-12 of the pool, which
+        // rejection sampling of the other antigens could not handle...
+        pool.add(ag1, 1.0E+06);
+        pool.add(ag2, 1.0E-06);
+        pool.add(ag3, 1.0E-06);
+        pool.add(ag4, 2.0E-06);
+
+        ClusterVisitation model = new ClusterVisitation(100, Probability.valueOf(0.0));
+
+        int[] total = new int[4];
+
+        for (int trial = 0; trial < 1000; ++trial) {
+            int[] counts = new int[4];
+            model.visit(pool, counts);
+
+            // With no revisits, the B cell must alternate between the
+            // dominant antigen and one of the others...
+            int others = counts[1] + counts[2] + counts[3];
+
+            assertTrue(counts[0] + others <= 100);
+            assertTrue(Math.abs(counts[0] - others) <= 1);
+
+            for (int index = 0; index < 4; ++index)
+                total[index] += counts[index];
+        }
+
+        // The other antigens are selected in proportion to their
+        // concentrations (1:1:2)...
+        double others = total[1] + total[2] + total[3];
+
+        assertEquals(0.25, total[1] / others, 0.02);
+        assertEquals(0.25, total[2] / others, 0.02);
+        assertEquals(0.50, total[3] / others, 0.02);
+    }
+
+    @Test public void testVisitAll() {
+        ClusterVisitation model = new ClusterVisitation(10, Probability.valueOf(0.5));
+        VisitationBatch batch = model.visitAll(1, pool5, 20);
+
+        assertEquals(20, batch.getCellCount());
+        assertSame(pool5, batch.getPool());
+
+        for (int cell = 0; cell < batch.getCellCount(); ++cell) {
+            int total = 0;
+
+            for (int entry = batch.getEntryStart(cell); entry < batch.getEntryEnd(cell); ++entry) {
+                assertTrue(batch.getPosition(entry) < pool5.size());
+                assertTrue(batch.getCount(entry) > 0);
+
+                total += batch.getCount(entry);
+            }
+
+            assertTrue(total <= 10);
+        }
+    }
+
     public static void main(String[] args) {
         org.junit.runner.JUnitCore.main("amat.junit.ClusterVisitationTest");
     }
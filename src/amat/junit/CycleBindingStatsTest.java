@@ -0,0 +1,153 @@
+
+package amat.junit;
+
+import amat.bcell.CycleBindingStats;
+import amat.bcell.IntHistogram;
+import amat.bcell.MomentAccumulator;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class CycleBindingStatsTest {
+    @Test public void testMoments() {
+        double[] values = new double[] { 1.0, 4.0, 2.0, 8.0, 5.0, 7.0 };
+
+        MomentAccumulator all = new MomentAccumulator();
+        MomentAccumulator head = new MomentAccumulator();
+        MomentAccumulator tail = new MomentAccumulator();
+
+        for (int index = 0; index < values.length; ++index) {
+            all.add(values[index]);
+
+            if (index < 2)
+                head.add(values[index]);
+            else
+                tail.add(values[index]);
+        }
+
+        // Mean 4.5; sum of squared deviations 37.5...
+        assertEquals(6, all.getCount());
+        assertEquals(4.5, all.getMean(), 1.0E-12);
+        assertEquals(7.5, all.getVariance(), 1.0E-12);
+        assertEquals(Math.sqrt(7.5 / 6.0), all.getError(), 1.0E-12);
+
+        head.merge(tail);
+
+        assertEquals(6, head.getCount());
+        assertEquals(all.getMean(), head.getMean(), 1.0E-12);
+        assertEquals(all.getVariance(), head.getVariance(), 1.0E-12);
+    }
+
+    @Test public void testRemove() {
+        //
+        // A large offset would cancel the variance computed from raw
+        // sums of squares...
+        //
+        double offset = 1.0E9;
+        double[] values = new double[] { 1.0, 4.0, 2.0, 8.0, 5.0, 7.0, 3.0 };
+
+        MomentAccumulator moments = new MomentAccumulator();
+
+        for (double value : values)
+            moments.add(offset + value);
+
+        moments.remove(offset + 3.0);
+
+        assertEquals(6, moments.getCount());
+        assertEquals(offset + 4.5, moments.getMean(), 1.0E-6);
+        assertEquals(7.5, moments.getVariance(), 1.0E-6);
+        assertEquals(6.25, moments.getPopulationVariance(), 1.0E-6);
+
+        for (int index = 0; index < 6; ++index)
+            moments.remove(offset + values[index]);
+
+        assertEquals(0, moments.getCount());
+        assertTrue(Double.isNaN(moments.getMean()));
+    }
+
+    @Test public void testEmpty() {
+        MomentAccumulator moments = new MomentAccumulator();
+        IntHistogram histogram = new IntHistogram();
+
+        assertEquals(0, moments.getCount());
+        assertTrue(Double.isNaN(moments.getMean()));
+        assertTrue(Double.isNaN(moments.getError()));
+
+        assertEquals(0, histogram.getCount());
+        assertTrue(Double.isNaN(histogram.getMean()));
+    }
+
+    @Test public void testHistogram() {
+        IntHistogram hist1 = new IntHistogram();
+        IntHistogram hist2 = new IntHistogram();
+
+        hist1.add(0);
+        hist1.add(2);
+        hist1.add(2);
+        hist2.add(20);
+
+        hist1.merge(hist2);
+
+        assertEquals(4, hist1.getCount());
+        assertEquals(1, hist1.getCount(0));
+        assertEquals(2, hist1.getCount(2));
+        assertEquals(1, hist1.getCount(20));
+        assertEquals(0, hist1.getCount(100));
+        assertEquals(6.0, hist1.getMean(), 1.0E-12);
+        assertEquals(88.0, hist1.getVariance(), 1.0E-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegative() {
+        new IntHistogram().add(-1);
+    }
+
+    @Test public void testMerge() {
+        CycleBindingStats stats1 = new CycleBindingStats();
+        CycleBindingStats stats2 = new CycleBindingStats();
+
+        stats1.addAffinity(1.0);
+        stats1.addQuantity(2.0);
+        stats1.addTotalVisits(3);
+
+        stats2.addAffinity(3.0);
+        stats2.addUniqueVisits(1);
+        stats2.addUniqueRevisits(0);
+
+        stats1.merge(stats2);
+
+        assertEquals(2, stats1.getAffinity().getCount());
+        assertEquals(2.0, stats1.getAffinity().getMean(), 1.0E-12);
+        assertEquals(1, stats1.getQuantity().getCount());
+        assertEquals(1, stats1.getTotalVisits().getCount());
+        assertEquals(1, stats1.getUniqueVisits().getCount());
+        assertEquals(1, stats1.getUniqueRevisits().getCount());
+
+        // The source is unchanged...
+        assertEquals(1, stats2.getAffinity().getCount());
+    }
+
+    @Test public void testFlush() {
+        //
+        // Use a cycle that no germinal center reaches, so that the
+        // global statistics start empty...
+        //
+        int gcCycle = 1000;
+
+        CycleBindingStats.local(gcCycle).addAffinity(1.0);
+        CycleBindingStats.local(gcCycle).addQuantity(2.0);
+
+        // Local statistics are not visible until flushed...
+        assertEquals(0, CycleBindingStats.snapshot(gcCycle).getAffinity().getCount());
+
+        CycleBindingStats.flush();
+
+        assertEquals(1, CycleBindingStats.snapshot(gcCycle).getAffinity().getCount());
+        assertEquals(1, CycleBindingStats.snapshot(gcCycle).getQuantity().getCount());
+        assertEquals(0, CycleBindingStats.local(gcCycle).getAffinity().getCount());
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.CycleBindingStatsTest");
+    }
+}
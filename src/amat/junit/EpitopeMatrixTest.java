@@ -0,0 +1,110 @@
+
+package amat.junit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jam.junit.NumericTestBase;
+
+import amat.binding.HammingAffinity;
+import amat.epitope.Epitope;
+import amat.epitope.EpitopeMatrix;
+import amat.epitope.MatrixKernel;
+import amat.receptor.Receptor;
+import amat.structure.BitStructure;
+import amat.structure.DiscreteStructure;
+import amat.structure.Structure;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class EpitopeMatrixTest extends NumericTestBase {
+    private static final Structure potts1 = Structure.parse("PottsStructure(4; AAAA AAAA)");
+    private static final Structure potts2 = Structure.parse("PottsStructure(4; AAAA ABCD)");
+    private static final Structure potts3 = Structure.parse("PottsStructure(4; ABCD ABCD)");
+
+    private static final Epitope epitope1 = Epitope.add("EpitopeMatrixTest.E1", potts1);
+    private static final Epitope epitope2 = Epitope.add("EpitopeMatrixTest.E2", potts2);
+    private static final Epitope epitope3 = Epitope.add("EpitopeMatrixTest.E3", potts3);
+
+    private static final List<Epitope> pottsEpitopes = Arrays.asList(epitope1, epitope2, epitope3);
+
+    private static int[] countMatching(List<Epitope> epitopes, Structure receptor) {
+        int[] counts = new int[epitopes.size()];
+
+        for (int j = 0; j < counts.length; j++)
+            for (int k = 0; k < receptor.length(); k++)
+                if (receptor.isMatch(epitopes.get(j).getStructure(), k))
+                    ++counts[j];
+
+        return counts;
+    }
+
+    @Test public void testBinary() {
+        List<Epitope> epitopes = new ArrayList<Epitope>();
+
+        for (int index = 0; index < 20; index++)
+            epitopes.add(Epitope.add("EpitopeMatrixTest.B" + index, BitStructure.generate(40, 60)));
+
+        EpitopeMatrix scalar   = EpitopeMatrix.create(epitopes, MatrixKernel.SCALAR);
+        EpitopeMatrix columnar = EpitopeMatrix.create(epitopes, MatrixKernel.COLUMNAR);
+
+        for (int trial = 0; trial < 100; trial++) {
+            DiscreteStructure receptor = BitStructure.generate(40, 60);
+            int[] expected = countMatching(epitopes, receptor);
+
+            assertArrayEquals(expected, scalar.countMatching(receptor));
+            assertArrayEquals(expected, columnar.countMatching(receptor));
+        }
+    }
+
+    @Test public void testHammingAffinity() {
+        HammingAffinity model = new HammingAffinity(2.0, 12.0);
+        EpitopeMatrix matrix = EpitopeMatrix.create(pottsEpitopes, MatrixKernel.COLUMNAR);
+
+        Receptor receptor = new Receptor(Structure.parse("PottsStructure(4; AAAA ABBB)"));
+        double[] affinity = model.computeAffinity(matrix, receptor);
+
+        for (int index = 0; index < pottsEpitopes.size(); index++)
+            assertDouble(model.computeAffinity(pottsEpitopes.get(index), receptor), affinity[index]);
+    }
+
+    @Test public void testIndexOf() {
+        EpitopeMatrix matrix = EpitopeMatrix.create(pottsEpitopes, MatrixKernel.SCALAR);
+
+        assertEquals(3, matrix.size());
+        assertEquals(8, matrix.getLength());
+        assertEquals(1, matrix.indexOf(epitope2));
+        assertEquals(-1, matrix.indexOf(Epitope.add("EpitopeMatrixTest.Missing", potts1)));
+        assertEquals(epitope3, matrix.get(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMixedLength() {
+        Epitope epitope = Epitope.add("EpitopeMatrixTest.Short", Structure.parse("PottsStructure(4; ABCD)"));
+        EpitopeMatrix.create(Arrays.asList(epitope1, epitope));
+    }
+
+    @Test public void testPotts() {
+        EpitopeMatrix scalar   = EpitopeMatrix.create(pottsEpitopes, MatrixKernel.SCALAR);
+        EpitopeMatrix columnar = EpitopeMatrix.create(pottsEpitopes, MatrixKernel.COLUMNAR);
+
+        DiscreteStructure receptor = (DiscreteStructure) Structure.parse("PottsStructure(4; AAAA ABBB)");
+        int[] expected = new int[] { 5, 6, 3 };
+
+        assertArrayEquals(expected, countMatching(pottsEpitopes, receptor));
+        assertArrayEquals(expected, scalar.countMatching(receptor));
+        assertArrayEquals(expected, columnar.countMatching(receptor));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReceptorLength() {
+        EpitopeMatrix matrix = EpitopeMatrix.create(pottsEpitopes, MatrixKernel.COLUMNAR);
+        matrix.countMatching((DiscreteStructure) Structure.parse("PottsStructure(4; ABCD)"));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.EpitopeMatrixTest");
+    }
+}
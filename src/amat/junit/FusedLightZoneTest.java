@@ -0,0 +1,116 @@
+
+package amat.junit;
+
+import java.util.Collections;
+import java.util.Set;
+
+import jam.app.JamProperties;
+
+import amat.antigen.Antigen;
+import amat.antigen.AntigenPool;
+import amat.bcell.ApoptosisModel;
+import amat.bcell.BCell;
+import amat.divide.DZDivisionModel;
+import amat.epitope.Epitope;
+import amat.germinal.GerminalCenter;
+import amat.germinal.GerminalCenterEvent;
+import amat.germinal.GerminalCenterProperties;
+import amat.germinal.PopulationRecord;
+import amat.signal.BCRSignalingModel;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class FusedLightZoneTest {
+    static {
+        JamProperties.loadFile("test/driver_sample.prop", true);
+        Epitope.load();
+        Antigen.load();
+
+        System.setProperty(DZDivisionModel.MODEL_TYPE_PROPERTY, "FIXED_COUNT");
+        System.setProperty(DZDivisionModel.FIXED_COUNT_PROPERTY, "2");
+        System.setProperty(GerminalCenterProperties.CYCLE_LIMIT_PROPERTY, "12");
+        System.setProperty(GerminalCenterProperties.FUSED_LIGHT_ZONE_PROPERTY, "true");
+    }
+
+    private static final int TRIAL_COUNT = 5;
+
+    @AfterClass public static void clearProperties() {
+        System.clearProperty(GerminalCenterProperties.FUSED_LIGHT_ZONE_PROPERTY);
+    }
+
+    @Test public void testAllowed() {
+        //
+        // The sample BCR signaling model is an affinity threshold,
+        // which decides the fate of each cell independently...
+        //
+        assertTrue(GerminalCenter.allowFusedLightZone(BCRSignalingModel.global()));
+    }
+
+    @Test public void testNotIndependent() {
+        //
+        // A signaling model that decides the fate of the population
+        // as a whole cannot follow binding cell by cell...
+        //
+        ApoptosisModel signalingModel = new ApoptosisModel() {
+                @Override public Set<BCell> apoptose(Set<BCell> cells, AntigenPool pool) {
+                    return Collections.emptySet();
+                }
+            };
+
+        assertFalse(GerminalCenter.allowFusedLightZone(signalingModel));
+    }
+
+    @Test public void testTrials() {
+        for (int trialIndex = 0; trialIndex < TRIAL_COUNT; ++trialIndex)
+            validate(GerminalCenter.run(trialIndex));
+    }
+
+    private static void validate(GerminalCenter gc) {
+        int memoryExits = 0;
+        int plasmaExits = 0;
+        int reentries = 0;
+
+        for (int cycle = GerminalCenter.REPLICATION_CYCLE; cycle < gc.countCycles(); ++cycle) {
+            PopulationRecord record = gc.getPopulation(cycle);
+
+            // Each stage may only remove cells from the light zone...
+            assertTrue(record.after(GerminalCenterEvent.BCR_SIGNALING) <= record.before(GerminalCenterEvent.BCR_SIGNALING));
+            assertTrue(record.after(GerminalCenterEvent.TCELL_COMPETITION) <= record.after(GerminalCenterEvent.BCR_SIGNALING));
+            assertTrue(record.after(GerminalCenterEvent.MEMORY_SELECTION) <= record.after(GerminalCenterEvent.TCELL_COMPETITION));
+            assertTrue(record.after(GerminalCenterEvent.PLASMA_SELECTION) <= record.after(GerminalCenterEvent.MEMORY_SELECTION));
+
+            assertEquals(record.after(GerminalCenterEvent.PLASMA_SELECTION), record.ending());
+            assertEquals(gc.viewActiveCells(cycle).size(), record.ending());
+
+            memoryExits += record.after(GerminalCenterEvent.TCELL_COMPETITION) - record.after(GerminalCenterEvent.MEMORY_SELECTION);
+            plasmaExits += record.after(GerminalCenterEvent.MEMORY_SELECTION) - record.after(GerminalCenterEvent.PLASMA_SELECTION);
+            reentries   += record.after(GerminalCenterEvent.MEMORY_REENTRY) - record.before(GerminalCenterEvent.MEMORY_REENTRY);
+
+            // Every survivor has been assigned its division count,
+            // which may not be assigned again...
+            for (BCell cell : gc.viewActiveCells(cycle)) {
+                try {
+                    cell.setDivisionCount(2);
+                    fail("Division count was not assigned.");
+                }
+                catch (IllegalStateException ex) {
+                    // Expected...
+                }
+            }
+        }
+
+        Set<BCell> memoryCells = gc.viewMemoryCells();
+        Set<BCell> plasmaCells = gc.viewPlasmaCells();
+
+        assertEquals(plasmaExits, plasmaCells.size());
+        assertEquals(memoryExits - reentries, memoryCells.size());
+
+        for (BCell cell : plasmaCells)
+            assertFalse(memoryCells.contains(cell));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.FusedLightZoneTest");
+    }
+}
@@ -34,6 +34,16 @@ public class GermlineActivationModelTest extends BCellSelectionTestBase {
         }
     }
 
+    @Test public void testRejectionSampling() {
+        GermlineActivationModel model = new GermlineActivationModel(4.0, 100, 15, false);
+        Set<BCell> germlines = model.activate(antigenPool);
+
+        assertEquals(100, germlines.size());
+
+        for (BCell germline : germlines)
+            assertTrue(computeMaxAffinity(germline) >= 3.9999);
+    }
+
     private double computeMaxAffinity(BCell germline) {
         double maxAffinity = Double.NEGATIVE_INFINITY;
 
@@ -0,0 +1,134 @@
+package amat.junit;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import jam.math.JamRandom;
+
+import amat.antigen.AntigenPool;
+import amat.bcell.BCell;
+import amat.binding.AffinityModel;
+import amat.epitope.Epitope;
+import amat.germline.GermlineActivationModel;
+import amat.germline.GermlineRepertoire;
+import amat.receptor.Receptor;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class GermlineRepertoireTest extends BCellSelectionTestBase {
+    static {
+        System.setProperty(GermlineRepertoire.SIZE_PROPERTY,         "500");
+        System.setProperty(GermlineRepertoire.THREAD_COUNT_PROPERTY, "4");
+    }
+
+    private static final GermlineActivationModel model = new GermlineActivationModel(4.0, 50, 1);
+
+    @AfterClass public static void clearProperties() {
+        //
+        // Other tests that share this JVM must not draw from the
+        // repertoire...
+        //
+        System.clearProperty(GermlineRepertoire.SIZE_PROPERTY);
+        System.clearProperty(GermlineRepertoire.THREAD_COUNT_PROPERTY);
+    }
+
+    @Test public void testRepertoire() {
+        GermlineRepertoire repertoire = GermlineRepertoire.global(model, antigenPool);
+
+        assertEquals(500, repertoire.size());
+        assertSame(repertoire, GermlineRepertoire.global(model, antigenPool));
+    }
+
+    @Test public void testDraw() {
+        GermlineRepertoire repertoire = GermlineRepertoire.global(model, antigenPool);
+
+        for (int trial = 0; trial < 10; ++trial) {
+            Set<BCell> germlines = repertoire.draw(50, JamRandom.global());
+
+            assertEquals(50, germlines.size());
+
+            for (BCell germline : germlines) {
+                assertTrue(germline.isFounder());
+                assertTrue(computeMaxAffinity(germline) >= 3.9999);
+            }
+        }
+    }
+
+    @Test public void testMismatchedModel() {
+        GermlineActivationModel lower = new GermlineActivationModel(3.0, 50, 1);
+        GermlineActivationModel rejection = new GermlineActivationModel(4.0, 50, 1, false);
+
+        GermlineRepertoire repertoire = GermlineRepertoire.global(model, antigenPool);
+
+        assertTrue(repertoire.matches(model));
+        assertFalse(repertoire.matches(lower));
+        assertFalse(repertoire.matches(rejection));
+
+        assertNotSame(repertoire, GermlineRepertoire.global(lower, antigenPool));
+        assertNotSame(repertoire, GermlineRepertoire.global(rejection, antigenPool));
+
+        // The repertoire for the original model is retained...
+        assertSame(repertoire, GermlineRepertoire.global(model, antigenPool));
+    }
+
+    @Test public void testThreadCount() {
+        //
+        // The repertoire depends on the global seed but not on the
+        // number of worker threads...
+        //
+        String seed = System.getProperty(SEED_PROPERTY);
+        System.setProperty(SEED_PROPERTY, "20170601");
+
+        try {
+            assertEquals(generateReceptors("1"), generateReceptors("3"));
+        }
+        finally {
+            System.setProperty(GermlineRepertoire.THREAD_COUNT_PROPERTY, "4");
+
+            if (seed != null)
+                System.setProperty(SEED_PROPERTY, seed);
+            else
+                System.clearProperty(SEED_PROPERTY);
+        }
+    }
+
+    private static final String SEED_PROPERTY = "jam.math.JamRandom.seed";
+
+    private static Set<Receptor> generateReceptors(String threadCount) {
+        System.setProperty(GermlineRepertoire.THREAD_COUNT_PROPERTY, threadCount);
+
+        // A new pool instance requires a new repertoire...
+        GermlineRepertoire repertoire = GermlineRepertoire.global(model, new AntigenPool(vaccine));
+        Set<Receptor> receptors = new HashSet<Receptor>();
+
+        for (BCell germline : repertoire.draw(repertoire.size(), JamRandom.global()))
+            receptors.add(germline.getReceptor());
+
+        return receptors;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDrawMismatched() {
+        GermlineActivationModel lower = new GermlineActivationModel(3.0, 50, 1);
+        GermlineRepertoire.global(model, antigenPool).draw(lower, JamRandom.global());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDrawTooMany() {
+        GermlineRepertoire.global(model, antigenPool).draw(501, JamRandom.global());
+    }
+
+    private double computeMaxAffinity(BCell germline) {
+        double maxAffinity = Double.NEGATIVE_INFINITY;
+
+        for (Epitope epitope : antigenPool.viewEpitopes())
+            maxAffinity = Math.max(maxAffinity, AffinityModel.global().computeAffinity(epitope, germline.getReceptor()));
+
+        return maxAffinity;
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.GermlineRepertoireTest");
+    }
+}
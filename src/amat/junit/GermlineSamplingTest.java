@@ -0,0 +1,161 @@
+
+package amat.junit;
+
+import java.util.Set;
+
+import amat.antigen.Antigen;
+import amat.antigen.AntigenPool;
+import amat.bcell.BCell;
+import amat.binding.AffinityModel;
+import amat.binding.HammingAffinity;
+import amat.epitope.Epitope;
+import amat.germline.GermlineActivationModel;
+import amat.structure.DiscreteStructure;
+import amat.structure.Structure;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class GermlineSamplingTest extends BCellSelectionTestBase {
+    //
+    // A second epitope that differs from the base epitope at the last
+    // two elements, so that the activation regions overlap heavily...
+    //
+    private static final Epitope overlap =
+        Epitope.add("GS2", Structure.parse("SpinStructure(---- ++++ ---- ++--)"));
+
+    private static final AntigenPool overlapPool = createPool();
+
+    private static final int LENGTH = 16;
+    private static final int DIFFERING = 2;
+    private static final int SAMPLE_SIZE = 20000;
+    private static final double THRESHOLD = 4.0;
+    private static final double TOLERANCE = 0.015;
+
+    private static AntigenPool createPool() {
+        AntigenPool pool = new AntigenPool();
+
+        pool.add(Antigen.add("GSA1", epitope), 1.0);
+        pool.add(Antigen.add("GSA2", overlap), 1.0);
+
+        return pool;
+    }
+
+    private static int resolveMaxDistance() {
+        HammingAffinity model = (HammingAffinity) AffinityModel.global();
+        int maxDistance = -1;
+
+        for (int distance = 0; distance <= LENGTH; ++distance)
+            if (model.computeAffinity(model.computeFreeEnergy(distance)) >= THRESHOLD)
+                maxDistance = distance;
+
+        return maxDistance;
+    }
+
+    private static double choose(int n, int k) {
+        double result = 1.0;
+
+        for (int j = 1; j <= k; ++j)
+            result = result * (n - k + j) / j;
+
+        return result;
+    }
+
+    //
+    // Exact probabilities for a receptor drawn uniformly from the
+    // union of the two activation regions: element [d] is the
+    // probability of distance d from the base epitope, and the last
+    // element is the probability of lying in both regions.  A
+    // receptor that differs from the base epitope at "a" of the
+    // shared elements and "b" of the differing elements has distance
+    // a + b from the base epitope and a + (2 - b) from the other...
+    //
+    private static double[] computeExact(int maxDistance) {
+        double[] weights = new double[LENGTH + 2];
+        double union = 0.0;
+
+        for (int a = 0; a <= LENGTH - DIFFERING; ++a) {
+            for (int b = 0; b <= DIFFERING; ++b) {
+                int dist1 = a + b;
+                int dist2 = a + DIFFERING - b;
+
+                boolean in1 = dist1 <= maxDistance;
+                boolean in2 = dist2 <= maxDistance;
+
+                if (!in1 && !in2)
+                    continue;
+
+                double count = choose(LENGTH - DIFFERING, a) * choose(DIFFERING, b);
+
+                union += count;
+                weights[dist1] += count;
+
+                if (in1 && in2)
+                    weights[LENGTH + 1] += count;
+            }
+        }
+
+        for (int index = 0; index < weights.length; ++index)
+            weights[index] /= union;
+
+        return weights;
+    }
+
+    private static double[] computeObserved(Set<BCell> germlines, int maxDistance) {
+        DiscreteStructure struct1 = (DiscreteStructure) epitope.getStructure();
+        DiscreteStructure struct2 = (DiscreteStructure) overlap.getStructure();
+
+        double[] freqs = new double[LENGTH + 2];
+
+        for (BCell germline : germlines) {
+            DiscreteStructure receptor = (DiscreteStructure) germline.getReceptor().getStructure();
+
+            int dist1 = struct1.hammingDistance(receptor);
+            int dist2 = struct2.hammingDistance(receptor);
+
+            assertTrue(dist1 <= maxDistance || dist2 <= maxDistance);
+
+            freqs[dist1] += 1.0;
+
+            if (dist1 <= maxDistance && dist2 <= maxDistance)
+                freqs[LENGTH + 1] += 1.0;
+        }
+
+        for (int index = 0; index < freqs.length; ++index)
+            freqs[index] /= germlines.size();
+
+        return freqs;
+    }
+
+    private static void assertDistribution(boolean directSampling) {
+        int maxDistance = resolveMaxDistance();
+        assertTrue(maxDistance >= DIFFERING);
+
+        GermlineActivationModel model = new GermlineActivationModel(THRESHOLD, SAMPLE_SIZE, 1, directSampling);
+        Set<BCell> germlines = model.activate(overlapPool);
+
+        assertEquals(SAMPLE_SIZE, germlines.size());
+
+        double[] exact = computeExact(maxDistance);
+        double[] observed = computeObserved(germlines, maxDistance);
+
+        for (int index = 0; index < exact.length; ++index)
+            assertEquals(exact[index], observed[index], TOLERANCE);
+    }
+
+    @Test public void testDirectSampling() {
+        //
+        // Without the 1 / m correction, receptors in the overlap of
+        // the two regions would be sampled twice as often...
+        //
+        assertDistribution(true);
+    }
+
+    @Test public void testRejectionSampling() {
+        assertDistribution(false);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.GermlineSamplingTest");
+    }
+}
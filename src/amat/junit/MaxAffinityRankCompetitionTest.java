@@ -2,10 +2,12 @@
 package amat.junit;
 
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import amat.bcell.BCell;
 import amat.capture.EpitopeCaptureModel;
+import amat.tcell.RankCompetition;
 import amat.tcell.TCellCompetitionModel;
 
 import org.junit.*;
@@ -37,6 +39,24 @@ public class MaxAffinityRankCompetitionTest extends BCellSelectionTestBase {
         assertTrue(weakestSurvived.getMaxAffinity() >= strongestPerished.getMaxAffinity());
     }
 
+    @Test public void testSelectionMatchesSort() {
+        //
+        // Linear-time selection must perish exactly the cells that a
+        // stable sort would, including the tie-breaking among cells
+        // with equal affinity (which are common for Hamming models)...
+        //
+        for (double survivalRate : new double[] { 0.0, 0.25, 0.7, 1.0 }) {
+            Set<BCell> selected = new LinkedHashSet<BCell>(prepare(1000));
+            Set<BCell> sorted = new LinkedHashSet<BCell>(selected);
+
+            RankCompetition selection = new RankCompetition(survivalRate, bcell -> bcell.getMaxAffinity());
+            RankCompetition sorting = new RankCompetition(survivalRate, BCell.MAX_AFFINITY_COMPARATOR);
+
+            assertEquals(sorting.apoptose(sorted, antigenPool), selection.apoptose(selected, antigenPool));
+            assertEquals(sorted, selected);
+        }
+    }
+
     public static void main(String[] args) {
         org.junit.runner.JUnitCore.main("amat.junit.MaxAffinityRankCompetitionTest");
     }
@@ -0,0 +1,67 @@
+package amat.junit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import amat.bcell.BCell;
+import amat.bcell.PopulationStats;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class PopulationStatsTest extends BCellSelectionTestBase {
+    private static void assertStats(PopulationStats stats, List<BCell> cells) {
+        double qtyMean = cells.stream().mapToDouble(bcell -> bcell.getAntigenQty()).average().getAsDouble();
+        double qtyVar  = cells.stream().mapToDouble(bcell -> (bcell.getAntigenQty() - qtyMean) * (bcell.getAntigenQty() - qtyMean)).average().getAsDouble();
+
+        double[] affinity = cells.stream().mapToDouble(bcell -> bcell.getMaxAffinity()).filter(Double::isFinite).toArray();
+        double affMean = Arrays.stream(affinity).average().orElse(Double.NaN);
+        double affVar  = Arrays.stream(affinity).map(x -> (x - affMean) * (x - affMean)).average().orElse(Double.NaN);
+
+        assertEquals(cells.size(), stats.getCellCount());
+        assertEquals(affinity.length, stats.getBoundCount());
+
+        assertEquals(qtyMean, stats.getMeanAntigenQty(), 1.0E-10);
+        assertEquals(qtyVar,  stats.getVarAntigenQty(),  1.0E-8);
+        assertEquals(affMean, stats.getMeanMaxAffinity(), 1.0E-10);
+        assertEquals(affVar,  stats.getVarMaxAffinity(),  1.0E-8);
+    }
+
+    @Test public void testComputeAndRemove() {
+        Set<BCell> cellSet = prepare(1000);
+        List<BCell> cells = new ArrayList<BCell>(cellSet);
+
+        PopulationStats stats = PopulationStats.compute(cells);
+        assertStats(stats, cells);
+
+        List<BCell> removed = new ArrayList<BCell>(cells.subList(0, 400));
+        cells.removeAll(removed);
+
+        stats.removeAll(removed);
+        assertStats(stats, cells);
+    }
+
+    @Test public void testEmpty() {
+        PopulationStats stats = new PopulationStats();
+
+        assertEquals(0, stats.getCellCount());
+        assertTrue(Double.isNaN(stats.getMeanAntigenQty()));
+        assertTrue(Double.isNaN(stats.getVarMaxAffinity()));
+    }
+
+    @Test public void testUnbound() {
+        PopulationStats stats = new PopulationStats();
+        stats.add(BCell.germline());
+
+        assertEquals(1, stats.getCellCount());
+        assertEquals(0, stats.getBoundCount());
+        assertEquals(0.0, stats.getMeanAntigenQty(), 0.0);
+        assertTrue(Double.isNaN(stats.getMeanMaxAffinity()));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.PopulationStatsTest");
+    }
+}
@@ -23,6 +23,107 @@ public class PottsStructureTest extends StructureTestBase {
         new PottsStructure(3, new int[] { 0, 1, 2, 3 });
     }
 
+    @Test public void testDerive() {
+        int[] expected = new int[] { 0, 1, 2, 3, 0, 1, 2, 3, 0, 1 };
+        PottsStructure struct = new PottsStructure(4, expected);
+
+        for (int trial = 0; trial < 50; trial++) {
+            int index1 = trial % expected.length;
+            int index2 = (3 * trial + 1) % expected.length;
+
+            if (index1 == index2)
+                continue;
+
+            int[] indexes = new int[] { index1, index2, -1 };
+            int[] changed = new int[] { (expected[index1] + 1) % 4, (expected[index2] + 3) % 4, -1 };
+
+            struct = struct.derive(indexes, changed, 2);
+            expected[index1] = changed[0];
+            expected[index2] = changed[1];
+
+            PottsStructure flat = new PottsStructure(4, expected);
+
+            assertTrue(struct.getDeltaDepth() <= PottsStructure.DEFAULT_MAX_DELTA_DEPTH);
+            assertTrue(Arrays.equals(expected, struct.asOrdinal()));
+            assertEquals(flat, struct);
+            assertEquals(struct, flat);
+            assertEquals(flat.hashCode(), struct.hashCode());
+            assertEquals(flat.format(), struct.format());
+            assertEquals(0, flat.hammingDistance(struct));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeriveInvalid() {
+        new PottsStructure(4, new int[] { 0, 1, 2, 3 }).derive(new int[] { 1 }, new int[] { 4 }, 1);
+    }
+
+    @Test public void testDeltaHamming() {
+        PottsStructure delta = deriveChain();
+        PottsStructure flat = new PottsStructure(DELTA_CARDINALITY, delta.asOrdinal());
+
+        for (int trial = 0; trial < 100; trial++) {
+            PottsStructure epitope = PottsStructure.variable(DELTA_CARDINALITY, DELTA_LENGTH);
+
+            assertEquals(flat.hammingDistance(epitope), delta.hammingDistance(epitope));
+            assertEquals(epitope.hammingDistance(flat), epitope.hammingDistance(delta));
+        }
+    }
+
+    @Test public void testDeltaBindingCost() {
+        //
+        // Binding compares whole structures, so the Hamming distance
+        // for a delta-encoded receptor at the maximum depth must cost
+        // about the same as for a flat receptor (reading each element
+        // through the chain of parents is roughly ten times slower)...
+        //
+        PottsStructure delta = deriveChain();
+        PottsStructure flat = new PottsStructure(DELTA_CARDINALITY, delta.asOrdinal());
+        PottsStructure epitope = PottsStructure.variable(DELTA_CARDINALITY, DELTA_LENGTH);
+
+        long flatTime = Long.MAX_VALUE;
+        long deltaTime = Long.MAX_VALUE;
+
+        for (int round = 0; round < 10; round++) {
+            flatTime = Math.min(flatTime, timeHamming(epitope, flat));
+            deltaTime = Math.min(deltaTime, timeHamming(epitope, delta));
+        }
+
+        assertEquals(PottsStructure.DEFAULT_MAX_DELTA_DEPTH, delta.getDeltaDepth());
+        assertTrue(deltaTime < 4 * flatTime);
+    }
+
+    private static final int DELTA_LENGTH = 50;
+    private static final int DELTA_CARDINALITY = 20;
+
+    // Derives a chain of single-element mutants with the maximum
+    // delta-encoding depth...
+    private static PottsStructure deriveChain() {
+        PottsStructure struct = PottsStructure.variable(DELTA_CARDINALITY, DELTA_LENGTH);
+
+        for (int depth = 0; depth < PottsStructure.DEFAULT_MAX_DELTA_DEPTH; depth++) {
+            int index = (7 * depth + 3) % DELTA_LENGTH;
+            int element = (struct.asOrdinal(index) + 1) % DELTA_CARDINALITY;
+
+            struct = struct.derive(new int[] { index }, new int[] { element }, 1);
+        }
+
+        return struct;
+    }
+
+    private static long timeHamming(PottsStructure epitope, PottsStructure receptor) {
+        long distance = 0;
+        long start = System.nanoTime();
+
+        for (int trial = 0; trial < 200000; trial++)
+            distance += epitope.hammingDistance(receptor);
+
+        long elapsed = System.nanoTime() - start;
+        assertTrue(distance >= 0);
+
+        return elapsed;
+    }
+
     @Test public void testEquals() {
         int[] v1 = new int[] { 0, 1, 2, 3 };
         int[] v2 = new int[] { 1, 0, 3, 2 };
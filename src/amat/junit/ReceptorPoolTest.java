@@ -0,0 +1,58 @@
+
+package amat.junit;
+
+import amat.receptor.Receptor;
+import amat.receptor.ReceptorPool;
+import amat.structure.Structure;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class ReceptorPoolTest {
+    private final ReceptorPool pool = ReceptorPool.global();
+
+    @Test public void testEquals() {
+        Structure s1 = Structure.parse("PottsStructure(4; ABCD AAAA)");
+        Structure s2 = Structure.parse("PottsStructure(4; ABCD AAAA)");
+        Structure s3 = Structure.parse("PottsStructure(4; ABCD AAAB)");
+
+        Receptor pooled1   = pool.intern(s1);
+        Receptor pooled3   = pool.intern(s3);
+        Receptor unpooled2 = new Receptor(s2);
+
+        assertEquals(pooled1, unpooled2);
+        assertEquals(unpooled2, pooled1);
+        assertEquals(pooled1.hashCode(), unpooled2.hashCode());
+        assertEquals(pooled1.getFingerprint(), unpooled2.getFingerprint());
+
+        assertNotEquals(pooled1, pooled3);
+        assertNotEquals(unpooled2, pooled3);
+    }
+
+    @Test public void testIntern() {
+        Structure s1 = Structure.parse("BitStructure(0000 1111 0101)");
+        Structure s2 = Structure.parse("BitStructure(0000 1111 0101)");
+        Structure s3 = Structure.parse("BitStructure(0000 1111 0111)");
+
+        Receptor r1 = pool.intern(s1);
+        Receptor r2 = pool.intern(s2);
+        Receptor r3 = pool.intern(new Receptor(s3));
+
+        assertSame(r1, r2);
+        assertSame(r3, pool.intern(r3));
+        assertNotSame(r1, r3);
+
+        assertTrue(r1.isPooled());
+        assertTrue(r3.isPooled());
+        assertFalse(new Receptor(s1).isPooled());
+
+        assertTrue(r1.getId() >= 0);
+        assertTrue(r3.getId() >= 0);
+        assertTrue(r1.getId() != r3.getId());
+        assertTrue(r3.getId() < pool.size());
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.ReceptorPoolTest");
+    }
+}
@@ -4,6 +4,7 @@ package amat.junit;
 import java.util.Set;
 
 import jam.math.IntRange;
+import jam.math.Probability;
 
 import amat.bcell.BCell;
 import amat.reentry.ReentryModel;
@@ -28,6 +29,16 @@ public class ReentryModelTest extends BCellSelectionTestBase {
         assertEquals(originalCount, original.size() + selected.size());
     }
 
+    @Test public void testExtremes() {
+        Set<BCell> original = prepare(100);
+
+        assertTrue(new ReentryModel(Probability.valueOf(0.0)).select(original).isEmpty());
+        assertEquals(100, original.size());
+
+        assertEquals(100, new ReentryModel(Probability.valueOf(1.0)).select(original).size());
+        assertTrue(original.isEmpty());
+    }
+
     public static void main(String[] args) {
         org.junit.runner.JUnitCore.main("amat.junit.ReentryModelTest");
     }
@@ -0,0 +1,92 @@
+
+package amat.junit;
+
+import java.util.SplittableRandom;
+
+import jam.junit.NumericTestBase;
+
+import amat.antigen.Antigen;
+import amat.antigen.AntigenPool;
+import amat.epitope.Epitope;
+import amat.occupy.SiteSampler;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class SiteSamplerTest extends NumericTestBase {
+    static {
+        Epitope.parse("SS1: BitStructure(100)");
+        Epitope.parse("SS2: BitStructure(010)");
+        Epitope.parse("SS3: BitStructure(001)");
+
+        Antigen.parse("SSAG1: SS1");
+        Antigen.parse("SSAG2: SS2");
+        Antigen.parse("SSAG3: SS3");
+    }
+
+    private static final SplittableRandom random = new SplittableRandom(20170521L);
+
+    private static void assertBinomial(int trials, double prob) {
+        int sampleCount = 200000;
+        double tolerance = 0.02 * trials;
+
+        double sum = 0.0;
+        double sumSq = 0.0;
+
+        for (int index = 0; index < sampleCount; ++index) {
+            int successes = SiteSampler.binomial(random, trials, prob);
+
+            assertTrue(successes >= 0);
+            assertTrue(successes <= trials);
+
+            sum += successes;
+            sumSq += successes * successes;
+        }
+
+        double mean = sum / sampleCount;
+        double var = sumSq / sampleCount - mean * mean;
+
+        assertEquals(trials * prob, mean, tolerance);
+        assertEquals(trials * prob * (1.0 - prob), var, 5.0 * tolerance);
+    }
+
+    @Test public void testBinomial() {
+        assertEquals(0, SiteSampler.binomial(random, 0, 0.5));
+        assertEquals(0, SiteSampler.binomial(random, 10, 0.0));
+        assertEquals(10, SiteSampler.binomial(random, 10, 1.0));
+
+        assertBinomial(1, 0.3);
+        assertBinomial(10, 0.1);
+        assertBinomial(10, 0.5);
+        assertBinomial(20, 0.9);
+    }
+
+    @Test public void testMultinomial() {
+        AntigenPool pool = new AntigenPool();
+
+        pool.add(Antigen.require("SSAG1"), 1.0);
+        pool.add(Antigen.require("SSAG2"), 2.0);
+        pool.add(Antigen.require("SSAG3"), 3.0);
+
+        int sampleCount = 100000;
+        int[] counts = new int[3];
+
+        for (int index = 0; index < sampleCount; ++index)
+            SiteSampler.multinomial(random, 6, pool, counts);
+
+        assertEquals(6 * sampleCount, counts[0] + counts[1] + counts[2]);
+
+        assertEquals(1.0 / 6.0, counts[0] / (6.0 * sampleCount), 0.002);
+        assertEquals(2.0 / 6.0, counts[1] / (6.0 * sampleCount), 0.002);
+        assertEquals(3.0 / 6.0, counts[2] / (6.0 * sampleCount), 0.002);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMultinomialEmpty() {
+        SiteSampler.multinomial(random, 1, new AntigenPool(), new int[1]);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("amat.junit.SiteSamplerTest");
+    }
+}
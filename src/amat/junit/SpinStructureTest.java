@@ -7,6 +7,7 @@ import java.util.Arrays;
 import jam.spin.SpinVector;
 import jam.vector.JamVector;
 
+import amat.structure.BinaryStructure;
 import amat.structure.SpinStructure;
 import amat.structure.Structure;
 
@@ -59,6 +60,41 @@ public class SpinStructureTest extends StructureTestBase {
 	assertDouble(2.0, s2.mutationalDistance(s1));
     }
 
+    @Test public void testPackedMatching() {
+	for (int trial = 0; trial < 100; trial++) {
+	    SpinStructure s1 = SpinStructure.generate(17, 130);
+	    SpinStructure s2 = SpinStructure.generate(17, 130);
+	    SpinStructure s3 = SpinStructure.generate(17, 100);
+
+	    int[] indexes = new int[] { 0, 5, 63, 64, 65, 127, 128, 140, 146 };
+	    long[] mask = BinaryStructure.mask(indexes, s1.length());
+
+	    int expectedHamming = 0;
+	    int expectedMasked  = 0;
+
+	    for (int index = 0; index < s1.length(); index++)
+		if (!s1.isMatch(s2, index))
+		    ++expectedHamming;
+
+	    for (int index : indexes)
+		if (s1.isMatch(s2, index))
+		    ++expectedMasked;
+
+	    assertEquals(expectedHamming, s1.hammingDistance(s2));
+	    assertEquals(s1.length() - expectedHamming, s1.countMatching(s2));
+	    assertEquals(expectedMasked, s1.countMatching(s2, mask));
+
+	    int expectedShort = 0;
+
+	    for (int index : indexes)
+		if (s1.isMatch(s3, index))
+		    ++expectedShort;
+
+	    assertEquals(expectedShort, s1.countMatching(s3, mask));
+	    assertEquals(expectedShort, s3.countMatching(s1, mask));
+	}
+    }
+
     @Test(expected = NullPointerException.class)
     public void testNull() {
         new SpinStructure(null);
@@ -97,4 +97,8 @@ public final class MemorySelectionModel extends IndependentSelectionModel {
     @Override public boolean select(BCell cell) {
         return probability.accept();
     }
+
+    @Override public double getConstantProbability() {
+        return probability.doubleValue();
+    }
 }
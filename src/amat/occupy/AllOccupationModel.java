@@ -3,6 +3,7 @@ package amat.occupy;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.SplittableRandom;
 
 import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
@@ -22,4 +23,9 @@ public final class AllOccupationModel extends OccupationModel {
     @Override public Collection<Antigen> visit(int cycle, AntigenPool pool) {
         return new ArrayList<Antigen>(pool.viewAntigens());
     }
+
+    @Override public void visit(int cycle, AntigenPool pool, int siteCount, int[] counts, SplittableRandom random) {
+        for (int position = 0; position < pool.size(); ++position)
+            counts[position] += siteCount;
+    }
 }
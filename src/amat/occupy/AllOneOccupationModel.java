@@ -3,6 +3,7 @@ package amat.occupy;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.SplittableRandom;
 
 import jam.math.IntRange;
 
@@ -50,4 +51,11 @@ public final class AllOneOccupationModel extends OccupationModel {
         else
             return OneOccupationModel.INSTANCE.visit(cycle, pool);
     }
+
+    @Override public void visit(int cycle, AntigenPool pool, int siteCount, int[] counts, SplittableRandom random) {
+        if (cycle < transition)
+            AllOccupationModel.INSTANCE.visit(cycle, pool, siteCount, counts, random);
+        else
+            OneOccupationModel.INSTANCE.visit(cycle, pool, siteCount, counts, random);
+    }
 }
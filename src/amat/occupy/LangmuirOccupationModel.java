@@ -4,9 +4,9 @@ package amat.occupy;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.SplittableRandom;
 
 import jam.chem.Concentration;
-import jam.chem.Langmuir;
 import jam.math.Probability;
 
 import amat.antigen.Antigen;
@@ -42,11 +42,20 @@ public final class LangmuirOccupationModel extends OccupationModel {
             return Collections.emptyList();
     }
 
+    @Override public void visit(int cycle, AntigenPool pool, int siteCount, int[] counts, SplittableRandom random) {
+        //
+        // The number of occupied sites is binomial; the occupants are
+        // then distributed by fractional concentration...
+        //
+        int occupied = SiteSampler.binomial(random, siteCount, getOccupationProbability(pool).doubleValue());
+        SiteSampler.multinomial(random, occupied, pool, counts);
+    }
+
     private boolean isOccupied(AntigenPool pool) {
         return getOccupationProbability(pool).accept();
     }
 
     private Probability getOccupationProbability(AntigenPool pool) {
-        return Langmuir.probability(pool.getTotalConc());
+        return pool.getOccupancy();
     }
 }
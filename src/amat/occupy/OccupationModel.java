@@ -2,6 +2,7 @@
 package amat.occupy;
 
 import java.util.Collection;
+import java.util.SplittableRandom;
 
 import jam.app.JamProperties;
 import jam.lang.JamException;
@@ -93,4 +94,30 @@ public abstract class OccupationModel {
      * @return the antigens present at the FDC site.
      */
     public abstract Collection<Antigen> visit(int cycle, AntigenPool pool);
+
+    /**
+     * Simulates visits to many FDC surface sites and accumulates the
+     * number of times that each antigen is presented.
+     *
+     * <p>This default implementation visits the sites one at a time;
+     * subclasses should override it to sample all sites at once.
+     *
+     * @param cycle the index of the current germinal center cycle.
+     *
+     * @param pool the pool of available antigens.
+     *
+     * @param siteCount the number of FDC sites visited.
+     *
+     * @param counts an array (with length at least equal to the pool
+     * size) whose element {@code k} is incremented by the number of
+     * times that the antigen at position {@code k} in the pool is
+     * presented.
+     *
+     * @param random the random number source.
+     */
+    public void visit(int cycle, AntigenPool pool, int siteCount, int[] counts, SplittableRandom random) {
+        for (int site = 0; site < siteCount; ++site)
+            for (Antigen antigen : visit(cycle, pool))
+                ++counts[pool.indexOf(antigen)];
+    }
 }
@@ -3,6 +3,7 @@ package amat.occupy;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.SplittableRandom;
 
 import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
@@ -26,4 +27,8 @@ public final class OneOccupationModel extends OccupationModel {
     @Override public Collection<Antigen> visit(int cycle, AntigenPool pool) {
         return Arrays.asList(pool.select());
     }
+
+    @Override public void visit(int cycle, AntigenPool pool, int siteCount, int[] counts, SplittableRandom random) {
+        SiteSampler.multinomial(random, siteCount, pool, counts);
+    }
 }
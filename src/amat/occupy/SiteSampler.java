@@ -0,0 +1,121 @@
+
+package amat.occupy;
+
+import java.util.SplittableRandom;
+
+import amat.antigen.AntigenPool;
+
+/**
+ * Samples the number of FDC sites occupied by each antigen over many
+ * sites at once, using binomial and multinomial draws in place of one
+ * draw per site.
+ */
+public final class SiteSampler {
+    private SiteSampler() {} // Prevent instantiation...
+
+    /**
+     * Draws a random deviate from the binomial distribution.
+     *
+     * @param random the random number source.
+     *
+     * @param trials the number of Bernoulli trials.
+     *
+     * @param prob the success probability for each trial.
+     *
+     * @return the number of successes in the given number of trials.
+     *
+     * @throws IllegalArgumentException if the number of trials is
+     * negative.
+     */
+    public static int binomial(SplittableRandom random, int trials, double prob) {
+        if (trials < 0)
+            throw new IllegalArgumentException("Negative trial count.");
+
+        if (trials == 0 || prob <= 0.0)
+            return 0;
+
+        if (prob >= 1.0)
+            return trials;
+
+        // Keep the success probability at or below one-half so that
+        // the inversion below starts from a large initial mass...
+        if (prob > 0.5)
+            return trials - binomial(random, trials, 1.0 - prob);
+
+        double ratio = prob / (1.0 - prob);
+        double mass = Math.pow(1.0 - prob, trials);
+
+        // The initial mass underflows only for very long sequences
+        // of trials, so count the successes one at a time...
+        if (mass <= 0.0)
+            return bernoulli(random, trials, prob);
+
+        //
+        // Invert the cumulative distribution with a single uniform
+        // deviate, computing the probability mass recursively...
+        //
+        double uniform = random.nextDouble();
+        int successes = 0;
+
+        while (uniform >= mass && successes < trials) {
+            uniform -= mass;
+            mass *= ratio * (trials - successes) / (successes + 1);
+            ++successes;
+        }
+
+        return successes;
+    }
+
+    private static int bernoulli(SplittableRandom random, int trials, double prob) {
+        int successes = 0;
+
+        for (int trial = 0; trial < trials; ++trial)
+            if (random.nextDouble() < prob)
+                ++successes;
+
+        return successes;
+    }
+
+    /**
+     * Distributes occupied sites among the antigens in a pool with one
+     * multinomial draw: each site is occupied by an antigen with
+     * probability equal to its fractional concentration.
+     *
+     * @param random the random number source.
+     *
+     * @param sites the number of occupied sites.
+     *
+     * @param pool the pool of available antigens.
+     *
+     * @param counts an array (with length at least equal to the pool
+     * size) whose element {@code k} is incremented by the number of
+     * sites occupied by the antigen at position {@code k} in the pool.
+     *
+     * @throws IllegalStateException if any sites are occupied but the
+     * pool is empty.
+     */
+    public static void multinomial(SplittableRandom random, int sites, AntigenPool pool, int[] counts) {
+        if (sites > 0 && pool.isEmpty())
+            throw new IllegalStateException("Empty pool.");
+
+        //
+        // Conditional binomial method: each antigen takes a binomial
+        // share of the sites not yet assigned, with probability equal
+        // to its share of the remaining concentration...
+        //
+        double remainingConc = pool.getTotalValue();
+        int last = pool.size() - 1;
+
+        for (int position = 0; position < last && sites > 0; ++position) {
+            double conc = pool.getConcAt(position);
+            int occupied = binomial(random, sites, conc / remainingConc);
+
+            counts[position] += occupied;
+            sites -= occupied;
+            remainingConc -= conc;
+        }
+
+        if (sites > 0)
+            counts[last] += sites;
+    }
+}
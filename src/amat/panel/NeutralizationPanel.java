@@ -10,6 +10,7 @@ import jam.math.DoubleRange;
 import jam.math.DoubleUtil;
 import jam.util.CollectionUtil;
 
+import amat.bcell.BindingEvent;
 import amat.binding.AffinityModel;
 import amat.epitope.Epitope;
 import amat.receptor.Receptor;
@@ -150,9 +151,10 @@ public abstract class NeutralizationPanel {
             throw new IllegalArgumentException("At least one epitope is required.");
 
         int neutralized = 0;
+        double[] batchAffinity = BindingEvent.computeBatchAffinity(receptor);
 
         for (Epitope epitope : epitopes)
-            if (isNeutralized(epitope, receptor))
+            if (COMPARATOR.GE(computeAffinity(epitope, receptor, batchAffinity), affinityThreshold))
                 ++neutralized;
 
         return DoubleUtil.ratio(neutralized, epitopes.size());
@@ -181,7 +183,17 @@ public abstract class NeutralizationPanel {
      * epitopes in the specified collection.
      */
     public static double computeMeanAffinity(Receptor receptor, Collection<Epitope> epitopes) {
-        return CollectionUtil.average(epitopes, epitope -> AFFINITY_MODEL.computeAffinity(epitope, receptor));
+        double[] batchAffinity = BindingEvent.computeBatchAffinity(receptor);
+        return CollectionUtil.average(epitopes, epitope -> computeAffinity(epitope, receptor, batchAffinity));
+    }
+
+    private static double computeAffinity(Epitope epitope, Receptor receptor, double[] batchAffinity) {
+        int matrixIndex = (batchAffinity != null) ? Epitope.matrix().indexOf(epitope) : -1;
+
+        if (matrixIndex < 0)
+            return AFFINITY_MODEL.computeAffinity(epitope, receptor);
+        else
+            return batchAffinity[matrixIndex];
     }
 
     /**
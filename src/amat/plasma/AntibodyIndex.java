@@ -0,0 +1,425 @@
+
+package amat.plasma;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import amat.bcell.BCell;
+import amat.receptor.Receptor;
+
+/**
+ * Indexes the plasma cells produced by a sequence of affinity
+ * maturation trials by their receptors (antibodies).
+ *
+ * <p>Each unique receptor is assigned a compact integer slot; each
+ * plasma cell is stored once, in the order of addition, and the cells
+ * sharing a receptor are linked through primitive postings arrays.
+ * The total and per-trial numbers of plasma cells and unique receptors
+ * are maintained as the cells are added, so all count queries execute
+ * in constant time and the views returned by this index never copy
+ * the underlying data.
+ *
+ * <p>Trials must be added in order of increasing trial index (the
+ * cells from one trial must be added before those of the next), so
+ * that the cells from each trial occupy a contiguous range.
+ *
+ * <p>The index is owned by the driver, which adds the cells produced
+ * by each trial; other components should access it through the
+ * read-only {@link AntibodyView} interface.
+ */
+public final class AntibodyIndex implements AntibodyView {
+    // Unique receptors mapped to their slots...
+    private final Map<Receptor, Integer> slots = new HashMap<Receptor, Integer>();
+
+    // All plasma cells, in the order of addition...
+    private BCell[] cells = new BCell[16];
+    private int cellCount = 0;
+
+    // Postings: the index of the next cell with the same receptor
+    // (or -1 for the last one)...
+    private int[] nextCell = new int[16];
+
+    // Per-slot data: the receptor, the first and last cell with the
+    // receptor, the number of cells, and the most recent trial
+    // containing the receptor...
+    private Receptor[] slotReceptor = new Receptor[16];
+    private int[] firstCell = new int[16];
+    private int[] lastCell = new int[16];
+    private int[] slotCellCount = new int[16];
+    private int[] slotLastTrial = new int[16];
+
+    // The slots of the unique receptors in each trial, in order of
+    // their first appearance in the trial; the slots from each trial
+    // occupy a contiguous range...
+    private int[] trialSlots = new int[16];
+    private int trialSlotCount = 0;
+
+    // Per-trial data: the index of the first cell from the trial, the
+    // number of cells, the index of the first slot in the trialSlots
+    // array, and the number of unique receptors...
+    private int[] trialFirstCell = new int[4];
+    private int[] trialCellCount = new int[4];
+    private int[] trialFirstSlot = new int[4];
+    private int[] trialReceptorCount = new int[4];
+
+    private int currentTrial = -1;
+
+    // Read-only view of all plasma cells...
+    private final List<BCell> cellView = new CellList(0, -1);
+
+    /**
+     * Creates an empty antibody index.
+     */
+    public AntibodyIndex() {
+    }
+
+    /**
+     * Adds a plasma cell to this index.
+     *
+     * @param trialIndex the index of the trial that produced the cell.
+     *
+     * @param plasmaCell the plasma cell to add.
+     *
+     * @throws IllegalArgumentException if the trial index is negative
+     * or less than the index of a trial that has already been added.
+     */
+    public void add(int trialIndex, BCell plasmaCell) {
+        beginTrial(trialIndex);
+
+        int slot = assignSlot(plasmaCell.getReceptor());
+        int cell = appendCell(plasmaCell);
+
+        if (slotCellCount[slot] == 0)
+            firstCell[slot] = cell;
+        else
+            nextCell[lastCell[slot]] = cell;
+
+        lastCell[slot] = cell;
+        ++slotCellCount[slot];
+
+        if (slotLastTrial[slot] != trialIndex) {
+            slotLastTrial[slot] = trialIndex;
+            appendTrialSlot(slot);
+            ++trialReceptorCount[trialIndex];
+        }
+
+        ++trialCellCount[trialIndex];
+    }
+
+    /**
+     * Adds plasma cells to this index.
+     *
+     * @param trialIndex the index of the trial that produced the cells.
+     *
+     * @param plasmaCells the plasma cells to add.
+     *
+     * @throws IllegalArgumentException if the trial index is negative
+     * or less than the index of a trial that has already been added.
+     */
+    public void addAll(int trialIndex, Collection<BCell> plasmaCells) {
+        beginTrial(trialIndex);
+
+        for (BCell plasmaCell : plasmaCells)
+            add(trialIndex, plasmaCell);
+    }
+
+    private void beginTrial(int trialIndex) {
+        if (trialIndex < 0 || trialIndex < currentTrial)
+            throw new IllegalArgumentException(String.format("Invalid trial index: [%d].", trialIndex));
+
+        if (trialIndex == currentTrial)
+            return;
+
+        if (trialIndex >= trialFirstCell.length) {
+            int length = Math.max(trialIndex + 1, 2 * trialFirstCell.length);
+
+            trialFirstCell = Arrays.copyOf(trialFirstCell, length);
+            trialCellCount = Arrays.copyOf(trialCellCount, length);
+            trialFirstSlot = Arrays.copyOf(trialFirstSlot, length);
+            trialReceptorCount = Arrays.copyOf(trialReceptorCount, length);
+        }
+
+        trialFirstCell[trialIndex] = cellCount;
+        trialFirstSlot[trialIndex] = trialSlotCount;
+        currentTrial = trialIndex;
+    }
+
+    private int assignSlot(Receptor receptor) {
+        Integer slot = slots.get(receptor);
+
+        if (slot != null)
+            return slot;
+
+        int newSlot = slots.size();
+
+        if (newSlot == firstCell.length) {
+            int length = 2 * newSlot;
+
+            slotReceptor = Arrays.copyOf(slotReceptor, length);
+            firstCell = Arrays.copyOf(firstCell, length);
+            lastCell = Arrays.copyOf(lastCell, length);
+            slotCellCount = Arrays.copyOf(slotCellCount, length);
+            slotLastTrial = Arrays.copyOf(slotLastTrial, length);
+        }
+
+        slotReceptor[newSlot] = receptor;
+        slotLastTrial[newSlot] = -1;
+        slots.put(receptor, newSlot);
+
+        return newSlot;
+    }
+
+    private int appendCell(BCell plasmaCell) {
+        if (cellCount == cells.length) {
+            cells = Arrays.copyOf(cells, 2 * cellCount);
+            nextCell = Arrays.copyOf(nextCell, 2 * cellCount);
+        }
+
+        cells[cellCount] = plasmaCell;
+        nextCell[cellCount] = -1;
+
+        return cellCount++;
+    }
+
+    private void appendTrialSlot(int slot) {
+        if (trialSlotCount == trialSlots.length)
+            trialSlots = Arrays.copyOf(trialSlots, 2 * trialSlotCount);
+
+        trialSlots[trialSlotCount++] = slot;
+    }
+
+    /**
+     * Returns the total number of plasma cells in this index.
+     *
+     * @return the total number of plasma cells in this index.
+     */
+    @Override public int countPlasmaCells() {
+        return cellCount;
+    }
+
+    /**
+     * Returns the number of plasma cells produced by one trial.
+     *
+     * @param trialIndex the index of the trial.
+     *
+     * @return the number of plasma cells produced by the specified
+     * trial (zero if the trial has not been added).
+     */
+    @Override public int countPlasmaCells(int trialIndex) {
+        if (isTrial(trialIndex))
+            return trialCellCount[trialIndex];
+        else
+            return 0;
+    }
+
+    /**
+     * Returns the number of plasma cells carrying a receptor.
+     *
+     * @param receptor the receptor of interest.
+     *
+     * @return the number of plasma cells carrying the specified
+     * receptor.
+     */
+    @Override public int countPlasmaCells(Receptor receptor) {
+        Integer slot = slots.get(receptor);
+
+        if (slot != null)
+            return slotCellCount[slot];
+        else
+            return 0;
+    }
+
+    /**
+     * Returns the total number of unique receptors (antibodies) in
+     * this index.
+     *
+     * @return the total number of unique receptors in this index.
+     */
+    @Override public int countReceptors() {
+        return slots.size();
+    }
+
+    /**
+     * Returns the number of unique receptors (antibodies) produced by
+     * one trial.
+     *
+     * @param trialIndex the index of the trial.
+     *
+     * @return the number of unique receptors produced by the specified
+     * trial (zero if the trial has not been added).
+     */
+    @Override public int countReceptors(int trialIndex) {
+        if (isTrial(trialIndex))
+            return trialReceptorCount[trialIndex];
+        else
+            return 0;
+    }
+
+    private boolean isTrial(int trialIndex) {
+        return 0 <= trialIndex && trialIndex <= currentTrial;
+    }
+
+    /**
+     * Returns a read-only view of all plasma cells in this index, in
+     * the order in which they were added.
+     *
+     * @return an unmodifiable list containing all plasma cells in this
+     * index.
+     */
+    @Override public List<BCell> viewPlasmaCells() {
+        return cellView;
+    }
+
+    /**
+     * Returns a read-only view of the plasma cells produced by one
+     * trial, in the order in which they were added.
+     *
+     * @param trialIndex the index of the trial.
+     *
+     * @return an unmodifiable list containing the plasma cells produced
+     * by the specified trial.
+     */
+    @Override public List<BCell> viewPlasmaCells(int trialIndex) {
+        if (isTrial(trialIndex))
+            return new CellList(trialFirstCell[trialIndex], trialCellCount[trialIndex]);
+        else
+            return Collections.emptyList();
+    }
+
+    /**
+     * Returns the plasma cells carrying a receptor.
+     *
+     * @param receptor the receptor of interest.
+     *
+     * @return a new list containing the plasma cells that carry the
+     * specified receptor, in the order in which they were added.
+     */
+    @Override public List<BCell> getPlasmaCells(Receptor receptor) {
+        Integer slot = slots.get(receptor);
+
+        if (slot == null)
+            return Collections.emptyList();
+
+        BCell[] result = new BCell[slotCellCount[slot]];
+        int cell = firstCell[slot];
+
+        for (int index = 0; index < result.length; ++index) {
+            result[index] = cells[cell];
+            cell = nextCell[cell];
+        }
+
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Returns a read-only view of the unique receptors (antibodies) in
+     * this index.
+     *
+     * @return an unmodifiable set containing the unique receptors in
+     * this index.
+     */
+    @Override public Set<Receptor> viewReceptors() {
+        return Collections.unmodifiableSet(slots.keySet());
+    }
+
+    /**
+     * Returns a read-only view of the unique receptors (antibodies)
+     * produced by one trial, in the order of their first appearance
+     * in the trial.
+     *
+     * @param trialIndex the index of the trial.
+     *
+     * @return an unmodifiable set containing the unique receptors
+     * produced by the specified trial.
+     */
+    @Override public Set<Receptor> viewReceptors(int trialIndex) {
+        if (isTrial(trialIndex))
+            return new ReceptorSet(trialIndex);
+        else
+            return Collections.emptySet();
+    }
+
+    // Identifies whether a plasma cell produced by a trial carries the
+    // receptor in a slot; the postings are in increasing cell order,
+    // so the walk stops at the end of the trial...
+    private boolean containsSlot(int trialIndex, int slot) {
+        int first = trialFirstCell[trialIndex];
+        int limit = first + trialCellCount[trialIndex];
+
+        for (int cell = firstCell[slot]; cell >= 0 && cell < limit; cell = nextCell[cell])
+            if (cell >= first)
+                return true;
+
+        return false;
+    }
+
+    // A window onto the receptors in the trial slot array...
+    private final class ReceptorSet extends AbstractSet<Receptor> {
+        private final int trialIndex;
+
+        private ReceptorSet(int trialIndex) {
+            this.trialIndex = trialIndex;
+        }
+
+        @Override public boolean contains(Object obj) {
+            Integer slot = slots.get(obj);
+            return slot != null && containsSlot(trialIndex, slot);
+        }
+
+        @Override public Iterator<Receptor> iterator() {
+            return new Iterator<Receptor>() {
+                private int index = 0;
+
+                @Override public boolean hasNext() {
+                    return index < size();
+                }
+
+                @Override public Receptor next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+
+                    return slotReceptor[trialSlots[trialFirstSlot[trialIndex] + index++]];
+                }
+            };
+        }
+
+        @Override public int size() {
+            return trialReceptorCount[trialIndex];
+        }
+    }
+
+    // A window onto the cell array; a negative size tracks the total
+    // cell count as cells are added...
+    private final class CellList extends AbstractList<BCell> {
+        private final int offset;
+        private final int size;
+
+        private CellList(int offset, int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override public BCell get(int index) {
+            if (index < 0 || index >= size())
+                throw new IndexOutOfBoundsException("Invalid plasma cell index.");
+
+            return cells[offset + index];
+        }
+
+        @Override public int size() {
+            if (size < 0)
+                return cellCount;
+            else
+                return size;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+
+package amat.plasma;
+
+import java.util.List;
+import java.util.Set;
+
+import amat.bcell.BCell;
+import amat.receptor.Receptor;
+
+/**
+ * Provides read-only access to the plasma cells produced by a sequence
+ * of affinity maturation trials, indexed by their receptors
+ * (antibodies).
+ */
+public interface AntibodyView {
+    /**
+     * Returns the total number of plasma cells.
+     *
+     * @return the total number of plasma cells.
+     */
+    public abstract int countPlasmaCells();
+
+    /**
+     * Returns the number of plasma cells produced by one trial.
+     *
+     * @param trialIndex the index of the trial.
+     *
+     * @return the number of plasma cells produced by the specified
+     * trial (zero if the trial has not been added).
+     */
+    public abstract int countPlasmaCells(int trialIndex);
+
+    /**
+     * Returns the number of plasma cells carrying a receptor.
+     *
+     * @param receptor the receptor of interest.
+     *
+     * @return the number of plasma cells carrying the specified
+     * receptor.
+     */
+    public abstract int countPlasmaCells(Receptor receptor);
+
+    /**
+     * Returns the total number of unique receptors (antibodies).
+     *
+     * @return the total number of unique receptors.
+     */
+    public abstract int countReceptors();
+
+    /**
+     * Returns the number of unique receptors (antibodies) produced by
+     * one trial.
+     *
+     * @param trialIndex the index of the trial.
+     *
+     * @return the number of unique receptors produced by the specified
+     * trial (zero if the trial has not been added).
+     */
+    public abstract int countReceptors(int trialIndex);
+
+    /**
+     * Returns a read-only view of all plasma cells, in the order in
+     * which they were added.
+     *
+     * @return an unmodifiable list containing all plasma cells.
+     */
+    public abstract List<BCell> viewPlasmaCells();
+
+    /**
+     * Returns a read-only view of the plasma cells produced by one
+     * trial, in the order in which they were added.
+     *
+     * @param trialIndex the index of the trial.
+     *
+     * @return an unmodifiable list containing the plasma cells produced
+     * by the specified trial.
+     */
+    public abstract List<BCell> viewPlasmaCells(int trialIndex);
+
+    /**
+     * Returns the plasma cells carrying a receptor.
+     *
+     * @param receptor the receptor of interest.
+     *
+     * @return a new list containing the plasma cells that carry the
+     * specified receptor, in the order in which they were added.
+     */
+    public abstract List<BCell> getPlasmaCells(Receptor receptor);
+
+    /**
+     * Returns a read-only view of the unique receptors (antibodies).
+     *
+     * @return an unmodifiable set containing the unique receptors.
+     */
+    public abstract Set<Receptor> viewReceptors();
+
+    /**
+     * Returns a read-only view of the unique receptors (antibodies)
+     * produced by one trial, in the order of their first appearance
+     * in the trial.
+     *
+     * @param trialIndex the index of the trial.
+     *
+     * @return an unmodifiable set containing the unique receptors
+     * produced by the specified trial.
+     */
+    public abstract Set<Receptor> viewReceptors(int trialIndex);
+}
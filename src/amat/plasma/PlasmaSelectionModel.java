@@ -135,6 +135,14 @@ public final class PlasmaSelectionModel extends IndependentSelectionModel {
      * cell compartment.
      */
     @Override public boolean select(BCell cell) {
-        return cell.getMaxAffinity() >= threshold && probability.accept();
+        return isEligible(cell) && probability.accept();
+    }
+
+    @Override public double getConstantProbability() {
+        return probability.doubleValue();
+    }
+
+    @Override public boolean isEligible(BCell cell) {
+        return cell.getMaxAffinity() >= threshold;
     }
 }
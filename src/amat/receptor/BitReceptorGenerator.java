@@ -1,7 +1,12 @@
 
 package amat.receptor;
 
+import java.util.SplittableRandom;
+
+import jam.vector.BitVector;
+
 import amat.structure.BitStructure;
+import amat.structure.Structure;
 
 /**
  * Produces receptors with binary {@code 0/1} states as the structural
@@ -32,6 +37,31 @@ public final class BitReceptorGenerator extends ReceptorGenerator {
     }
 
     @Override public Receptor generate() {
-        return new Receptor(BitStructure.variable(length));
+        return Receptor.create(BitStructure.variable(length));
+    }
+
+    @Override public Receptor generate(SplittableRandom random) {
+        BitVector bits = new BitVector(length);
+
+        for (int index = 0; index < length; ++index)
+            bits.set(index, random.nextBoolean());
+
+        return Receptor.create(new BitStructure(bits));
+    }
+
+    @Override public boolean isVariantTarget(Structure target) {
+        return (target instanceof BitStructure) && target.length() == length;
+    }
+
+    @Override public Receptor generateVariant(Structure target, int[] indexes, int count, SplittableRandom random) {
+        if (!isVariantTarget(target))
+            throw new IllegalArgumentException("Invalid variant target.");
+
+        BitVector bits = ((BitStructure) target).copyBits();
+
+        for (int k = 0; k < count; k++)
+            bits.flip(indexes[k]);
+
+        return Receptor.create(new BitStructure(bits));
     }
 }
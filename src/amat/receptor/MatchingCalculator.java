@@ -3,6 +3,7 @@ package amat.receptor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,6 +11,7 @@ import jam.math.DoubleUtil;
 import jam.util.CollectionUtil;
 
 import amat.epitope.Epitope;
+import amat.structure.BinaryStructure;
 import amat.structure.CV;
 import amat.structure.CVClassifier;
 import amat.structure.Structure;
@@ -20,12 +22,19 @@ import amat.structure.Structure;
  * epitope registry.
  */
 public final class MatchingCalculator {
-    private final Map<CV, int[]> indexMap;
+    private final Map<CV, int[]>  indexMap;
+    private final Map<CV, long[]> maskMap;
 
     private static MatchingCalculator instance = null;
 
     private MatchingCalculator() {
-        this.indexMap = Epitope.classify().mapIndexes();
+        CVClassifier classifier = Epitope.classify();
+
+        this.indexMap = classifier.mapIndexes();
+        this.maskMap  = new EnumMap<CV, long[]>(CV.class);
+
+        for (CV cv : CV.values())
+            maskMap.put(cv, classifier.getMask(cv));
     }
 
     /**
@@ -99,15 +108,20 @@ public final class MatchingCalculator {
      * the element of the epitope in the specified region.
      */
     public double compute(Receptor receptor, Epitope epitope, CV cv) {
-        return compute(receptor, epitope, indexMap.get(cv));
+        return compute(receptor, epitope, indexMap.get(cv), maskMap.get(cv));
     }
 
-    private static double compute(Receptor receptor, Epitope epitope, int[] elements) {
-        int matchCount = 0;
-
+    private static double compute(Receptor receptor, Epitope epitope, int[] elements, long[] mask) {
         Structure structEpi = epitope.getStructure();
         Structure structRec = receptor.getStructure();
 
+        if (BinaryStructure.isPackedPair(structRec, structEpi)) {
+            int matchCount = ((BinaryStructure) structRec).countMatching((BinaryStructure) structEpi, mask);
+            return DoubleUtil.ratio(matchCount, elements.length);
+        }
+
+        int matchCount = 0;
+
         for (int element : elements)
             if (structRec.isMatch(structEpi, element))
                 ++matchCount;
@@ -0,0 +1,220 @@
+
+package amat.receptor;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jam.app.JamLogger;
+import jam.app.JamProperties;
+import jam.math.IntRange;
+
+/**
+ * Counts receptor mutation outcomes with striped (per-thread cell)
+ * counters, so that outcomes may be recorded without contention and
+ * read at any time during a simulation.
+ *
+ * <p>The metrics for the global mutator are published as the JMX
+ * bean {@code amat:type=MutationMetrics} and, optionally, written
+ * to the log at a fixed interval given by the following system
+ * property:
+ *
+ * <p><b>{@code amat.MutationMetrics.logInterval:}</b> The number of
+ * seconds between metrics log lines; zero (the default) disables the
+ * periodic log line.
+ */
+public final class MutationMetrics implements MutationMetricsMBean {
+    private final long startNanos = System.nanoTime();
+    private final LongAdder[] counters = new LongAdder[MutationType.values().length];
+
+    // The executor writing the periodic log line, if any...
+    private ScheduledExecutorService logExecutor = null;
+
+    // The metrics currently published as the global JMX bean...
+    private static MutationMetrics published = null;
+
+    /**
+     * Name of the JMX bean for the metrics of the global mutator.
+     */
+    public static final String OBJECT_NAME = "amat:type=MutationMetrics";
+
+    /**
+     * Name of the system property which defines the number of
+     * seconds between metrics log lines.
+     */
+    public static final String LOG_INTERVAL_PROPERTY = "amat.MutationMetrics.logInterval";
+
+    /**
+     * Creates a new set of metrics with zero counts.
+     */
+    public MutationMetrics() {
+        for (int index = 0; index < counters.length; index++)
+            counters[index] = new LongAdder();
+    }
+
+    /**
+     * Publishes these metrics as the global JMX bean and starts the
+     * periodic log line if one is requested by the system properties.
+     *
+     * <p>Any metrics published previously (for a mutator that has
+     * since been replaced) are unregistered and their log line is
+     * stopped.  Failure to register the JMX bean is logged but is
+     * otherwise ignored, since the metrics are purely informational.
+     */
+    public void publish() {
+        synchronized (MutationMetrics.class) {
+            if (published != null)
+                published.stopLogging();
+
+            register();
+
+            int logInterval = resolveLogInterval();
+
+            if (logInterval > 0)
+                startLogging(logInterval);
+
+            published = this;
+        }
+    }
+
+    private void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+
+            // Replace the bean for a previous mutator...
+            if (server.isRegistered(objectName))
+                server.unregisterMBean(objectName);
+
+            server.registerMBean(this, objectName);
+        }
+        catch (JMException ex) {
+            JamLogger.info("Unable to register mutation metrics: [%s].", ex.getMessage());
+        }
+    }
+
+    private void stopLogging() {
+        if (logExecutor != null) {
+            logExecutor.shutdownNow();
+            logExecutor = null;
+        }
+    }
+
+    private static int resolveLogInterval() {
+        return JamProperties.getOptionalInt(LOG_INTERVAL_PROPERTY, IntRange.NON_NEGATIVE, 0);
+    }
+
+    private void startLogging(int logInterval) {
+        logExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MutationMetrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        logExecutor.scheduleAtFixedRate(() -> JamLogger.info(format()), logInterval, logInterval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Records one mutation outcome.
+     *
+     * @param mutationType the type of mutation outcome.
+     */
+    public void record(MutationType mutationType) {
+        counters[mutationType.ordinal()].increment();
+    }
+
+    /**
+     * Returns the number of mutations of a given type recorded so far.
+     *
+     * @param mutationType the type of mutation outcome.
+     *
+     * @return the number of mutations of the specified type.
+     */
+    public long count(MutationType mutationType) {
+        return counters[mutationType.ordinal()].sum();
+    }
+
+    /**
+     * Returns the frequency of mutations of a given type.
+     *
+     * @param mutationType the type of mutation outcome.
+     *
+     * @return the number of mutations of the specified type divided
+     * by the total number of mutations ({@code 0.0} if no mutations
+     * have been recorded).
+     */
+    public double getFrequency(MutationType mutationType) {
+        //
+        // Sum the counters once so that the numerator and denominator
+        // are consistent with each other...
+        //
+        long typeCount  = 0;
+        long totalCount = 0;
+
+        for (MutationType type : MutationType.values()) {
+            long count = count(type);
+
+            if (type.equals(mutationType))
+                typeCount = count;
+
+            totalCount += count;
+        }
+
+        if (totalCount > 0)
+            return (double) typeCount / (double) totalCount;
+        else
+            return 0.0;
+    }
+
+    /**
+     * Formats the current counts, lethal frequency, and division rate
+     * as a single metrics line.
+     *
+     * @return the current metrics line.
+     */
+    public String format() {
+        return String.format("MUTATIONS: %d (lethal %d, silent %d, somatic %d); lethal freq %.4f; divisions/sec %.1f",
+                             getDivisionCount(), getLethalCount(), getSilentCount(), getSomaticCount(),
+                             getLethalFrequency(), getDivisionRate());
+    }
+
+    @Override public long getDivisionCount() {
+        long total = 0;
+
+        for (LongAdder counter : counters)
+            total += counter.sum();
+
+        return total;
+    }
+
+    @Override public double getDivisionRate() {
+        double elapsed = 1.0E-09 * (System.nanoTime() - startNanos);
+        return getDivisionCount() / elapsed;
+    }
+
+    @Override public long getLethalCount() {
+        return count(MutationType.LETHAL);
+    }
+
+    @Override public double getLethalFrequency() {
+        return getFrequency(MutationType.LETHAL);
+    }
+
+    @Override public long getSilentCount() {
+        return count(MutationType.SILENT);
+    }
+
+    @Override public long getSomaticCount() {
+        return count(MutationType.SOMATIC);
+    }
+
+    @Override public String toString() {
+        return format();
+    }
+}
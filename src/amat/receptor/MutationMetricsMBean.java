@@ -0,0 +1,52 @@
+
+package amat.receptor;
+
+/**
+ * Defines the attributes of {@link MutationMetrics} that are readable
+ * through JMX.
+ */
+public interface MutationMetricsMBean {
+    /**
+     * Returns the total number of receptor mutations (one per B cell
+     * division) recorded so far.
+     *
+     * @return the total number of receptor mutations.
+     */
+    public long getDivisionCount();
+
+    /**
+     * Returns the average number of receptor mutations (divisions)
+     * recorded per second of wall-clock time.
+     *
+     * @return the average division rate (per second).
+     */
+    public double getDivisionRate();
+
+    /**
+     * Returns the number of lethal mutations recorded so far.
+     *
+     * @return the number of lethal mutations.
+     */
+    public long getLethalCount();
+
+    /**
+     * Returns the fraction of mutations that were lethal.
+     *
+     * @return the fraction of mutations that were lethal.
+     */
+    public double getLethalFrequency();
+
+    /**
+     * Returns the number of silent mutations recorded so far.
+     *
+     * @return the number of silent mutations.
+     */
+    public long getSilentCount();
+
+    /**
+     * Returns the number of somatic mutations recorded so far.
+     *
+     * @return the number of somatic mutations.
+     */
+    public long getSomaticCount();
+}
@@ -1,11 +1,11 @@
 
 package amat.receptor;
 
-import com.google.common.collect.EnumMultiset;
+import java.util.SplittableRandom;
 
 import jam.lang.JamException;
-import jam.math.DoubleUtil;
 import jam.math.EventSet;
+import jam.math.JamRandom;
 import jam.math.Probability;
 
 import amat.structure.Structure;
@@ -17,10 +17,27 @@ import amat.structure.StructureType;
 public abstract class Mutator {
     private final EventSet<MutationType> elementEventSet;
 
+    // Per-element probability of a non-silent (lethal or somatic)
+    // mutation, its complement on a log scale, and the conditional
+    // probability that a non-silent mutation is lethal; used to skip
+    // directly from one non-silent site to the next...
+    private final double nonSilentProb;
+    private final double logSilentProb;
+    private final double lethalFraction;
+
     // Running totals for mutation outcomes, used to ensure that the
-    // actual outcome frequencies are near their expected values...
-    private final EnumMultiset<MutationType> mutationCounter =
-        EnumMultiset.create(MutationType.class);
+    // actual outcome frequencies are near their expected values and
+    // to monitor mutation throughput during long runs...
+    private final MutationMetrics metrics = new MutationMetrics();
+
+    // Reusable per-thread buffer for the indexes of the elements with
+    // somatic mutations...
+    private final ThreadLocal<int[]> siteBuffer = ThreadLocal.withInitial(() -> new int[0]);
+
+    // Per-thread random number stream, seeded from the global source
+    // on first use...
+    private final ThreadLocal<SplittableRandom> randomSource =
+        ThreadLocal.withInitial(() -> new SplittableRandom(JamRandom.global().nextLong()));
 
     // The single global mutator...
     private static Mutator global = null;
@@ -31,6 +48,13 @@ public abstract class Mutator {
      */
     protected Mutator() {
         this.elementEventSet = MutatorProperties.getElementEventSet();
+
+        double lethalProb  = elementEventSet.getEventProbability(MutationType.LETHAL).doubleValue();
+        double somaticProb = elementEventSet.getEventProbability(MutationType.SOMATIC).doubleValue();
+
+        this.nonSilentProb  = lethalProb + somaticProb;
+        this.logSilentProb  = Math.log1p(-nonSilentProb);
+        this.lethalFraction = (nonSilentProb > 0.0) ? lethalProb / nonSilentProb : 0.0;
     }
 
     /**
@@ -44,8 +68,10 @@ public abstract class Mutator {
      * are properly defined.
      */
     public static Mutator global() {
-        if (global == null)
+        if (global == null) {
             global = createGlobal();
+            global.metrics.publish();
+        }
 
         return global;
     }
@@ -89,7 +115,16 @@ public abstract class Mutator {
      * produced by this mutator.
      */
     public double getFrequency(MutationType mutationType) {
-        return DoubleUtil.ratio(mutationCounter.count(mutationType), mutationCounter.size());
+        return metrics.getFrequency(mutationType);
+    }
+
+    /**
+     * Returns the running mutation metrics for this mutator.
+     *
+     * @return the running mutation metrics for this mutator.
+     */
+    public MutationMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -106,63 +141,93 @@ public abstract class Mutator {
      * @throws RuntimeException unless the parent is compatible with
      * this mutator.
      */
-    public synchronized Receptor mutate(Receptor parent) {
-        //
-        // This method must be synchronized because the structure
-        // being mutated (in the local workspace) would be shared
-        // among mulitple threads...
-        //
+    public Receptor mutate(Receptor parent) {
         int length = parent.getStructure().length();
-        boolean somatic = false;
+        int somaticCount = 0;
 
         validateParent(parent);
-        copyElements(parent);
 
-        for (int elementIndex = 0; elementIndex < length; elementIndex++) {
-            MutationType mutationType = elementEventSet.select();
+        int[] somaticSites = siteBuffer.get();
 
-            switch (mutationType) {
-            case LETHAL:
-                return lethalMutation();
+        if (somaticSites.length < length) {
+            somaticSites = new int[length];
+            siteBuffer.set(somaticSites);
+        }
 
-            case SILENT:
-                // Do nothing for a silent mutation...
-                break;
+        //
+        // Rather than drawing an outcome for every element, draw the
+        // number of silent elements preceding the next non-silent one
+        // from a geometric distribution, then classify the non-silent
+        // site as lethal or somatic.  The joint distribution of the
+        // outcomes is identical to independent per-element selection
+        // from the element event set, but the expected cost is
+        // proportional to the number of non-silent sites...
+        //
+        SplittableRandom random = randomSource.get();
 
-            case SOMATIC:
-                somatic = true;
-                mutateElement(elementIndex);
-                break;
+        for (long site = skipSilent(random); site < length; site += 1 + skipSilent(random)) {
+            if (random.nextDouble() < lethalFraction)
+                return lethalMutation();
 
-            default:
-                throw new IllegalStateException("Unknown mutation type.");
-            }
+            somaticSites[somaticCount++] = (int) site;
         }
 
-        if (somatic)
-            return somaticMutation();
-        else
+        if (somaticCount == 0)
             return silentMutation(parent);
+
+        //
+        // Only copy the parent elements after the outcome is known to
+        // be somatic: lethal and silent outcomes need no workspace.
+        // The workspace is shared by all threads, so the lock is held
+        // only while the mutated structure is assembled...
+        //
+        Structure structure;
+
+        synchronized (this) {
+            copyElements(parent);
+
+            for (int siteIndex = 0; siteIndex < somaticCount; siteIndex++)
+                mutateElement(somaticSites[siteIndex]);
+
+            structure = newStructure();
+        }
+
+        return somaticMutation(structure);
+    }
+
+    // Draws the number of consecutive silent elements before the next
+    // non-silent element (capped well beyond any receptor length)...
+    private long skipSilent(SplittableRandom random) {
+        if (nonSilentProb <= 0.0)
+            return Integer.MAX_VALUE;
+
+        if (nonSilentProb >= 1.0)
+            return 0;
+
+        // The uniform deviate must lie in (0, 1] for the logarithm...
+        double uniform = 1.0 - random.nextDouble();
+        return (long) Math.min(Math.floor(Math.log(uniform) / logSilentProb), Integer.MAX_VALUE);
     }
 
     private Receptor lethalMutation() {
-        mutationCounter.add(MutationType.LETHAL);
+        metrics.record(MutationType.LETHAL);
         return null;
     }
 
     private Receptor silentMutation(Receptor parent) {
-        mutationCounter.add(MutationType.SILENT);
+        metrics.record(MutationType.SILENT);
         return parent;
     }
 
-    private Receptor somaticMutation() {
-        mutationCounter.add(MutationType.SOMATIC);
-        return new Receptor(newStructure());
+    private Receptor somaticMutation(Structure structure) {
+        metrics.record(MutationType.SOMATIC);
+        return Receptor.create(structure);
     }
 
     /**
      * Copies the underlying elements of the parent receptor structure
-     * into a local workspace.
+     * into a local workspace.  The workspace methods are called while
+     * holding the lock on this mutator.
      *
      * @param parent the parent to mutate.
      */
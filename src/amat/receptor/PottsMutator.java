@@ -10,7 +10,12 @@ import amat.structure.PottsStructure;
  */
 public final class PottsMutator extends Mutator {
     private int cardinality;
-    private int[] elements; // The Potts elements being mutated...
+    private PottsStructure parent; // The structure being mutated...
+
+    // The mutated element indexes and their new ordinal values...
+    private int   mutationCount;
+    private int[] mutatedIndex   = new int[0];
+    private int[] mutatedElement = new int[0];
 
     /**
      * Creates a new mutator for {@code PottsStructure} receptors.
@@ -24,10 +29,18 @@ public final class PottsMutator extends Mutator {
     }
 
     @Override protected void copyElements(Receptor parent) {
-        PottsStructure structure = (PottsStructure) parent.getStructure();
+        //
+        // The mutant is delta-encoded relative to the parent, so the
+        // parent elements themselves are never copied here...
+        //
+        this.parent = (PottsStructure) parent.getStructure();
+        this.cardinality = this.parent.cardinality();
+        this.mutationCount = 0;
 
-        cardinality = structure.cardinality();
-        elements = structure.asOrdinal();
+        if (mutatedIndex.length < this.parent.length()) {
+            mutatedIndex   = new int[this.parent.length()];
+            mutatedElement = new int[this.parent.length()];
+        }
     }
 
     @Override protected void mutateElement(int index) {
@@ -36,16 +49,18 @@ public final class PottsMutator extends Mutator {
         // interval [1, C), then take the modulo C, to guarantee
         // a different element...
         //
-        int original = elements[index];
+        int original = parent.asOrdinal(index);
         int mutation = (original + JamRandom.global().nextInt(1, cardinality)) % cardinality;
 
         assert mutation != original;
         assert 0 <= mutation && mutation < cardinality;
 
-        elements[index] = mutation;
+        mutatedIndex[mutationCount]   = index;
+        mutatedElement[mutationCount] = mutation;
+        ++mutationCount;
     }
 
     @Override protected PottsStructure newStructure() {
-        return new PottsStructure(cardinality, elements);
+        return parent.derive(mutatedIndex, mutatedElement, mutationCount);
     }
 }
@@ -1,7 +1,10 @@
 
 package amat.receptor;
 
+import java.util.SplittableRandom;
+
 import amat.structure.PottsStructure;
+import amat.structure.Structure;
 
 /**
  * Produces receptors with binary {@code 0/1} states as the structural
@@ -47,6 +50,34 @@ public final class PottsReceptorGenerator extends ReceptorGenerator {
     }
 
     @Override public Receptor generate() {
-        return new Receptor(PottsStructure.variable(cardinality, length));
+        return Receptor.create(PottsStructure.variable(cardinality, length));
+    }
+
+    @Override public Receptor generate(SplittableRandom random) {
+        int[] elements = new int[length];
+
+        for (int index = 0; index < length; ++index)
+            elements[index] = random.nextInt(cardinality);
+
+        return Receptor.create(new PottsStructure(cardinality, elements));
+    }
+
+    @Override public boolean isVariantTarget(Structure target) {
+        return (target instanceof PottsStructure)
+            && target.length() == length
+            && ((PottsStructure) target).cardinality() == cardinality;
+    }
+
+    @Override public Receptor generateVariant(Structure target, int[] indexes, int count, SplittableRandom random) {
+        if (!isVariantTarget(target))
+            throw new IllegalArgumentException("Invalid variant target.");
+
+        int[] elements = ((PottsStructure) target).asOrdinal();
+
+        // Shift each selected element to one of the other states...
+        for (int k = 0; k < count; k++)
+            elements[indexes[k]] = (elements[indexes[k]] + 1 + random.nextInt(cardinality - 1)) % cardinality;
+
+        return Receptor.create(new PottsStructure(cardinality, elements));
     }
 }
@@ -10,17 +10,56 @@ import amat.structure.Structure;
 /**
  * Represents a B cell or T cell receptor that can recognize epitopes
  * and undergo somatic mutations.
+ *
+ * <p>Receptors created by the {@link Receptor#create(Structure)}
+ * factory method are canonicalized by the global {@link ReceptorPool}
+ * (when enabled): identical receptors then share one instance with a
+ * unique integer identifier, and equality tests between two pooled
+ * receptors reduce to reference comparisons.
  */
 public final class Receptor {
+    private final int id;
+    private final long fingerprint;
     private final Structure structure;
 
     /**
-     * Creates a new receptor with a fixed structure.
+     * Identifier assigned to receptors that were not created by a
+     * receptor pool.
+     */
+    public static final int UNPOOLED_ID = -1;
+
+    /**
+     * Creates a new (unpooled) receptor with a fixed structure.
      *
      * @param structure the fixed structure to assign.
      */
     public Receptor(Structure structure) {
+        this(structure, UNPOOLED_ID);
+    }
+
+    Receptor(Structure structure, int id) {
+        if (structure == null)
+            throw new NullPointerException("Missing structure.");
+
+        this.id = id;
         this.structure = structure;
+        this.fingerprint = structure.fingerprint();
+    }
+
+    /**
+     * Returns a receptor with a fixed structure: the canonical pooled
+     * instance if the global receptor pool is enabled, otherwise a new
+     * unpooled receptor.
+     *
+     * @param structure the fixed structure to assign.
+     *
+     * @return a receptor with the specified structure.
+     */
+    public static Receptor create(Structure structure) {
+        if (ReceptorPool.isEnabled())
+            return ReceptorPool.global().intern(structure);
+        else
+            return new Receptor(structure);
     }
 
     /**
@@ -36,6 +75,36 @@ public final class Receptor {
         return Mutator.global().mutate(this);
     }
 
+    /**
+     * Returns the 64-bit fingerprint of the receptor structure.
+     *
+     * @return the 64-bit fingerprint of the receptor structure.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the unique identifier assigned by the receptor pool.
+     *
+     * @return the unique (dense, zero-offset) identifier assigned by
+     * the receptor pool, or {@link Receptor#UNPOOLED_ID} if this
+     * receptor is not a pooled instance.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Identifies canonical instances created by the receptor pool.
+     *
+     * @return {@code true} iff this receptor is the canonical pooled
+     * instance for its structure.
+     */
+    public boolean isPooled() {
+        return id != UNPOOLED_ID;
+    }
+
     /**
      * Returns the fixed structure of this receptor.
      *
@@ -63,7 +132,7 @@ public final class Receptor {
     }
 
     @Override public int hashCode() {
-        return structure.hashCode();
+        return Long.hashCode(fingerprint);
     }
 
     @Override public boolean equals(Object that) {
@@ -71,7 +140,14 @@ public final class Receptor {
     }
 
     private boolean equalsReceptor(Receptor that) {
-        return this.structure.equals(that.structure);
+        if (this == that)
+            return true;
+
+        // Distinct pooled instances always have distinct structures...
+        if (this.isPooled() && that.isPooled())
+            return false;
+
+        return this.fingerprint == that.fingerprint && this.structure.equals(that.structure);
     }
 
     @Override public String toString() {
@@ -1,8 +1,11 @@
 
 package amat.receptor;
 
+import java.util.SplittableRandom;
+
 import jam.lang.JamException;
 
+import amat.structure.Structure;
 import amat.structure.StructureType;
 
 /**
@@ -67,4 +70,60 @@ public abstract class ReceptorGenerator {
      * generator.
      */
     public abstract Receptor generate();
+
+    /**
+     * Generates a random receptor with the same distribution as
+     * {@link ReceptorGenerator#generate()} from a given random number
+     * source; this method may be called concurrently with independent
+     * sources.
+     *
+     * @param random the random number source.
+     *
+     * @return a new random receptor.
+     */
+    public abstract Receptor generate(SplittableRandom random);
+
+    /**
+     * Identifies target structures for which this generator can
+     * create variants directly: structures of the same type, length,
+     * and cardinality as those generated at random, such that every
+     * generated receptor is equally likely.
+     *
+     * @param target the structure of interest.
+     *
+     * @return {@code true} iff {@link ReceptorGenerator#generateVariant}
+     * may be called with the specified target.
+     */
+    public boolean isVariantTarget(Structure target) {
+        return false;
+    }
+
+    /**
+     * Creates a receptor that differs from a target structure at
+     * selected elements; each selected element is assigned one of
+     * the other element states uniformly at random.
+     *
+     * <p>This is an optional operation: callers must first verify the
+     * target with {@link ReceptorGenerator#isVariantTarget}.  The
+     * default implementation accepts no targets.
+     *
+     * @param target the target structure.
+     *
+     * @param indexes the (zero-offset, distinct) indexes of the
+     * elements to change.
+     *
+     * @param count the number of elements to change (the number of
+     * leading entries to read from the index array).
+     *
+     * @param random the random number source.
+     *
+     * @return a new receptor that differs from the target at exactly
+     * the selected elements.
+     *
+     * @throws IllegalArgumentException unless the target is a valid
+     * variant target for this generator.
+     */
+    public Receptor generateVariant(Structure target, int[] indexes, int count, SplittableRandom random) {
+        throw new IllegalArgumentException("Invalid variant target.");
+    }
 }
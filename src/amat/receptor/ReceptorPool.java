@@ -0,0 +1,107 @@
+
+package amat.receptor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jam.app.JamProperties;
+
+import amat.structure.Structure;
+
+/**
+ * Canonicalizes receptors so that identical receptors share a single
+ * instance, with a dense integer identifier and a 64-bit fingerprint.
+ *
+ * <p>The pool is safe for concurrent use.  Pooled receptors are never
+ * removed, so the pool grows with the number of unique receptors
+ * created over the lifetime of the application.
+ *
+ * <p>Receptors created by {@link Receptor#create(Structure)} (which
+ * include all germline receptors and somatic mutants) are pooled if
+ * the following system property is {@code true}:
+ *
+ * <p><b>{@code amat.ReceptorPool.enabled:}</b> Whether to canonicalize
+ * new receptors in the global pool (default {@code false}).
+ */
+public final class ReceptorPool {
+    private final AtomicInteger idCounter = new AtomicInteger(0);
+    private final ConcurrentMap<Structure, Receptor> canonical = new ConcurrentHashMap<Structure, Receptor>();
+
+    private static final ReceptorPool global = new ReceptorPool();
+
+    private static Boolean enabled = null;
+
+    /**
+     * Name of the system property which enables the global pool.
+     */
+    public static final String ENABLED_PROPERTY = "amat.ReceptorPool.enabled";
+
+    private ReceptorPool() {
+    }
+
+    /**
+     * Returns the global receptor pool.
+     *
+     * @return the global receptor pool.
+     */
+    public static ReceptorPool global() {
+        return global;
+    }
+
+    /**
+     * Identifies whether new receptors are canonicalized in the
+     * global pool.
+     *
+     * @return {@code true} iff the global pool is enabled by the
+     * system properties.
+     */
+    public static boolean isEnabled() {
+        if (enabled == null)
+            enabled = JamProperties.getOptionalBoolean(ENABLED_PROPERTY, false);
+
+        return enabled;
+    }
+
+    /**
+     * Returns the canonical receptor for a structure, creating and
+     * pooling a new receptor if necessary.
+     *
+     * @param structure the receptor structure.
+     *
+     * @return the canonical receptor with the specified structure.
+     */
+    public Receptor intern(Structure structure) {
+        Receptor receptor = canonical.get(structure);
+
+        if (receptor != null)
+            return receptor;
+        else
+            return canonical.computeIfAbsent(structure, key -> new Receptor(key, idCounter.getAndIncrement()));
+    }
+
+    /**
+     * Returns the canonical instance of a receptor.
+     *
+     * @param receptor the receptor to canonicalize.
+     *
+     * @return the canonical receptor with the same structure as the
+     * input receptor (the input receptor itself if it is already a
+     * pooled instance).
+     */
+    public Receptor intern(Receptor receptor) {
+        if (receptor.isPooled())
+            return receptor;
+        else
+            return intern(receptor.getStructure());
+    }
+
+    /**
+     * Returns the number of unique receptors in this pool.
+     *
+     * @return the number of unique receptors in this pool.
+     */
+    public int size() {
+        return canonical.size();
+    }
+}
@@ -1,7 +1,13 @@
 
 package amat.receptor;
 
+import java.util.SplittableRandom;
+
+import jam.spin.Spin;
+import jam.spin.SpinVector;
+
 import amat.structure.SpinStructure;
+import amat.structure.Structure;
 
 /**
  * Produces receptors with binary spin states as the structural
@@ -32,6 +38,31 @@ public final class SpinReceptorGenerator extends ReceptorGenerator {
     }
 
     @Override public Receptor generate() {
-        return new Receptor(SpinStructure.variable(length));
+        return Receptor.create(SpinStructure.variable(length));
+    }
+
+    @Override public Receptor generate(SplittableRandom random) {
+        SpinVector spins = new SpinVector(length);
+
+        for (int index = 0; index < length; ++index)
+            spins.set(index, random.nextBoolean() ? Spin.UP : Spin.DOWN);
+
+        return Receptor.create(new SpinStructure(spins));
+    }
+
+    @Override public boolean isVariantTarget(Structure target) {
+        return (target instanceof SpinStructure) && target.length() == length;
+    }
+
+    @Override public Receptor generateVariant(Structure target, int[] indexes, int count, SplittableRandom random) {
+        if (!isVariantTarget(target))
+            throw new IllegalArgumentException("Invalid variant target.");
+
+        SpinVector spins = ((SpinStructure) target).copySpins();
+
+        for (int k = 0; k < count; k++)
+            spins.flip(indexes[k]);
+
+        return Receptor.create(new SpinStructure(spins));
     }
 }
@@ -96,4 +96,8 @@ public final class ReentryModel extends IndependentSelectionModel {
     @Override public boolean select(BCell cell) {
         return probability.accept();
     }
+
+    @Override public double getConstantProbability() {
+        return probability.doubleValue();
+    }
 }
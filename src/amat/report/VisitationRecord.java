@@ -1,12 +1,9 @@
 
 package amat.report;
 
-import com.google.common.collect.Multiset;
-
-import jam.dist.EmpiricalDiscreteDistribution;
-import jam.math.StatSummary;
-
-import amat.bcell.BCell;
+import amat.bcell.CycleBindingStats;
+import amat.bcell.IntHistogram;
+import amat.bcell.MomentAccumulator;
 
 /**
  * Encapsulates summary statistics for the number of epitopes
@@ -14,18 +11,18 @@ import amat.bcell.BCell;
  */
 public final class VisitationRecord {
     private final int gcCycle;
-    private final StatSummary affinitySummary;
-    private final StatSummary quantitySummary;
-    private final EmpiricalDiscreteDistribution totalVisitDist;
-    private final EmpiricalDiscreteDistribution uniqueVisitDist;
-    private final EmpiricalDiscreteDistribution uniqueRevisitDist;
+    private final MomentAccumulator affinitySummary;
+    private final MomentAccumulator quantitySummary;
+    private final IntHistogram totalVisitDist;
+    private final IntHistogram uniqueVisitDist;
+    private final IntHistogram uniqueRevisitDist;
 
     private VisitationRecord(int gcCycle,
-                             StatSummary affinitySummary,
-                             StatSummary quantitySummary,
-                             EmpiricalDiscreteDistribution totalVisitDist,
-                             EmpiricalDiscreteDistribution uniqueVisitDist,
-                             EmpiricalDiscreteDistribution uniqueRevisitDist) {
+                             MomentAccumulator affinitySummary,
+                             MomentAccumulator quantitySummary,
+                             IntHistogram totalVisitDist,
+                             IntHistogram uniqueVisitDist,
+                             IntHistogram uniqueRevisitDist) {
         this.gcCycle        = gcCycle;
         this.affinitySummary   = affinitySummary;
         this.quantitySummary   = quantitySummary;
@@ -50,26 +47,21 @@ public final class VisitationRecord {
      * observations for that GC cycle.
      */
     public static VisitationRecord compute(int gcCycle) {
-        Multiset<Integer> totalVisits = BCell.viewTotalEncounters(gcCycle);
-        Multiset<Integer> uniqueVisits = BCell.viewUniqueEncounters(gcCycle);
-        Multiset<Integer> uniqueRevisits = BCell.viewUniqueRevisits(gcCycle);
+        CycleBindingStats stats = CycleBindingStats.snapshot(gcCycle);
 
-        if (totalVisits.size() < MIN_OBS || uniqueVisits.size() < MIN_OBS || uniqueRevisits.size() < MIN_OBS)
-            return null;
+        IntHistogram totalVisits = stats.getTotalVisits();
+        IntHistogram uniqueVisits = stats.getUniqueVisits();
+        IntHistogram uniqueRevisits = stats.getUniqueRevisits();
 
-        StatSummary affinitySummary = StatSummary.compute(BCell.viewAffinityList(gcCycle));
-        StatSummary quantitySummary = StatSummary.compute(BCell.viewQuantityList(gcCycle));
-
-        EmpiricalDiscreteDistribution totalVisitDist = EmpiricalDiscreteDistribution.compute(totalVisits);
-        EmpiricalDiscreteDistribution uniqueVisitDist = EmpiricalDiscreteDistribution.compute(uniqueVisits);
-        EmpiricalDiscreteDistribution uniqueRevisitDist = EmpiricalDiscreteDistribution.compute(uniqueRevisits);
+        if (totalVisits.getCount() < MIN_OBS || uniqueVisits.getCount() < MIN_OBS || uniqueRevisits.getCount() < MIN_OBS)
+            return null;
 
         return new VisitationRecord(gcCycle, 
-                                    affinitySummary,
-                                    quantitySummary,
-                                    totalVisitDist,
-                                    uniqueVisitDist,
-                                    uniqueRevisitDist);
+                                    stats.getAffinity(),
+                                    stats.getQuantity(),
+                                    totalVisits,
+                                    uniqueVisits,
+                                    uniqueRevisits);
     }
 
     /**
@@ -100,12 +92,12 @@ public final class VisitationRecord {
     public String format() {
         return String.format("%d, %.4f, %.4f, %.4f, %.4f, %.4f, %.4f, %.4f, %.4f, %.4f, %.4f",
                              gcCycle, 
-                             totalVisitDist.mean(),
-                             totalVisitDist.sterr(),
-                             uniqueVisitDist.mean(),
-                             uniqueVisitDist.sterr(),
-                             uniqueRevisitDist.mean(),
-                             uniqueRevisitDist.sterr(),
+                             totalVisitDist.getMean(),
+                             totalVisitDist.getError(),
+                             uniqueVisitDist.getMean(),
+                             uniqueVisitDist.getError(),
+                             uniqueRevisitDist.getMean(),
+                             uniqueRevisitDist.getError(),
                              affinitySummary.getMean(),
                              affinitySummary.getError(),
                              quantitySummary.getMean(),
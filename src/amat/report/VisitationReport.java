@@ -8,10 +8,8 @@ import java.util.List;
 
 import jam.app.JamLogger;
 import jam.app.JamProperties;
-import jam.dist.EmpiricalDiscreteDistribution;
-import jam.math.StatSummary;
 
-import amat.bcell.BCell;
+import amat.bcell.CycleBindingStats;
 import amat.germinal.GerminalCenter;
 
 /**
@@ -21,12 +19,8 @@ import amat.germinal.GerminalCenter;
 public final class VisitationReport extends AmatReport {
     private final List<VisitationRecord> records = new ArrayList<VisitationRecord>();
 
-    private StatSummary affinitySummary = null;
-    private StatSummary quantitySummary = null;
-
-    private EmpiricalDiscreteDistribution totalVisitDist = null;
-    private EmpiricalDiscreteDistribution uniqueVisitDist = null;
-    private EmpiricalDiscreteDistribution uniqueRevisitDist = null;
+    // Binding statistics merged over all GC cycles...
+    private CycleBindingStats totalStats = null;
 
     private VisitationReport() {
     }
@@ -56,58 +50,30 @@ public final class VisitationReport extends AmatReport {
     }
 
     public double getMeanAffinity() {
-        return getAffinitySummary().getMean();
+        return getTotalStats().getAffinity().getMean();
     }
 
     public double getMeanQuantity() {
-        return getQuantitySummary().getMean();
+        return getTotalStats().getQuantity().getMean();
     }
 
     public double getMeanTotalAgEncounter() {
-        return getTotalVisitDist().mean();
+        return getTotalStats().getTotalVisits().getMean();
     }
 
     public double getMeanUniqueAgEncounter() {
-        return getUniqueVisitDist().mean();
+        return getTotalStats().getUniqueVisits().getMean();
     }
 
     public double getMeanUniqueAgRevisited() {
-        return getUniqueRevisitDist().mean();
-    }
-
-    private StatSummary getAffinitySummary() {
-        if (affinitySummary == null)
-            affinitySummary = StatSummary.compute(BCell.viewAffinityList());
-
-        return affinitySummary;
-    }
-
-    private StatSummary getQuantitySummary() {
-        if (quantitySummary == null)
-            quantitySummary = StatSummary.compute(BCell.viewQuantityList());
-
-        return quantitySummary;
-    }
-
-    private EmpiricalDiscreteDistribution getTotalVisitDist() {
-        if (totalVisitDist == null)
-            totalVisitDist = EmpiricalDiscreteDistribution.compute(BCell.viewTotalEncounters());
-
-        return totalVisitDist;
-    }
-
-    private EmpiricalDiscreteDistribution getUniqueVisitDist() {
-        if (uniqueVisitDist == null)
-            uniqueVisitDist = EmpiricalDiscreteDistribution.compute(BCell.viewUniqueEncounters());
-
-        return uniqueVisitDist;
+        return getTotalStats().getUniqueRevisits().getMean();
     }
 
-    private EmpiricalDiscreteDistribution getUniqueRevisitDist() {
-        if (uniqueRevisitDist == null)
-            uniqueRevisitDist = EmpiricalDiscreteDistribution.compute(BCell.viewUniqueRevisits());
+    private CycleBindingStats getTotalStats() {
+        if (totalStats == null)
+            totalStats = CycleBindingStats.snapshot();
 
-        return uniqueRevisitDist;
+        return totalStats;
     }
 
     private static boolean runDetailRequested() {
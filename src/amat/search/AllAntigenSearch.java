@@ -1,11 +1,8 @@
 
 package amat.search;
 
-import java.util.ArrayList;
-import java.util.Collection;
-
-import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
+import amat.antigen.AntigenSubset;
 
 /**
  * Selects all antigens for visitation by B cells.
@@ -26,9 +23,11 @@ public final class AllAntigenSearch extends AntigenSearchModel {
      *
      * @param pool the pool of available antigens.
      *
-     * @return the antigens to be visited.
+     * @param selected the subset of the pool to which the selected
+     * antigens are added.
      */
-    @Override public Collection<Antigen> selectAntigens(int cycle, AntigenPool pool) {
-        return new ArrayList<Antigen>(pool.viewAntigens());
+    @Override public void selectAntigens(int cycle, AntigenPool pool, AntigenSubset selected) {
+        for (int position = 0; position < pool.size(); ++position)
+            selected.add(position);
     }
 }
@@ -1,13 +1,10 @@
 
 package amat.search;
 
-import java.util.ArrayList;
-import java.util.Collection;
-
 import jam.math.IntRange;
 
-import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
+import amat.antigen.AntigenSubset;
 
 /**
  * Switches from a "see all" to "see one" search model at a fixed
@@ -53,12 +50,13 @@ public final class AllOneAntigenSearch extends AntigenSearchModel {
      *
      * @param pool the pool of available antigens.
      *
-     * @return the antigens to be visited.
+     * @param selected the subset of the pool to which the selected
+     * antigens are added.
      */
-    @Override public Collection<Antigen> selectAntigens(int cycle, AntigenPool pool) {
+    @Override public void selectAntigens(int cycle, AntigenPool pool, AntigenSubset selected) {
         if (cycle < transition)
-            return AllAntigenSearch.INSTANCE.selectAntigens(cycle, pool);
+            AllAntigenSearch.INSTANCE.selectAntigens(cycle, pool, selected);
         else
-            return OneAntigenSearch.INSTANCE.selectAntigens(cycle, pool);
+            OneAntigenSearch.INSTANCE.selectAntigens(cycle, pool, selected);
     }
 }
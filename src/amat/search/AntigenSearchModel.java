@@ -1,13 +1,16 @@
 
 package amat.search;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import jam.app.JamProperties;
 import jam.lang.JamException;
 
 import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
+import amat.antigen.AntigenSubset;
 import amat.bcell.BCell;
 
 /**
@@ -97,8 +100,15 @@ public abstract class AntigenSearchModel {
      * germinal center.
      */
     public void bind(int cycle, AntigenPool pool, Collection<BCell> cells) {
-        for (BCell cell : cells)
-            cell.bind(visit(cycle, pool));
+        //
+        // One subset buffer is reused for every cell...
+        //
+        AntigenSubset selected = new AntigenSubset(pool);
+
+        for (BCell cell : cells) {
+            visit(cycle, pool, selected);
+            cell.bind(selected);
+        }
     }
 
     /**
@@ -111,14 +121,30 @@ public abstract class AntigenSearchModel {
      * @return a new pool of antigens selected for visitation.
      */
     public AntigenPool visit(int cycle, AntigenPool pool) {
-        Collection<Antigen> antigens = selectAntigens(cycle, pool);
+        AntigenSubset selected = new AntigenSubset(pool);
+        visit(cycle, pool, selected);
+        return selected.toPool();
+    }
+
+    /**
+     * Selects the antigens for visitation by a B cell into a subset
+     * view of the available pool.
+     *
+     * @param cycle the index of the current germinal center cycle.
+     *
+     * @param pool the pool of all available antigens.
+     *
+     * @param selected a subset of the pool, which will be cleared and
+     * then filled with the antigens selected for visitation.
+     */
+    public void visit(int cycle, AntigenPool pool, AntigenSubset selected) {
+        selected.clear();
+        selectAntigens(cycle, pool, selected);
 
         // Keep a running total of the visitation attempts and the
         // number of antigens selected...
         ++visitCount;
-        antigenCount += antigens.size();
-
-        return pool.subset(antigens);
+        antigenCount += selected.size();
     }
 
     /**
@@ -130,7 +156,31 @@ public abstract class AntigenSearchModel {
      *
      * @return the antigens to be visited.
      */
-    public abstract Collection<Antigen> selectAntigens(int cycle, AntigenPool pool);
+    public Collection<Antigen> selectAntigens(int cycle, AntigenPool pool) {
+        AntigenSubset selected = new AntigenSubset(pool);
+        selectAntigens(cycle, pool, selected);
+
+        List<Antigen> antigens = new ArrayList<Antigen>(selected.size());
+
+        for (int index = 0; index < selected.size(); ++index)
+            antigens.add(selected.getAntigen(index));
+
+        return antigens;
+    }
+
+    /**
+     * Selects antigens for visitation by a B cell and adds them to a
+     * caller-supplied subset of the pool; implementations must not
+     * allocate any objects.
+     *
+     * @param cycle the index of the current germinal center cycle.
+     *
+     * @param pool the pool of available antigens.
+     *
+     * @param selected the subset of the pool to which the selected
+     * antigens are added.
+     */
+    public abstract void selectAntigens(int cycle, AntigenPool pool, AntigenSubset selected);
 
     /**
      * Returns the total number of visitation trials.
@@ -1,14 +1,11 @@
 
 package amat.search;
 
-import java.util.ArrayList;
-import java.util.Collection;
-
-import jam.chem.Concentration;
 import jam.chem.Langmuir;
+import jam.math.JamRandom;
 
-import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
+import amat.antigen.AntigenSubset;
 
 /**
  * Selects antigens for visitation stochastically with a probability
@@ -36,19 +33,14 @@ public final class LangmuirAntigenSearch extends AntigenSearchModel {
      *
      * @param pool the pool of available antigens.
      *
-     * @return the antigens to be visited.
+     * @param selected the subset of the pool to which the selected
+     * antigens are added.
      */
-    @Override public Collection<Antigen> selectAntigens(int cycle, AntigenPool pool) {
-        Collection<Antigen> antigens = new ArrayList<Antigen>();
-
-        for (Antigen antigen : pool.viewAntigens())
-            if (select(pool.getConcentration(antigen)))
-                antigens.add(antigen);
-
-        return antigens;
-    }
+    @Override public void selectAntigens(int cycle, AntigenPool pool, AntigenSubset selected) {
+        JamRandom random = JamRandom.global();
 
-    private static boolean select(Concentration conc) {
-        return Langmuir.probability(conc).accept();
+        for (int position = 0; position < pool.size(); ++position)
+            if (random.nextDouble() < Langmuir.INSTANCE.evaluate(pool.getConcAt(position)))
+                selected.add(position);
     }
 }
@@ -1,13 +1,10 @@
 
 package amat.search;
 
-import java.util.Arrays;
-import java.util.Collection;
-
 import jam.math.JamRandom;
 
-import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
+import amat.antigen.AntigenSubset;
 
 /**
  * Selects one antigen for visitation to B cells.  The probability of
@@ -33,9 +30,10 @@ public final class OneAntigenSearch extends AntigenSearchModel {
      *
      * @param pool the pool of available antigens.
      *
-     * @return the antigen to be visited.
+     * @param selected the subset of the pool to which the selected
+     * antigen is added.
      */
-    @Override public Collection<Antigen> selectAntigens(int cycle, AntigenPool pool) {
-        return Arrays.asList(pool.select(JamRandom.global()));
+    @Override public void selectAntigens(int cycle, AntigenPool pool, AntigenSubset selected) {
+        selected.add(pool.selectIndex(JamRandom.global()));
     }
 }
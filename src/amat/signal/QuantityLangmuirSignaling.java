@@ -2,9 +2,9 @@
 package amat.signal;
 
 import jam.chem.Langmuir;
-import jam.math.Probability;
 
 import amat.bcell.BCell;
+import amat.bcell.Bernoulli;
 import amat.bcell.IndependentApoptosisModel;
 
 /**
@@ -22,12 +22,10 @@ public final class QuantityLangmuirSignaling extends IndependentApoptosisModel {
     public static final QuantityLangmuirSignaling INSTANCE = new QuantityLangmuirSignaling();
 
     @Override public boolean apoptose(BCell cell) {
-        double quantity = cell.getAntigenQty();
-        double langmuir = Langmuir.INSTANCE.evaluate(quantity);
-
-        Probability survivalProb = Probability.valueOf(langmuir);
-        Probability apoptosisProb = Probability.not(survivalProb);
+        return Bernoulli.accept(1.0 - computeSurvivalProb(cell));
+    }
 
-        return apoptosisProb.accept();
+    @Override public double computeSurvivalProb(BCell cell) {
+        return Langmuir.INSTANCE.evaluate(cell.getAntigenQty());
     }
 }
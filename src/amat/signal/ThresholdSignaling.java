@@ -55,4 +55,8 @@ public final class ThresholdSignaling extends IndependentApoptosisModel {
     @Override public boolean apoptose(BCell cell) {
         return valueFunc.applyAsDouble(cell) < threshold;
     }
+
+    @Override public double computeSurvivalProb(BCell cell) {
+        return apoptose(cell) ? 0.0 : 1.0;
+    }
 }
@@ -0,0 +1,205 @@
+
+package amat.structure;
+
+import java.util.Arrays;
+
+/**
+ * Base class for discrete structures with exactly two element states
+ * ({@code BitStructure} and {@code SpinStructure}).
+ *
+ * <p>Binary structures keep a packed representation of their ordinal
+ * values: element {@code k} is stored in bit {@code k % 64} of word
+ * {@code k / 64}.  Hamming distances and masked match counts between
+ * two structures of the same runtime type are then computed with one
+ * population count per 64 elements.
+ */
+public abstract class BinaryStructure extends DiscreteStructure {
+    private final long[] words;
+
+    /**
+     * Number of structural elements packed into each word.
+     */
+    public static final int WORD_SIZE = Long.SIZE;
+
+    /**
+     * Creates a binary structure with a packed ordinal representation.
+     *
+     * @param words the packed ordinal values, as created by {@link
+     * BinaryStructure#allocate(int)} and {@link BinaryStructure#setBit(long[], int)};
+     * the array is not copied.
+     */
+    protected BinaryStructure(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Allocates the word array required to pack a structure.
+     *
+     * @param length the number of structural elements to pack.
+     *
+     * @return a zero-filled word array large enough to hold the
+     * specified number of elements.
+     */
+    public static long[] allocate(int length) {
+        return new long[wordCount(length)];
+    }
+
+    /**
+     * Assigns a packed bit (an ordinal value of one).
+     *
+     * @param words the packed word array.
+     *
+     * @param index the (zero-offset) index of the element to assign.
+     */
+    public static void setBit(long[] words, int index) {
+        words[index / WORD_SIZE] |= (1L << (index % WORD_SIZE));
+    }
+
+    /**
+     * Computes the number of words required to pack a structure.
+     *
+     * @param length the number of structural elements.
+     *
+     * @return the number of words required to pack the specified
+     * number of elements.
+     */
+    public static int wordCount(int length) {
+        return (length + WORD_SIZE - 1) / WORD_SIZE;
+    }
+
+    /**
+     * Creates a word mask with bits set at selected element indexes.
+     *
+     * @param indexes the (zero-offset) element indexes to include.
+     *
+     * @param length the total number of structural elements.
+     *
+     * @return a packed mask with bits set at the specified indexes.
+     */
+    public static long[] mask(int[] indexes, int length) {
+        long[] mask = allocate(length);
+
+        for (int index : indexes)
+            setBit(mask, index);
+
+        return mask;
+    }
+
+    // Mask for the valid bits in the final word of a structure with
+    // the given length...
+    private static long tailMask(int length) {
+        int tailBits = length % WORD_SIZE;
+
+        if (tailBits == 0)
+            return -1L;
+        else
+            return (1L << tailBits) - 1L;
+    }
+
+    /**
+     * Identifies pairs of structures that may be compared with the
+     * packed representation.
+     *
+     * @param s1 the first structure.
+     *
+     * @param s2 the second structure.
+     *
+     * @return {@code true} iff both structures are binary structures
+     * with the same runtime type.
+     */
+    public static boolean isPackedPair(Structure s1, Structure s2) {
+        return (s1 instanceof BinaryStructure) && s1.getClass().equals(s2.getClass());
+    }
+
+    /**
+     * Counts the elements that match between this structure and
+     * another binary structure of the same runtime type.
+     *
+     * @param that the structure to compare.
+     *
+     * @return the number of element positions (up to the length of
+     * the shorter structure) where the ordinal values are equal.
+     */
+    public int countMatching(BinaryStructure that) {
+        return countMatching(that, null);
+    }
+
+    /**
+     * Counts the elements in a masked region that match between this
+     * structure and another binary structure of the same runtime type.
+     *
+     * @param that the structure to compare.
+     *
+     * @param mask a packed mask created by {@link BinaryStructure#mask(int[], int)}
+     * identifying the elements to compare, or {@code null} to compare
+     * all elements.
+     *
+     * @return the number of masked element positions (up to the
+     * length of the shorter structure) where the ordinal values are
+     * equal.
+     */
+    public int countMatching(BinaryStructure that, long[] mask) {
+        int length = Math.min(this.length(), that.length());
+        int wordCount = wordCount(length);
+        int matchCount = 0;
+
+        for (int wordIndex = 0; wordIndex < wordCount; ++wordIndex) {
+            long matched = ~(this.words[wordIndex] ^ that.words[wordIndex]);
+
+            if (mask != null)
+                matched &= (wordIndex < mask.length) ? mask[wordIndex] : 0L;
+
+            if (wordIndex == wordCount - 1)
+                matched &= tailMask(length);
+
+            matchCount += Long.bitCount(matched);
+        }
+
+        return matchCount;
+    }
+
+    /**
+     * Returns a copy of the packed ordinal representation.
+     *
+     * @return a copy of the packed ordinal representation.
+     */
+    public long[] copyWords() {
+        return Arrays.copyOf(words, words.length);
+    }
+
+    /**
+     * Computes a 64-bit fingerprint from the packed ordinal
+     * representation, one word at a time.
+     *
+     * @return a 64-bit fingerprint of this structure.
+     */
+    @Override public long fingerprint() {
+        long result = mix64(length());
+
+        for (long word : words)
+            result = mix64(result ^ word);
+
+        return result;
+    }
+
+    /**
+     * Computes the Hamming distance with one population count per
+     * word when the input structure has the same runtime type as this
+     * structure; otherwise falls back to the element-wise comparison.
+     *
+     * @param struct the reference structure.
+     *
+     * @return the Hamming distance between this structure and the
+     * reference structure.
+     *
+     * @throws IllegalArgumentException unless the input structure is
+     * a discrete structure with the same length as this structure.
+     */
+    @Override public int hammingDistance(DiscreteStructure struct) {
+        if (!isPackedPair(this, struct))
+            return super.hammingDistance(struct);
+
+        validateLength(struct);
+        return length() - countMatching((BinaryStructure) struct);
+    }
+}
@@ -8,14 +8,25 @@ import jam.vector.BitVector;
 /**
  * Represents structures composed of boolean bit states.
  */
-public final class BitStructure extends DiscreteStructure {
+public final class BitStructure extends BinaryStructure {
     private final BitVector bits;
 
     private BitStructure(BitVector bits, boolean copy) {
+        super(pack(bits));
+        this.bits = copy ? bits.copy() : bits;
+    }
+
+    private static long[] pack(BitVector bits) {
         if (bits == null)
             throw new NullPointerException("Missing bit vector.");
 
-        this.bits = copy ? bits.copy() : bits;
+        long[] words = allocate(bits.length());
+
+        for (int index = 0; index < bits.length(); index++)
+            if (bits.get(index))
+                setBit(words, index);
+
+        return words;
     }
 
     /**
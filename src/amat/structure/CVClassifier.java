@@ -30,6 +30,10 @@ public final class CVClassifier {
     // Classification for each element...
     private final List<CV> classification = new ArrayList<CV>();
 
+    // Packed masks of conserved and variable elements, used to count
+    // matching elements in binary structures one word at a time...
+    private final Map<CV, long[]> maskMap = new EnumMap<CV, long[]>(CV.class);
+
     private CVClassifier(Collection<Structure> structures) {
         this.structures = structures.toArray(new Structure[0]);
     }
@@ -74,6 +78,9 @@ public final class CVClassifier {
 
         assert classification.size() == maxLength;
         assert conserved.size() + variable.size() == maxLength;
+
+        maskMap.put(CV.CONSERVED, BinaryStructure.mask(getConserved(), maxLength));
+        maskMap.put(CV.VARIABLE,  BinaryStructure.mask(getVariable(),  maxLength));
     }
 
     private int getMaximumLength() {
@@ -128,7 +135,7 @@ public final class CVClassifier {
      * of the two structures.
      */
     public int countMatchingConserved(Structure s1, Structure s2) {
-        return countMatching(conserved, s1, s2);
+        return countMatching(CV.CONSERVED, s1, s2);
     }
 
     /**
@@ -143,7 +150,14 @@ public final class CVClassifier {
      * of the two structures.
      */
     public int countMatchingVariable(Structure s1, Structure s2) {
-        return countMatching(variable, s1, s2);
+        return countMatching(CV.VARIABLE, s1, s2);
+    }
+
+    private int countMatching(CV cv, Structure s1, Structure s2) {
+        if (BinaryStructure.isPackedPair(s1, s2))
+            return ((BinaryStructure) s1).countMatching((BinaryStructure) s2, maskMap.get(cv));
+        else
+            return countMatching(cv.equals(CV.CONSERVED) ? conserved : variable, s1, s2);
     }
 
     private static int countMatching(Set<Integer> indexes, Structure s1, Structure s2) {
@@ -195,6 +209,19 @@ public final class CVClassifier {
         return mapIndexes().get(cv);
     }
 
+    /**
+     * Returns a packed mask identifying elements of a given type, for
+     * use with {@link BinaryStructure#countMatching(BinaryStructure, long[])}.
+     *
+     * @param cv the type of elements to mask (conserved or variable).
+     *
+     * @return a packed mask with bits set at the indexes of elements
+     * having the specified type.
+     */
+    public long[] getMask(CV cv) {
+        return maskMap.get(cv).clone();
+    }
+
     /**
      * Returns the indexes of elements that are identical across all
      * structures.
@@ -1,7 +1,6 @@
 
 package amat.structure;
 
-import jam.math.Distance;
 import jam.math.DoubleComparator;
 import jam.vector.JamVector;
 import jam.vector.VectorView;
@@ -36,6 +35,21 @@ public abstract class NumericStructure extends Structure {
 	return result;
     }
 
+    /**
+     * Computes a 64-bit fingerprint from the numeric representation
+     * of each structural element.
+     *
+     * @return a 64-bit fingerprint of this structure.
+     */
+    @Override public long fingerprint() {
+        long result = mix64(length());
+
+        for (int index = 0; index < length(); index++)
+            result = mix64(result ^ Double.doubleToLongBits(asNumeric(index)));
+
+        return result;
+    }
+
     /**
      * Successfully validates this structure as numeric.
      */
@@ -53,9 +67,20 @@ public abstract class NumericStructure extends Structure {
      *
      * @return the Euclidean distance between this structure and
      * the reference structure.
+     *
+     * @throws IllegalArgumentException unless the structures have
+     * the same length.
      */
     public double euclideanDistance(NumericStructure that) {
-        return Distance.euclidean(this.asNumeric(), that.asNumeric());
+        validateLength(that);
+        double sumSqr = 0.0;
+
+        for (int index = 0; index < length(); index++) {
+            double diff = this.asNumeric(index) - that.asNumeric(index);
+            sumSqr += diff * diff;
+        }
+
+        return Math.sqrt(sumSqr);
     }
 
     /**
@@ -3,7 +3,9 @@ package amat.structure;
 
 import java.util.Arrays;
 
+import jam.app.JamProperties;
 import jam.lang.JamException;
+import jam.math.IntRange;
 import jam.math.JamRandom;
 import jam.util.RegexUtil;
 
@@ -15,18 +17,78 @@ import jam.util.RegexUtil;
  * <p><b>String representation.</b> Potts structures are represented
  * by the following alphabetic code: {@code 'A' = 0}, {@code 'B' = 1},
  * {@code 'C' = 2}, ...
+ *
+ * <p><b>Delta encoding.</b> Structures created by {@link
+ * PottsStructure#derive(int[], int[], int)} (the somatic mutants of a
+ * parent structure) store a reference to the parent plus the changed
+ * positions rather than a full copy of the elements.  Access to single
+ * elements follows the chain of parents (whole-structure comparisons
+ * materialize the elements once instead), so chains are flattened into
+ * a full copy once they reach the maximum depth given by the system property
+ * <b>{@code amat.PottsStructure.maxDeltaDepth}</b> (default {@code 8};
+ * zero disables delta encoding).
  */
 public final class PottsStructure extends DiscreteStructure {
     private final int cardinality;
     private final int hashCode;
+    private final int length;
+
+    // Full element array for flat structures; null for delta-encoded
+    // structures...
     private final int[] elements;
 
+    // The parent structure, the changed positions, and the changed
+    // element values for delta-encoded structures; the depth is the
+    // number of delta-encoded links to the nearest flat structure...
+    private final PottsStructure base;
+    private final int[] deltaIndex;
+    private final int[] deltaElement;
+    private final int depth;
+
+    private static int maxDeltaDepth = -1;
+
+    /**
+     * Name of the system property which defines the maximum length of
+     * a chain of delta-encoded structures.
+     */
+    public static final String MAX_DELTA_DEPTH_PROPERTY = "amat.PottsStructure.maxDeltaDepth";
+
+    /**
+     * Default maximum length of a chain of delta-encoded structures.
+     */
+    public static final int DEFAULT_MAX_DELTA_DEPTH = 8;
+
     private PottsStructure(int cardinality, int[] elements, boolean copy) {
 	validateElements(cardinality, elements);
 
 	this.cardinality = cardinality;
 	this.hashCode = Arrays.hashCode(elements);
+        this.length = elements.length;
         this.elements = copy ? Arrays.copyOf(elements, elements.length) : elements;
+
+        this.base = null;
+        this.deltaIndex = null;
+        this.deltaElement = null;
+        this.depth = 0;
+    }
+
+    private PottsStructure(PottsStructure base, int[] deltaIndex, int[] deltaElement, int hashCode) {
+        this.cardinality = base.cardinality;
+        this.hashCode = hashCode;
+        this.length = base.length;
+        this.elements = null;
+
+        this.base = base;
+        this.deltaIndex = deltaIndex;
+        this.deltaElement = deltaElement;
+        this.depth = base.depth + 1;
+    }
+
+    private static int maxDeltaDepth() {
+        if (maxDeltaDepth < 0)
+            maxDeltaDepth = JamProperties.getOptionalInt(MAX_DELTA_DEPTH_PROPERTY, IntRange.NON_NEGATIVE, DEFAULT_MAX_DELTA_DEPTH);
+
+        return maxDeltaDepth;
     }
 
     private static void validateCardinality(int cardinality) {
@@ -145,6 +207,102 @@ public final class PottsStructure extends DiscreteStructure {
         return new PottsStructure(cardinality, elements, false);
     }
 
+    /**
+     * Creates a variant of this structure with a small number of
+     * changed elements; this structure is unchanged.
+     *
+     * <p>The variant is delta-encoded (it shares the elements of this
+     * structure and stores only the changes) unless the delta chain
+     * would exceed the maximum depth, in which case a flat copy is
+     * created.
+     *
+     * @param indexes the (zero-offset, distinct) indexes of the changed
+     * elements.
+     *
+     * @param changed the new ordinal values of the changed elements.
+     *
+     * @param count the number of changed elements (the number of
+     * leading entries to read from the index and element arrays).
+     *
+     * @return a new Potts structure with the specified changes.
+     *
+     * @throws IllegalArgumentException unless the changed elements
+     * satisfy the cardinality conditions and the indexes are in
+     * bounds.
+     */
+    public PottsStructure derive(int[] indexes, int[] changed, int count) {
+        int newHash = hashCode;
+
+        for (int k = 0; k < count; k++) {
+            int index = indexes[k];
+
+            if (index < 0 || index >= length)
+                throw new IllegalArgumentException("Invalid element index.");
+
+            validateElement(cardinality, changed[k]);
+
+            // Arrays.hashCode weights element i by 31^(length - 1 - i)...
+            newHash += (changed[k] - asOrdinal(index)) * pow31(length - 1 - index);
+        }
+
+        if (depth + 1 > maxDeltaDepth()) {
+            int[] flat = materialize();
+
+            for (int k = 0; k < count; k++)
+                flat[indexes[k]] = changed[k];
+
+            return new PottsStructure(cardinality, flat, false);
+        }
+
+        return new PottsStructure(this, Arrays.copyOf(indexes, count), Arrays.copyOf(changed, count), newHash);
+    }
+
+    private static int pow31(int exponent) {
+        int result = 1;
+        int factor = 31;
+
+        while (exponent > 0) {
+            if ((exponent & 1) != 0)
+                result *= factor;
+
+            factor *= factor;
+            exponent >>= 1;
+        }
+
+        return result;
+    }
+
+    // Returns the elements of this structure: the element array itself
+    // for flat structures, or a new materialized array for delta-encoded
+    // structures (so callers must not modify the result)...
+    private int[] viewElements() {
+        return (elements != null) ? elements : materialize();
+    }
+
+    // Returns a new array containing the elements of this structure...
+    private int[] materialize() {
+        if (elements != null)
+            return Arrays.copyOf(elements, length);
+
+        int[] result = base.materialize();
+
+        for (int k = 0; k < deltaIndex.length; k++)
+            result[deltaIndex[k]] = deltaElement[k];
+
+        return result;
+    }
+
+    /**
+     * Returns the number of delta-encoded links between this
+     * structure and the nearest flat structure in its chain.
+     *
+     * @return the delta-encoding depth ({@code 0} for structures that
+     * store all elements).
+     */
+    public int getDeltaDepth() {
+        return depth;
+    }
+
     /**
      * Creates a new Potts structure from its string representation.
      *
@@ -198,7 +356,7 @@ public final class PottsStructure extends DiscreteStructure {
 	builder.append(cardinality);
 	builder.append(";");
 
-	for (int element : elements)
+	for (int element : materialize())
 	    builder.append(charValue(element));
 
 	return builder.toString();
@@ -209,7 +367,7 @@ public final class PottsStructure extends DiscreteStructure {
     }
 
     @Override public int length() {
-        return elements.length;
+        return length;
     }
 
     /**
@@ -229,16 +387,61 @@ public final class PottsStructure extends DiscreteStructure {
 	return hammingDistance((PottsStructure) struct);
     }
 
+    /**
+     * Computes the Hamming distance by comparing the element arrays
+     * directly when the input structure is also a Potts structure
+     * (delta-encoded structures are materialized once, rather than
+     * following the chain of parents for each element); otherwise
+     * falls back to the element-wise comparison.
+     *
+     * @param struct the reference structure.
+     *
+     * @return the Hamming distance between this structure and the
+     * reference structure.
+     *
+     * @throws IllegalArgumentException unless the input structure is
+     * a discrete structure with the same length as this structure.
+     */
+    @Override public int hammingDistance(DiscreteStructure struct) {
+        if (!(struct instanceof PottsStructure))
+            return super.hammingDistance(struct);
+
+        validateLength(struct);
+
+        int[] these = this.viewElements();
+        int[] those = ((PottsStructure) struct).viewElements();
+
+        int result = 0;
+
+        for (int index = 0; index < length; index++)
+            if (these[index] != those[index])
+                ++result;
+
+        return result;
+    }
+
     @Override public int cardinality() {
 	return cardinality;
     }
 
     @Override public int asOrdinal(int index) {
-	return elements[index];
+        PottsStructure struct = this;
+
+        while (struct.elements == null) {
+            int[] deltaIndex = struct.deltaIndex;
+
+            for (int k = 0; k < deltaIndex.length; k++)
+                if (deltaIndex[k] == index)
+                    return struct.deltaElement[k];
+
+            struct = struct.base;
+        }
+
+	return struct.elements[index];
     }
 
     @Override public int[] asOrdinal() {
-	return Arrays.copyOf(elements, elements.length);
+	return materialize();
     }
 
     @Override public boolean equals(Object that) {
@@ -246,7 +449,10 @@ public final class PottsStructure extends DiscreteStructure {
     }
 
     private boolean equalsPottsStructure(PottsStructure that) {
-        return this.cardinality == that.cardinality && Arrays.equals(this.elements, that.elements);
+        if (this.cardinality != that.cardinality || this.length != that.length || this.hashCode != that.hashCode)
+            return false;
+
+        return Arrays.equals(this.viewElements(), that.viewElements());
     }
 
     @Override public int hashCode() {
@@ -16,9 +16,8 @@ import jam.vector.VectorView;
  * continuous coordinates are mapped to the nearest lattice point.
  */
 public final class ShapeStructure extends NumericStructure {
-    private final int       hashCode;     // Pre-computed hash code...
-    private final long[]    latticeCoord; // The discrete coordinates...
-    private final JamVector doubleCoord;  // The continuous coordinates...
+    private final int      hashCode; // Pre-computed hash code...
+    private final double[] coord;    // The lattice-point coordinates...
 
     /**
      * The lattice spacing for the discretization of the shape space.
@@ -29,9 +28,14 @@ public final class ShapeStructure extends NumericStructure {
         Discretization.withResolution(RESOLUTION);
 
     private ShapeStructure(long[] latticeCoord) {
-        this.hashCode     = Arrays.hashCode(latticeCoord);
-        this.latticeCoord = latticeCoord;
-        this.doubleCoord  = JamVector.copyOf(DISCRETIZATION.asContinuous(latticeCoord));
+        //
+        // Only the continuous coordinates of the lattice point are
+        // stored: the mapping from lattice indexes to coordinates is
+        // deterministic, so two structures occupy the same lattice
+        // point if and only if their coordinate arrays are identical.
+        //
+        this.coord    = DISCRETIZATION.asContinuous(latticeCoord);
+        this.hashCode = Arrays.hashCode(coord);
     }
 
     /**
@@ -71,18 +75,18 @@ public final class ShapeStructure extends NumericStructure {
      * @throws IllegalArgumentException unless the index is in bounds.
      */
     public double get(int index) {
-        return doubleCoord.getDouble(index);
+        return coord[index];
     }
 
     @Override public String format() {
 	StringBuilder builder = new StringBuilder();
 
 	builder.append("ShapeStructure(");
-	builder.append(doubleCoord.get(0));
+	builder.append(coord[0]);
 
-	for (int index = 1; index < doubleCoord.length(); index++) {
+	for (int index = 1; index < coord.length; index++) {
 	    builder.append(", ");
-	    builder.append(doubleCoord.get(index));
+	    builder.append(coord[index]);
 	}
 	
 	builder.append(")");
@@ -94,7 +98,7 @@ public final class ShapeStructure extends NumericStructure {
     }
 
     @Override public int length() {
-        return doubleCoord.length();
+        return coord.length;
     }
 
     @Override public double mutationalDistance(Structure that) {
@@ -105,11 +109,22 @@ public final class ShapeStructure extends NumericStructure {
     }
 
     @Override public double asNumeric(int index) {
-        return doubleCoord.get(index);
+        return coord[index];
     }
 
+    /**
+     * Returns the shape-space coordinates of this structure.
+     *
+     * <p>The coordinates are stored as a primitive array, so this
+     * method allocates and returns a new copy on every call; the
+     * affinity models read individual elements through
+     * {@link ShapeStructure#asNumeric(int)} instead.
+     *
+     * @return a new vector containing the shape-space coordinates of
+     * this structure.
+     */
     @Override public VectorView asNumeric() {
-        return doubleCoord;
+        return JamVector.copyOf(coord);
     }
 
     @Override public boolean equals(Object that) {
@@ -117,7 +132,7 @@ public final class ShapeStructure extends NumericStructure {
     }
 
     private boolean equalsShapeStructure(ShapeStructure that) {
-        return Arrays.equals(this.latticeCoord, that.latticeCoord);
+        return Arrays.equals(this.coord, that.coord);
     }
 
     @Override public int hashCode() {
@@ -8,14 +8,25 @@ import jam.spin.SpinVector;
 /**
  * Represents structures composed of binary spin states.
  */
-public final class SpinStructure extends DiscreteStructure {
+public final class SpinStructure extends BinaryStructure {
     private final SpinVector spins;
 
     private SpinStructure(SpinVector spins, boolean copy) {
+        super(pack(spins));
+        this.spins = copy ? spins.copy() : spins;
+    }
+
+    private static long[] pack(SpinVector spins) {
         if (spins == null)
             throw new NullPointerException("Missing spin vector.");
 
-        this.spins = copy ? spins.copy() : spins;
+        long[] words = allocate(spins.length());
+
+        for (int index = 0; index < spins.length(); index++)
+            if (spins.get(index).ordinal() == 1)
+                setBit(words, index);
+
+        return words;
     }
 
     /**
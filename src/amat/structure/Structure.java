@@ -49,6 +49,31 @@ public abstract class Structure implements Formatted {
         return StructureParser.parse(str);
     }
 
+    /**
+     * Computes a 64-bit fingerprint of this structure.
+     *
+     * <p>Equal structures always have equal fingerprints; unequal
+     * structures have equal fingerprints only by (rare) collision.
+     *
+     * @return a 64-bit fingerprint of this structure.
+     */
+    public abstract long fingerprint();
+
+    /**
+     * Mixes the bits of a 64-bit value (the finalization step of the
+     * SplitMix64 generator), for use in computing fingerprints.
+     *
+     * @param value the value to mix.
+     *
+     * @return the mixed value.
+     */
+    protected static long mix64(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
     /**
      * Returns the enumerated type of this structure.
      *
@@ -5,10 +5,11 @@ import java.util.Set;
 import java.util.function.ToDoubleFunction;
 
 import jam.chem.Langmuir;
-import jam.math.Probability;
 
 import amat.antigen.AntigenPool;
 import amat.bcell.BCell;
+import amat.bcell.Bernoulli;
+import amat.bcell.PopulationStats;
 import amat.bcell.SequentialApoptosisModel;
 
 /**
@@ -21,21 +22,33 @@ import amat.bcell.SequentialApoptosisModel;
  */
 public final class MeanRatioCompetition extends SequentialApoptosisModel {
     private final ToDoubleFunction<BCell> toDouble;
+    private final ToDoubleFunction<PopulationStats> statsMean;
     private double mean;
 
     public MeanRatioCompetition(ToDoubleFunction<BCell> toDouble) {
+        this(toDouble, null);
+    }
+
+    /**
+     * Creates a new competition model that takes the mean value from
+     * precomputed population statistics when they are available.
+     *
+     * @param toDouble the scalar quantity of each B cell.
+     *
+     * @param statsMean the mean value of the scalar quantity in the
+     * population statistics.
+     */
+    public MeanRatioCompetition(ToDoubleFunction<BCell> toDouble, ToDoubleFunction<PopulationStats> statsMean) {
         this.toDouble = toDouble;
+        this.statsMean = statsMean;
     }
 
     @Override public boolean apoptose(BCell cell) {
-        Probability survivalProb = computeSurvivalProb(cell);
-        Probability apoptosisProb = survivalProb.not();
-
-        return apoptosisProb.accept();
+        return Bernoulli.accept(1.0 - computeSurvivalProb(cell));
     }
 
-    private Probability computeSurvivalProb(BCell cell) {
-        return Langmuir.probability(toDouble.applyAsDouble(cell) / mean);
+    @Override public double computeSurvivalProb(BCell cell) {
+        return Langmuir.INSTANCE.evaluate(toDouble.applyAsDouble(cell) / mean);
     }
 
     @Override public void initialize(Set<BCell> cells, AntigenPool pool) {
@@ -44,4 +57,16 @@ public final class MeanRatioCompetition extends SequentialApoptosisModel {
         if (!cells.isEmpty() && Double.isNaN(mean))
             throw new IllegalStateException("Missing mean value.");
     }
+
+    @Override public void initialize(Set<BCell> cells, AntigenPool pool, PopulationStats stats) {
+        if (statsMean == null) {
+            initialize(cells, pool);
+            return;
+        }
+
+        mean = statsMean.applyAsDouble(stats);
+
+        if (!cells.isEmpty() && Double.isNaN(mean))
+            throw new IllegalStateException("Missing mean value.");
+    }
 }
@@ -4,11 +4,12 @@ package amat.tcell;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.ToDoubleFunction;
 
 import jam.math.DoubleRange;
-import jam.util.SetUtil;
 
 import amat.antigen.AntigenPool;
 import amat.bcell.ApoptosisModel;
@@ -19,10 +20,18 @@ import amat.bcell.BCell;
  * java.util.Comparator}. A fixed fraction having the highest values
  * of that metric receive T cell help and survive; the others die by
  * apoptosis.
+ *
+ * <p>If the metric is given as a primitive function ({@link
+ * java.util.function.ToDoubleFunction}), the metric is evaluated once
+ * per cell and the survivors are identified by linear-time selection
+ * rather than sorting.  Cells with equal metric values are ranked by
+ * their iteration order in the input set (later cells rank higher),
+ * which matches the result of a stable sort.
  */
 public final class RankCompetition implements ApoptosisModel {
     private final double survivalRate;
     private final Comparator<BCell> comparator;
+    private final ToDoubleFunction<BCell> metric;
 
     /**
      * Creates a new rank competition model.
@@ -36,8 +45,29 @@ public final class RankCompetition implements ApoptosisModel {
      * in the range {@code [0.0, 1.0]}.
      */
     public RankCompetition(double survivalRate, Comparator<BCell> comparator) {
+        this(survivalRate, comparator, null);
+    }
+
+    /**
+     * Creates a new rank competition model with a primitive metric.
+     *
+     * @param survivalRate the fraction of B cells to receive T cell
+     * help and survive.
+     *
+     * @param metric the metric used to rank competing B cells (in
+     * ascending order).
+     *
+     * @throws IllegalArgumentException unless the survival rate lies
+     * in the range {@code [0.0, 1.0]}.
+     */
+    public RankCompetition(double survivalRate, ToDoubleFunction<BCell> metric) {
+        this(survivalRate, Comparator.comparingDouble(metric), metric);
+    }
+
+    private RankCompetition(double survivalRate, Comparator<BCell> comparator, ToDoubleFunction<BCell> metric) {
         DoubleRange.FRACTIONAL.validate(survivalRate);
 
+        this.metric = metric;
         this.comparator = comparator;
         this.survivalRate = survivalRate;
     }
@@ -63,6 +93,18 @@ public final class RankCompetition implements ApoptosisModel {
     }
 
     @Override public Set<BCell> apoptose(Set<BCell> cells, AntigenPool pool) {
+        // The lowest fraction (1 - R) perish, while the highest
+        // fraction R survive, where R is the survival rate...
+        int originalCount = cells.size();
+        int survivorCount = (int) Math.ceil(survivalRate * originalCount);
+
+        if (metric == null)
+            return apoptoseSorted(cells, originalCount - survivorCount);
+        else
+            return apoptoseSelected(cells, originalCount - survivorCount);
+    }
+
+    private Set<BCell> apoptoseSorted(Set<BCell> cells, int perishedCount) {
         //
         // Sort the cells according to the metric for this
         // competition...
@@ -70,18 +112,152 @@ public final class RankCompetition implements ApoptosisModel {
         List<BCell> sorted = new ArrayList<BCell>(cells);
         Collections.sort(sorted, comparator);
 
-        // The lowest fraction (1 - R) perish, while the highest
-        // fraction R survive, where R is the survival rate...
-        int originalCount = cells.size();
-        int perishedCount = (int) Math.ceil((1.0 - survivalRate) * originalCount);
-        int survivorCount = (int) Math.ceil(survivalRate * originalCount);
+        return removeAll(cells, sorted.subList(0, perishedCount));
+    }
+
+    private Set<BCell> apoptoseSelected(Set<BCell> cells, int perishedCount) {
+        //
+        // Evaluate the metric once per cell; the order array holds
+        // the iteration positions of the cells, which break ties...
+        //
+        int cellCount = cells.size();
+        BCell[] cellArray = cells.toArray(new BCell[cellCount]);
 
-        List<BCell> survivors = 
-            sorted.subList(originalCount - survivorCount, originalCount);
+        int[] order = new int[cellCount];
+        double[] keys = new double[cellCount];
 
-        Set<BCell> perished = SetUtil.difference(cells, survivors);
-        cells.removeAll(perished);
+        for (int index = 0; index < cellCount; ++index) {
+            order[index] = index;
+            keys[index] = metric.applyAsDouble(cellArray[index]);
+        }
+
+        if (perishedCount > 0 && perishedCount < cellCount)
+            select(keys, order, perishedCount);
+
+        List<BCell> perished = new ArrayList<BCell>(perishedCount);
+
+        for (int index = 0; index < perishedCount; ++index)
+            perished.add(cellArray[order[index]]);
+
+        return removeAll(cells, perished);
+    }
+
+    private static Set<BCell> removeAll(Set<BCell> cells, List<BCell> perishedList) {
+        Set<BCell> perished = new HashSet<BCell>(perishedList);
+
+        for (BCell cell : perishedList)
+            cells.remove(cell);
 
         return perished;
     }
+
+    //
+    // Introselect: rearranges the order array so that its first k
+    // elements identify the k lowest-ranked cells.  Quickselect with
+    // a median-of-three pivot runs in linear expected time; if the
+    // partitioning depth grows too large, the remaining range is
+    // heap-sorted to bound the worst case...
+    //
+    private static void select(double[] keys, int[] order, int k) {
+        int lower = 0;
+        int upper = order.length - 1;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(order.length));
+
+        while (lower < upper) {
+            if (depthLimit-- == 0) {
+                heapSort(keys, order, lower, upper);
+                return;
+            }
+
+            int pivot = partition(keys, order, lower, upper, medianOfThree(keys, order, lower, upper));
+
+            if (pivot == k || pivot == k - 1)
+                return;
+            else if (pivot < k)
+                lower = pivot + 1;
+            else
+                upper = pivot - 1;
+        }
+    }
+
+    private static int compare(double[] keys, int pos1, int pos2) {
+        int cmp = Double.compare(keys[pos1], keys[pos2]);
+
+        if (cmp != 0)
+            return cmp;
+        else
+            return Integer.compare(pos1, pos2);
+    }
+
+    private static int medianOfThree(double[] keys, int[] order, int lower, int upper) {
+        int middle = (lower + upper) >>> 1;
+
+        int a = order[lower];
+        int b = order[middle];
+        int c = order[upper];
+
+        if (compare(keys, a, b) < 0) {
+            if (compare(keys, b, c) < 0)
+                return middle;
+            else if (compare(keys, a, c) < 0)
+                return upper;
+            else
+                return lower;
+        }
+        else {
+            if (compare(keys, a, c) < 0)
+                return lower;
+            else if (compare(keys, b, c) < 0)
+                return upper;
+            else
+                return middle;
+        }
+    }
+
+    private static int partition(double[] keys, int[] order, int lower, int upper, int pivotIndex) {
+        int pivot = order[pivotIndex];
+        swap(order, pivotIndex, upper);
+
+        int store = lower;
+
+        for (int index = lower; index < upper; ++index)
+            if (compare(keys, order[index], pivot) < 0)
+                swap(order, index, store++);
+
+        swap(order, store, upper);
+        return store;
+    }
+
+    private static void heapSort(double[] keys, int[] order, int lower, int upper) {
+        int count = upper - lower + 1;
+
+        for (int root = count / 2 - 1; root >= 0; --root)
+            siftDown(keys, order, lower, root, count);
+
+        for (int end = count - 1; end > 0; --end) {
+            swap(order, lower, lower + end);
+            siftDown(keys, order, lower, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] keys, int[] order, int offset, int root, int count) {
+        while (2 * root + 1 < count) {
+            int child = 2 * root + 1;
+
+            if (child + 1 < count && compare(keys, order[offset + child], order[offset + child + 1]) < 0)
+                ++child;
+
+            if (compare(keys, order[offset + root], order[offset + child]) >= 0)
+                return;
+
+            swap(order, offset + root, offset + child);
+            root = child;
+        }
+    }
+
+    private static void swap(int[] order, int i, int j) {
+        int temp = order[i];
+        order[i] = order[j];
+        order[j] = temp;
+    }
 }
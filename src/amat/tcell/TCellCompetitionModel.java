@@ -2,8 +2,8 @@
 package amat.tcell;
 
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.Set;
+import java.util.function.ToDoubleFunction;
 
 import jam.app.JamProperties;
 import jam.lang.JamException;
@@ -62,13 +62,13 @@ public final class TCellCompetitionModel {
 
         switch (modelType) {
         case MAX_AFFINITY_RANK:
-            return createRankCompetition(BCell.MAX_AFFINITY_COMPARATOR);
+            return createRankCompetition(bcell -> bcell.getMaxAffinity());
 
         case ANTIGEN_QTY_RANK:
-            return createRankCompetition(BCell.ANTIGEN_QTY_COMPARATOR);
+            return createRankCompetition(bcell -> bcell.getAntigenQty());
 
         case ANTIGEN_QTY_MEAN_RATIO:
-            return new MeanRatioCompetition(bcell -> bcell.getAntigenQty());
+            return new MeanRatioCompetition(bcell -> bcell.getAntigenQty(), stats -> stats.getMeanAntigenQty());
 
         case WANG_CELL:
             return WangCellCompetition.INSTANCE;
@@ -82,8 +82,8 @@ public final class TCellCompetitionModel {
         return JamProperties.getRequiredEnum(MODEL_TYPE_PROPERTY, TCellCompetitionType.class);
     }
 
-    private static ApoptosisModel createRankCompetition(Comparator<BCell> comparator) {
+    private static ApoptosisModel createRankCompetition(ToDoubleFunction<BCell> metric) {
         double survivalRate = JamProperties.getRequiredDouble(SURVIVAL_RATE_PROPERTY, DoubleRange.FRACTIONAL);
-        return new RankCompetition(survivalRate, comparator);
+        return new RankCompetition(survivalRate, metric);
     }
 }
@@ -4,10 +4,10 @@ package amat.tcell;
 import java.util.Collections;
 import java.util.Set;
 
-import jam.math.Probability;
-
 import amat.antigen.AntigenPool;
 import amat.bcell.BCell;
+import amat.bcell.Bernoulli;
+import amat.bcell.PopulationStats;
 import amat.bcell.SequentialApoptosisModel;
 
 /**
@@ -35,40 +35,31 @@ public final class WangCellCompetition extends SequentialApoptosisModel {
     public static final WangCellCompetition INSTANCE = new WangCellCompetition();
 
     @Override public boolean apoptose(BCell cell) {
-        Probability survivalProb = computeSurvivalProb(cell);
-        Probability apoptosisProb = survivalProb.not();
-
-        return apoptosisProb.accept();
+        return Bernoulli.accept(1.0 - computeSurvivalProb(cell));
     }
 
-    private Probability computeSurvivalProb(BCell cell) {
-        return Probability.valueOf(cell.getAntigenQty() / (alpha + beta * cell.getAntigenQty()));
+    @Override public double computeSurvivalProb(BCell cell) {
+        return cell.getAntigenQty() / (alpha + beta * cell.getAntigenQty());
     }
 
     @Override public void initialize(Set<BCell> cells, AntigenPool pool) {
-        alpha = computeAlpha(cells, pool);
-        beta  = computeBeta(cells, pool);
+        initialize(computeR(pool), computeN(cells), computeMeanQ(cells));
     }
 
-    private static double computeAlpha(Set<BCell> cells, AntigenPool pool) {
-        double R = computeR(pool);
-        double N = computeN(cells);
-        double meanQ = computeMeanQ(cells);
-
-        return R * meanQ * (N / (N - 1.0));
+    @Override public void initialize(Set<BCell> cells, AntigenPool pool, PopulationStats stats) {
+        initialize(computeR(pool), computeN(cells), validateMeanQ(stats.getMeanAntigenQty()));
     }
 
-    private static double computeBeta(Set<BCell> cells, AntigenPool pool) {
-        double R = computeR(pool);
-        double N = computeN(cells);
-
-        return 1.0 - R / (N - 1.0);
+    private void initialize(double R, double N, double meanQ) {
+        alpha = R * meanQ * (N / (N - 1.0));
+        beta  = 1.0 - R / (N - 1.0);
     }
 
     private static double computeMeanQ(Set<BCell> cells) {
-        double meanQ = 
-            cells.stream().mapToDouble(bcell -> bcell.getAntigenQty()).average().orElse(Double.NaN);
+        return validateMeanQ(cells.stream().mapToDouble(bcell -> bcell.getAntigenQty()).average().orElse(Double.NaN));
+    }
 
+    private static double validateMeanQ(double meanQ) {
         if (Double.isNaN(meanQ))
             throw new IllegalStateException("Missing average antigen quantity.");
 
@@ -80,7 +71,7 @@ public final class WangCellCompetition extends SequentialApoptosisModel {
     }
 
     private static double computeR(AntigenPool pool) {
-        return 1.0 / pool.getTotalConc().doubleValue();
+        return 1.0 / pool.getTotalValue();
     }
 
     @Override public synchronized Set<BCell> apoptose(Set<BCell> cells, AntigenPool pool) {
@@ -92,4 +83,11 @@ public final class WangCellCompetition extends SequentialApoptosisModel {
         else
             return super.apoptose(cells, pool);
     }
+
+    @Override public synchronized Set<BCell> apoptose(Set<BCell> cells, AntigenPool pool, PopulationStats stats) {
+        if (cells.size() <= 1)
+            return Collections.emptySet();
+        else
+            return super.apoptose(cells, pool, stats);
+    }
 }
@@ -1,14 +1,12 @@
 
 package amat.visit;
 
-import java.util.List;
+import java.util.SplittableRandom;
 
 import com.google.common.collect.Multiset;
 import com.google.common.collect.HashMultiset;
 
 import jam.app.JamProperties;
-import jam.chem.Langmuir;
-import jam.markov.MarkovProcess;
 import jam.markov.StochasticMatrix;
 import jam.math.IntRange;
 import jam.math.JamRandom;
@@ -23,8 +21,14 @@ import amat.antigen.AntigenPool;
  * clusters, which are quantified by the probability that a B cell
  * will revisit the same antigen at the next site.
  *
- * <p><b>This implementation is restricted to antigens administered at
- * equal concentrations.</b>
+ * <p>The first antigen encountered is selected with probability
+ * equal to its fractional concentration.  At each subsequent site, a
+ * B cell revisits the same antigen with probability {@code revisitProb};
+ * otherwise, it moves to one of the other antigens, selected with
+ * probability proportional to concentration (uniformly, if all
+ * antigens are present at equal concentrations).  Each site is
+ * occupied by antigen with the Langmuir probability for the total
+ * antigen concentration.
  *
  * <p>In this model, B cells visit a fixed number of sites on each
  * cycle, where the number of visits is specified by the system
@@ -36,18 +40,16 @@ import amat.antigen.AntigenPool;
  */
 public class ClusterVisitation extends VisitationModel {
     private final int visitCount;
-    private final JamRandom randomSource;
     private final Probability revisitProb;
 
-    // The stochastic matrix is fixed throughout one germinal center
-    // cycle (because we assume that the antigen concentration remains
-    // fixed).  Here we maintain the matrix in a cache until the cycle
-    // changes...
-    private int cacheCycle;
-    private AntigenPool cacheAgPool;
-    private Probability cacheSeeOne;
-    private List<Antigen> cacheAgList;
-    private StochasticMatrix cacheMatrix;
+    // Reusable per-thread buffer for the visit counts, indexed by
+    // antigen position in the pool...
+    private final ThreadLocal<int[]> countBuffer = ThreadLocal.withInitial(() -> new int[0]);
+
+    // Per-thread random number stream, seeded from the global source
+    // on first use...
+    private final ThreadLocal<SplittableRandom> randomSource =
+        ThreadLocal.withInitial(() -> new SplittableRandom(JamRandom.global().nextLong()));
 
     // The global model defined by system properties...
     private static ClusterVisitation global = null;
@@ -86,11 +88,6 @@ public class ClusterVisitation extends VisitationModel {
         
         this.visitCount = visitCount;
         this.revisitProb = trimRevisitProb(revisitProb);
-        this.randomSource = JamRandom.global();
-
-        // Assign a negative index so that the cache will be rebuilt
-        // on the first visit (with a non-negative cycle)...
-        this.cacheCycle = -1;
     }
 
     private static void validateVisitCount(int visitCount) {
@@ -136,7 +133,9 @@ public class ClusterVisitation extends VisitationModel {
      * Creates the stochastic matrix that describes antigen visitation.
      *
      * <p>The matrix indexes correspond to the indexes of the antigens
-     * in the list view returned by {@code agPool.listAntigens()}.
+     * in the list view returned by {@code agPool.listAntigens()}.  The
+     * visitation process itself is simulated in closed form without
+     * this matrix; it is provided for analysis and testing.
      *
      * @param agPool the pool of all available antigens.
      *
@@ -146,37 +145,40 @@ public class ClusterVisitation extends VisitationModel {
      * @return the Markov process that simulates antigen visitation
      * for the specified antigen pool and revisitProb parameter.
      *
-     * @throws IllegalArgumentException unless the antigens in the
-     * pool are present at equal concentrations and the revisitProb
-     * parameter is valid for the number of antigens present.
+     * @throws IllegalArgumentException unless the pool contains at
+     * least two antigens.
      */
     public static StochasticMatrix createStochasticMatrix(AntigenPool agPool, Probability revisitProb) {
-        if (!agPool.isUniform())
-            throw new IllegalArgumentException("Antigen pool must be uniform.");
-
         int agCount = agPool.size();
+
+        if (agCount < 2)
+            throw new IllegalArgumentException("At least two antigens are required.");
+
         JamMatrix visitMat = new JamMatrix(agCount, agCount);
 
+        double total = agPool.getTotalValue();
         double diagonal = revisitProb.doubleValue();
-        double offDiagonal = computeOffDiagonal(revisitProb, agCount);
 
-        for (int ii = 0; ii < agCount; ++ii)
-            for (int jj = 0; jj < agCount; ++jj)
-                visitMat.set(ii, jj, ii == jj ? diagonal : offDiagonal);
+        for (int ii = 0; ii < agCount; ++ii) {
+            //
+            // The probability of NOT revisiting the same antigen is
+            // distributed among the other (agCount - 1) antigens in
+            // proportion to their concentrations (equally, for a
+            // uniform pool)...
+            //
+            double otherConc = total - agPool.getConcValue(agPool.getAntigen(ii));
+
+            for (int jj = 0; jj < agCount; ++jj) {
+                if (ii == jj)
+                    visitMat.set(ii, jj, diagonal);
+                else
+                    visitMat.set(ii, jj, (1.0 - diagonal) * agPool.getConcValue(agPool.getAntigen(jj)) / otherConc);
+            }
+        }
 
         return new StochasticMatrix(visitMat);
     }
 
-    private static double computeOffDiagonal(Probability revisitProb, int agCount) {
-        //
-        // The probability of NOT revisiting the same antigen 
-        // is equally distributed among the other (agCount - 1)
-        // antigens, which are assumed to be present in equal
-        // concentrations...
-        //
-        return (1.0 - revisitProb.doubleValue()) / (agCount - 1);
-    }
-
     /**
      * Returns the number of antigen sites visited by each B cell.
      *
@@ -198,32 +200,148 @@ public class ClusterVisitation extends VisitationModel {
     }
 
     @Override public Multiset<Antigen> visit(int gcCycle, AntigenPool agPool) {
-        maintainCache(gcCycle, agPool);
+        int agCount = agPool.size();
+        int[] counts = getCountBuffer(agCount);
+
+        visit(agPool, counts);
 
         Multiset<Antigen> visited = HashMultiset.create();
-        MarkovProcess process = new MarkovProcess(randomSource, cacheMatrix);
 
-        for (int index = 0; index < visitCount; index++)
-            if (cacheSeeOne.accept(randomSource))
-                visited.add(cacheAgList.get(process.next()));
+        for (int position = 0; position < agCount; ++position) {
+            if (counts[position] > 0) {
+                visited.add(agPool.getAntigen(position), counts[position]);
+                counts[position] = 0;
+            }
+        }
 
         return visited;
     }
 
-    private void maintainCache(int gcCycle, AntigenPool agPool) {
-        if (needUpdate(gcCycle, agPool))
-            updateCache(gcCycle, agPool);
+    @Override public VisitationBatch visitAll(int gcCycle, AntigenPool agPool, int cellCount) {
+        int agCount = agPool.size();
+        int[] counts = getCountBuffer(agCount);
+
+        VisitationBatch batch = new VisitationBatch(agPool, cellCount);
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            visit(agPool, counts);
+
+            for (int position = 0; position < agCount; ++position) {
+                if (counts[position] > 0) {
+                    batch.add(position, counts[position]);
+                    counts[position] = 0;
+                }
+            }
+
+            batch.endCell();
+        }
+
+        return batch;
     }
 
-    private boolean needUpdate(int gcCycle, AntigenPool agPool) {
-        return gcCycle != cacheCycle || agPool != cacheAgPool;
+    /**
+     * Simulates the visitation of FDCs by a B cell and accumulates the
+     * number of encounters with each antigen.
+     *
+     * @param agPool the pool of all available antigens.
+     *
+     * @param counts an array (with length at least equal to the pool
+     * size) whose element {@code k} is incremented for each encounter
+     * with the antigen at position {@code k} in the list returned by
+     * {@code agPool.listAntigens()}.
+     */
+    public void visit(AntigenPool agPool, int[] counts) {
+        visit(agPool, counts, randomSource.get());
+    }
+
+    @Override public void visit(int gcCycle, AntigenPool agPool, int[] counts, SplittableRandom random) {
+        visit(agPool, counts, random);
     }
 
-    private void updateCache(int gcCycle, AntigenPool agPool) {
-        cacheCycle  = gcCycle;
-        cacheAgPool = agPool;
-        cacheAgList = agPool.listAntigens();
-        cacheMatrix = createStochasticMatrix(agPool, revisitProb);
-        cacheSeeOne = Langmuir.probability(agPool.getTotalConc());
+    private void visit(AntigenPool agPool, int[] counts, SplittableRandom random) {
+        double seeOne = agPool.getOccupancy().doubleValue();
+        double revisit = revisitProb.doubleValue();
+
+        // No antigen has been encountered yet...
+        int current = -1;
+
+        for (int index = 0; index < visitCount; index++) {
+            if (random.nextDouble() >= seeOne)
+                continue;
+
+            if (current < 0)
+                current = agPool.selectIndex(random);
+            else if (random.nextDouble() >= revisit)
+                current = selectOther(agPool, current, random);
+
+            ++counts[current];
+        }
+    }
+
+    private static int selectOther(AntigenPool agPool, int current, SplittableRandom random) {
+        int agCount = agPool.size();
+
+        if (agCount < 2)
+            return current;
+
+        double total = agPool.getTotalValue();
+        double otherTotal = total - agPool.getConcAt(current);
+
+        //
+        // While the current antigen holds no more than half of the
+        // pool, sampling from the full pool and rejecting the current
+        // antigen takes at most two draws on average and uses the
+        // constant-time alias table...
+        //
+        if (otherTotal >= 0.5 * total) {
+            int next = agPool.selectIndex(random);
+
+            while (next == current)
+                next = agPool.selectIndex(random);
+
+            return next;
+        }
+
+        //
+        // Otherwise the expected number of rejections is unbounded,
+        // so sample the other antigens exactly from their cumulative
+        // concentrations...
+        //
+        double target = random.nextDouble() * otherTotal;
+        double cumulative = 0.0;
+        int last = -1;
+
+        for (int position = 0; position < agCount; ++position) {
+            if (position == current)
+                continue;
+
+            double conc = agPool.getConcAt(position);
+
+            if (conc <= 0.0)
+                continue;
+
+            cumulative += conc;
+            last = position;
+
+            if (target < cumulative)
+                return position;
+        }
+
+        // Round-off may leave the target just beyond the final sum...
+        if (last >= 0)
+            return last;
+        else
+            return current;
+    }
+
+    private int[] getCountBuffer(int agCount) {
+        int[] counts = countBuffer.get();
+
+        if (counts.length < agCount) {
+            counts = new int[agCount];
+            countBuffer.set(counts);
+        }
+
+        return counts;
     }
 }
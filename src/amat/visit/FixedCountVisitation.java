@@ -1,11 +1,14 @@
 
 package amat.visit;
 
+import java.util.SplittableRandom;
+
 import com.google.common.collect.Multiset;
 import com.google.common.collect.HashMultiset;
 
 import jam.app.JamProperties;
 import jam.math.IntRange;
+import jam.math.JamRandom;
 
 import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
@@ -20,6 +23,15 @@ import amat.occupy.OccupationModel;
 public final class FixedCountVisitation extends VisitationModel {
     private final int count;
 
+    // Reusable per-thread buffer for the visit counts, indexed by
+    // antigen position in the pool...
+    private final ThreadLocal<int[]> countBuffer = ThreadLocal.withInitial(() -> new int[0]);
+
+    // Per-thread random number stream, seeded from the global source
+    // on first use...
+    private final ThreadLocal<SplittableRandom> randomSource =
+        ThreadLocal.withInitial(() -> new SplittableRandom(JamRandom.global().nextLong()));
+
     // The global model defined by system properties...
     private static FixedCountVisitation global = null;
 
@@ -77,11 +89,59 @@ public final class FixedCountVisitation extends VisitationModel {
     }
 
     @Override public Multiset<Antigen> visit(int cycle, AntigenPool pool) {
+        int agCount = pool.size();
+        int[] counts = getCountBuffer(agCount);
+
+        OccupationModel.global().visit(cycle, pool, count, counts, randomSource.get());
+
         Multiset<Antigen> antigens = HashMultiset.create();
 
-        for (int index = 0; index < count; index++)
-            antigens.addAll(OccupationModel.global().visit(cycle, pool));
+        for (int position = 0; position < agCount; ++position) {
+            if (counts[position] > 0) {
+                antigens.add(pool.getAntigen(position), counts[position]);
+                counts[position] = 0;
+            }
+        }
 
         return antigens;
     }
+
+    @Override public void visit(int cycle, AntigenPool pool, int[] counts, SplittableRandom random) {
+        OccupationModel.global().visit(cycle, pool, count, counts, random);
+    }
+
+    @Override public VisitationBatch visitAll(int cycle, AntigenPool pool, int cellCount) {
+        int agCount = pool.size();
+        int[] counts = getCountBuffer(agCount);
+
+        OccupationModel model = OccupationModel.global();
+        SplittableRandom random = randomSource.get();
+        VisitationBatch batch = new VisitationBatch(pool, cellCount);
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            model.visit(cycle, pool, count, counts, random);
+
+            for (int position = 0; position < agCount; ++position) {
+                if (counts[position] > 0) {
+                    batch.add(position, counts[position]);
+                    counts[position] = 0;
+                }
+            }
+
+            batch.endCell();
+        }
+
+        return batch;
+    }
+
+    private int[] getCountBuffer(int agCount) {
+        int[] counts = countBuffer.get();
+
+        if (counts.length < agCount) {
+            counts = new int[agCount];
+            countBuffer.set(counts);
+        }
+
+        return counts;
+    }
 }
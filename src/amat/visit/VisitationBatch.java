@@ -0,0 +1,140 @@
+
+package amat.visit;
+
+import java.util.Arrays;
+
+import amat.antigen.AntigenPool;
+
+/**
+ * Records the FDC visitation results for all active B cells in one
+ * germinal center cycle in flat primitive arrays.
+ *
+ * <p>Each encounter entry contains the position of an antigen in the
+ * pool (as in {@link AntigenPool#getAntigen(int)}) and the number of
+ * times it was encountered.  The entries for cell {@code k} occupy
+ * the index range {@code [getEntryStart(k), getEntryEnd(k))}.
+ */
+public final class VisitationBatch {
+    private final AntigenPool pool;
+    private final int[] cellOffsets;
+
+    private int[] positions;
+    private int[] counts;
+
+    private int cellCount = 0;
+    private int entryCount = 0;
+
+    /**
+     * Creates an empty visitation batch.
+     *
+     * @param pool the antigen pool that was visited.
+     *
+     * @param cellCount the number of B cells in the batch.
+     */
+    public VisitationBatch(AntigenPool pool, int cellCount) {
+        this.pool = pool;
+        this.cellOffsets = new int[cellCount + 1];
+        this.positions = new int[Math.max(cellCount, 1)];
+        this.counts = new int[Math.max(cellCount, 1)];
+    }
+
+    /**
+     * Records an encounter entry for the current B cell.
+     *
+     * @param position the position of the antigen in the pool.
+     *
+     * @param count the number of times the antigen was encountered.
+     *
+     * @throws IllegalStateException if all cells have been completed.
+     */
+    public void add(int position, int count) {
+        if (cellCount >= cellOffsets.length - 1)
+            throw new IllegalStateException("All cells have been completed.");
+
+        if (entryCount == positions.length) {
+            positions = Arrays.copyOf(positions, 2 * entryCount);
+            counts    = Arrays.copyOf(counts, 2 * entryCount);
+        }
+
+        positions[entryCount] = position;
+        counts[entryCount] = count;
+        ++entryCount;
+    }
+
+    /**
+     * Completes the entries for the current B cell and moves on to
+     * the next cell.
+     *
+     * @throws IllegalStateException if all cells have been completed.
+     */
+    public void endCell() {
+        if (cellCount >= cellOffsets.length - 1)
+            throw new IllegalStateException("All cells have been completed.");
+
+        cellOffsets[++cellCount] = entryCount;
+    }
+
+    /**
+     * Returns the antigen pool that was visited.
+     *
+     * @return the antigen pool that was visited.
+     */
+    public AntigenPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Returns the number of completed B cells in this batch.
+     *
+     * @return the number of completed B cells in this batch.
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Returns the index of the first encounter entry for a B cell.
+     *
+     * @param cell the (zero-offset) index of the B cell.
+     *
+     * @return the index of the first encounter entry for the cell.
+     */
+    public int getEntryStart(int cell) {
+        return cellOffsets[cell];
+    }
+
+    /**
+     * Returns one past the index of the last encounter entry for a B
+     * cell.
+     *
+     * @param cell the (zero-offset) index of the B cell.
+     *
+     * @return one past the index of the last encounter entry for the
+     * cell.
+     */
+    public int getEntryEnd(int cell) {
+        return cellOffsets[cell + 1];
+    }
+
+    /**
+     * Returns the pool position of the antigen in an encounter entry.
+     *
+     * @param entry the index of the encounter entry.
+     *
+     * @return the pool position of the antigen encountered.
+     */
+    public int getPosition(int entry) {
+        return positions[entry];
+    }
+
+    /**
+     * Returns the number of encounters in an encounter entry.
+     *
+     * @param entry the index of the encounter entry.
+     *
+     * @return the number of times the antigen was encountered.
+     */
+    public int getCount(int entry) {
+        return counts[entry];
+    }
+}
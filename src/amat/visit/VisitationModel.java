@@ -1,6 +1,8 @@
 
 package amat.visit;
 
+import java.util.SplittableRandom;
+
 import com.google.common.collect.Multiset;
 
 import jam.app.JamProperties;
@@ -78,4 +80,59 @@ public abstract class VisitationModel {
      * FDCs.
      */
     public abstract Multiset<Antigen> visit(int cycle, AntigenPool pool);
+
+    /**
+     * Simulates the visitation of FDCs by a B cell using a specific
+     * random number source and accumulates the number of encounters
+     * with each antigen.
+     *
+     * <p>This default implementation adapts {@link
+     * VisitationModel#visit(int, AntigenPool)} and ignores the random
+     * source; subclasses that override it may be called concurrently
+     * from multiple threads with independent random sources and count
+     * arrays, provided that the pool is frozen.
+     *
+     * @param cycle the index of the current germinal center cycle.
+     *
+     * @param pool the pool of all available antigens.
+     *
+     * @param counts an array (with length at least equal to the pool
+     * size) whose element {@code k} is incremented for each encounter
+     * with the antigen at position {@code k} in the pool.
+     *
+     * @param random the random number source.
+     */
+    public void visit(int cycle, AntigenPool pool, int[] counts, SplittableRandom random) {
+        for (Multiset.Entry<Antigen> entry : visit(cycle, pool).entrySet())
+            counts[pool.indexOf(entry.getElement())] += entry.getCount();
+    }
+
+    /**
+     * Simulates the visitation of FDCs by all active B cells in one
+     * germinal center cycle.
+     *
+     * <p>This default implementation records the results of {@link
+     * VisitationModel#visit(int, AntigenPool)} for each cell;
+     * subclasses may override it to avoid the intermediate multisets.
+     *
+     * @param cycle the index of the current germinal center cycle.
+     *
+     * @param pool the pool of all available antigens.
+     *
+     * @param cellCount the number of active B cells.
+     *
+     * @return the antigens encountered on the FDCs by each cell.
+     */
+    public VisitationBatch visitAll(int cycle, AntigenPool pool, int cellCount) {
+        VisitationBatch batch = new VisitationBatch(pool, cellCount);
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            for (Multiset.Entry<Antigen> entry : visit(cycle, pool).entrySet())
+                batch.add(pool.indexOf(entry.getElement()), entry.getCount());
+
+            batch.endCell();
+        }
+
+        return batch;
+    }
 }
@@ -1,9 +1,13 @@
 
 package amat.visit;
 
-import java.io.File;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
@@ -11,19 +15,30 @@ import com.google.common.collect.Multiset;
 import jam.app.JamProperties;
 import jam.dist.EmpiricalDiscreteDistribution;
 import jam.math.IntRange;
-import jam.util.SetUtil;
+import jam.math.JamRandom;
 
-import amat.antigen.Antigen;
 import amat.antigen.AntigenPool;
 import amat.vaccine.VaccinationSchedule;
 
 /**
  * Driver application to sample the number of antigens encountered
  * during visits to the germinal center light zone.
+ *
+ * <p>The trials are divided into fixed blocks, each with its own
+ * random number stream and primitive count histograms; the blocks are
+ * executed by worker threads and their histograms are summed after
+ * all blocks finish.  The number of workers is given by the system
+ * property <b>{@code amat.VisitationSampler.threadCount}</b> (defaulting
+ * to the number of available processors).
+ *
+ * <p>The antigens visited in consecutive trials are recorded in
+ * bitmasks, so that each revisit count is the population count of
+ * their intersection.
  */
 public final class VisitationSampler {
     private final int gcCycle;
     private final int trialCount;
+    private final int threadCount;
 
     private final AntigenPool antigenPool;
     private final VisitationModel visitationModel;
@@ -34,6 +49,7 @@ public final class VisitationSampler {
     private VisitationSampler() {
         this.gcCycle = resolveGcCycle();
         this.trialCount = resolveTrialCount();
+        this.threadCount = resolveThreadCount();
 
         this.antigenPool = loadAntigenPool(gcCycle);
         this.visitationModel = VisitationModel.global();
@@ -47,8 +63,17 @@ public final class VisitationSampler {
         return JamProperties.getOptionalInt(TRIAL_COUNT_PROPERTY, IntRange.POSITIVE, TRIAL_COUNT_DEFAULT);
     }
 
+    private static int resolveThreadCount() {
+        return JamProperties.getOptionalInt(THREAD_COUNT_PROPERTY, IntRange.POSITIVE, Runtime.getRuntime().availableProcessors());
+    }
+
     private static AntigenPool loadAntigenPool(int gcCycle) {
-        return VaccinationSchedule.global().getAntigenPoolFootprint(gcCycle);
+        //
+        // The pool is shared by all workers, so it must be frozen
+        // (which also caches the total concentration and selection
+        // table)...
+        //
+        return VaccinationSchedule.global().getAntigenPoolFootprint(gcCycle).freeze();
     }
 
     /**
@@ -65,7 +90,13 @@ public final class VisitationSampler {
     public static final String TRIAL_COUNT_PROPERTY = "amat.VisitationSampler.trialCount";
 
     /**
-     *
+     * Name of the system property which specifies the number of
+     * worker threads; defaults to the number of available processors.
+     */
+    public static final String THREAD_COUNT_PROPERTY = "amat.VisitationSampler.threadCount";
+
+    /**
+     * Default number of visitation trials.
      */
     public static final int TRIAL_COUNT_DEFAULT = 1000000;
 
@@ -88,28 +119,130 @@ public final class VisitationSampler {
     }
 
     private void sample() {
-        Set<Antigen> revisited;
-        Set<Antigen> prevVisit;
-        Set<Antigen> currVisit = visit();
+        //
+        // Each block of trials draws from its own stream, split from
+        // one root stream in block order, so the results depend only
+        // on the global seed and not on the number of threads...
+        //
+        SplittableRandom root = new SplittableRandom(JamRandom.global().nextLong());
+
+        //
+        // Visit once on this thread so that any lazily created global
+        // models exist before the workers start...
+        //
+        visitationModel.visit(gcCycle, antigenPool, new int[antigenPool.size()], root);
+
+        int blockCount = (trialCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        List<Block> blocks = new ArrayList<Block>(blockCount);
+
+        for (int blockIndex = 0; blockIndex < blockCount; ++blockIndex) {
+            int lower = blockIndex * BLOCK_SIZE;
+            int upper = Math.min(lower + BLOCK_SIZE, trialCount);
+
+            blocks.add(new Block(upper - lower, root.split()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, blockCount));
+
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>(blockCount);
+
+            for (Block block : blocks)
+                futures.add(executor.submit(block));
+
+            for (Future<?> future : futures)
+                future.get();
+        }
+        catch (Exception ex) {
+            throw new IllegalStateException("Visitation sampling failed.", ex);
+        }
+        finally {
+            executor.shutdown();
+        }
 
         Multiset<Integer> visitCounts = HashMultiset.create();
         Multiset<Integer> revisitCounts = HashMultiset.create();
 
-        for (int trialIndex = 0; trialIndex < trialCount; ++trialIndex) {
-            prevVisit = currVisit;
-            currVisit = visit();
-            revisited = SetUtil.intersection(currVisit, prevVisit);
+        for (int count = 0; count <= antigenPool.size(); ++count) {
+            long visitTotal = 0;
+            long revisitTotal = 0;
 
-            visitCounts.add(currVisit.size());
-            revisitCounts.add(revisited.size());
+            for (Block block : blocks) {
+                visitTotal += block.visitHist[count];
+                revisitTotal += block.revisitHist[count];
+            }
+
+            visitCounts.add(count, (int) visitTotal);
+            revisitCounts.add(count, (int) revisitTotal);
         }
 
         visitDist = EmpiricalDiscreteDistribution.compute(visitCounts);
         revisitDist = EmpiricalDiscreteDistribution.compute(revisitCounts);
     }
 
-    private Set<Antigen> visit() {
-        return new HashSet<Antigen>(visitationModel.visit(gcCycle, antigenPool));
+    // Number of trials in each block with its own random stream...
+    private static final int BLOCK_SIZE = 10000;
+
+    private final class Block implements Runnable {
+        private final int trials;
+        private final SplittableRandom random;
+
+        // Element K counts the trials in which K unique antigens were
+        // visited (or revisited)...
+        private final long[] visitHist = new long[antigenPool.size() + 1];
+        private final long[] revisitHist = new long[antigenPool.size() + 1];
+
+        private Block(int trials, SplittableRandom random) {
+            this.trials = trials;
+            this.random = random;
+        }
+
+        @Override public void run() {
+            int[] counts = new int[antigenPool.size()];
+
+            //
+            // Bitmasks of the antigen positions visited in the previous
+            // and current trials (swapped after each trial); the first
+            // visit only primes the revisit comparison...
+            //
+            long[] prevVisit = new long[(antigenPool.size() + Long.SIZE - 1) / Long.SIZE];
+            long[] currVisit = new long[prevVisit.length];
+
+            visit(currVisit, counts, random);
+
+            for (int trialIndex = 0; trialIndex < trials; ++trialIndex) {
+                long[] swap = prevVisit;
+
+                prevVisit = currVisit;
+                currVisit = swap;
+
+                visit(currVisit, counts, random);
+
+                int visited = 0;
+                int revisited = 0;
+
+                for (int word = 0; word < currVisit.length; ++word) {
+                    visited += Long.bitCount(currVisit[word]);
+                    revisited += Long.bitCount(currVisit[word] & prevVisit[word]);
+                }
+
+                ++visitHist[visited];
+                ++revisitHist[revisited];
+            }
+        }
+    }
+
+    // Fills a bitmask with the antigen positions visited...
+    private void visit(long[] mask, int[] counts, SplittableRandom random) {
+        Arrays.fill(mask, 0L);
+        visitationModel.visit(gcCycle, antigenPool, counts, random);
+
+        for (int position = 0; position < counts.length; ++position) {
+            if (counts[position] > 0) {
+                mask[position / Long.SIZE] |= 1L << (position % Long.SIZE);
+                counts[position] = 0;
+            }
+        }
     }
 
     private void report() {